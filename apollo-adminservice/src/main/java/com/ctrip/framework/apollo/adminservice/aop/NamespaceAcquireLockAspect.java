@@ -93,10 +93,18 @@ public class NamespaceAcquireLockAspect {
       return;
     }
 
-    Namespace namespace = namespaceService.findOne(namespaceId);
+    //the current user holds the lock already, e.g. deleting items one by one, so the namespace is not needed
+    NamespaceLock namespaceLock = namespaceLockService.findLock(namespaceId);
+    if (namespaceLock != null && namespaceLock.getDataChangeCreatedBy().equals(currentUser)) {
+      return;
+    }
 
-    acquireLock(namespace, currentUser);
+    Namespace namespace = namespaceService.findOne(namespaceId);
+    if (namespace == null) {
+      throw new BadRequestException("namespace not exist.");
+    }
 
+    acquireLock(namespace, namespaceLock, currentUser);
   }
 
   private void acquireLock(Namespace namespace, String currentUser) {
@@ -104,9 +112,12 @@ public class NamespaceAcquireLockAspect {
       throw new BadRequestException("namespace not exist.");
     }
 
+    acquireLock(namespace, namespaceLockService.findLock(namespace.getId()), currentUser);
+  }
+
+  private void acquireLock(Namespace namespace, NamespaceLock namespaceLock, String currentUser) {
     long namespaceId = namespace.getId();
 
-    NamespaceLock namespaceLock = namespaceLockService.findLock(namespaceId);
     if (namespaceLock == null) {
       try {
         tryLock(namespaceId, currentUser);
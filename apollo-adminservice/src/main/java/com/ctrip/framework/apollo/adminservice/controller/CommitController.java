@@ -7,6 +7,7 @@ import com.ctrip.framework.apollo.common.utils.BeanUtils;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -29,4 +30,16 @@ public class CommitController {
     return BeanUtils.batchTransform(CommitDTO.class, commits);
   }
 
+  /**
+   * Keyset pagination variant, which costs the same for deep pages, the next page starts before the last id returned
+   */
+  @GetMapping(value = "/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/commit", params = "beforeId")
+  public List<CommitDTO> findBefore(@PathVariable String appId, @PathVariable String clusterName,
+                                    @PathVariable String namespaceName, @RequestParam("beforeId") long beforeId,
+                                    @RequestParam(value = "size", defaultValue = "20") int size) {
+
+    List<Commit> commits = commitService.findBefore(appId, clusterName, namespaceName, beforeId, size);
+    return BeanUtils.batchTransform(CommitDTO.class, commits);
+  }
+
 }
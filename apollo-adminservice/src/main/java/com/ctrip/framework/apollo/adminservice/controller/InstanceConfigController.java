@@ -2,7 +2,7 @@ package com.ctrip.framework.apollo.adminservice.controller;
 
 import com.ctrip.framework.apollo.biz.entity.Instance;
 import com.ctrip.framework.apollo.biz.entity.InstanceConfig;
-import com.ctrip.framework.apollo.biz.entity.Release;
+import com.ctrip.framework.apollo.biz.entity.ReleaseSummary;
 import com.ctrip.framework.apollo.biz.service.InstanceService;
 import com.ctrip.framework.apollo.biz.service.ReleaseService;
 import com.ctrip.framework.apollo.common.dto.InstanceConfigDTO;
@@ -18,7 +18,6 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -28,6 +27,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,7 +52,7 @@ public class InstanceConfigController {
   @GetMapping("/by-release")
   public PageDTO<InstanceDTO> getByRelease(@RequestParam("releaseId") long releaseId,
                                            Pageable pageable) {
-    Release release = releaseService.findOne(releaseId);
+    ReleaseSummary release = releaseService.findReleaseSummary(releaseId);
     if (release == null) {
       throw new NotFoundException(String.format("release not found for %s", releaseId));
     }
@@ -62,40 +62,34 @@ public class InstanceConfigController {
     List<InstanceDTO> instanceDTOs = Collections.emptyList();
 
     if (instanceConfigsPage.hasContent()) {
-      Multimap<Long, InstanceConfig> instanceConfigMap = HashMultimap.create();
-      Set<String> otherReleaseKeys = Sets.newHashSet();
-
-      for (InstanceConfig instanceConfig : instanceConfigsPage.getContent()) {
-        instanceConfigMap.put(instanceConfig.getInstanceId(), instanceConfig);
-        otherReleaseKeys.add(instanceConfig.getReleaseKey());
-      }
-
-      Set<Long> instanceIds = instanceConfigMap.keySet();
-
-      List<Instance> instances = instanceService.findInstancesByIds(instanceIds);
-
-      if (!CollectionUtils.isEmpty(instances)) {
-        instanceDTOs = BeanUtils.batchTransform(InstanceDTO.class, instances);
-      }
-
-      for (InstanceDTO instanceDTO : instanceDTOs) {
-        Collection<InstanceConfig> configs = instanceConfigMap.get(instanceDTO.getId());
-        List<InstanceConfigDTO> configDTOs = configs.stream().map(instanceConfig -> {
-          InstanceConfigDTO instanceConfigDTO = new InstanceConfigDTO();
-          //to save some space
-          instanceConfigDTO.setRelease(null);
-          instanceConfigDTO.setReleaseDeliveryTime(instanceConfig.getReleaseDeliveryTime());
-          instanceConfigDTO.setDataChangeLastModifiedTime(instanceConfig
-              .getDataChangeLastModifiedTime());
-          return instanceConfigDTO;
-        }).collect(Collectors.toList());
-        instanceDTO.setConfigs(configDTOs);
-      }
+      instanceDTOs = transformInstanceConfigs2InstanceDTOs(instanceConfigsPage.getContent());
     }
 
     return new PageDTO<>(instanceDTOs, pageable, instanceConfigsPage.getTotalElements());
   }
 
+  /**
+   * Keyset pagination variant, which costs the same for deep pages, the next page starts after the last id returned
+   */
+  @GetMapping(value = "/by-release", params = "afterId")
+  public List<InstanceDTO> getByReleaseAfter(@RequestParam("releaseId") long releaseId,
+                                             @RequestParam("afterId") long afterId,
+                                             @RequestParam(value = "size", defaultValue = "20") int size) {
+    ReleaseSummary release = releaseService.findReleaseSummary(releaseId);
+    if (release == null) {
+      throw new NotFoundException(String.format("release not found for %s", releaseId));
+    }
+    List<InstanceConfig> instanceConfigs = instanceService.findActiveInstanceConfigsByReleaseKeyAfter(
+        release.getReleaseKey(), afterId, size);
+    if (instanceConfigs.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<InstanceDTO> instanceDTOs = transformInstanceConfigs2InstanceDTOs(instanceConfigs);
+    instanceDTOs.sort(Comparator.comparingLong(InstanceDTO::getId));
+    return instanceDTOs;
+  }
+
   @GetMapping("/by-namespace-and-releases-not-in")
   public List<InstanceDTO> getByReleasesNotIn(@RequestParam("appId") String appId,
                                               @RequestParam("clusterName") String clusterName,
@@ -104,13 +98,13 @@ public class InstanceConfigController {
     Set<Long> releaseIdSet = RELEASES_SPLITTER.splitToList(releaseIds).stream().map(Long::parseLong)
         .collect(Collectors.toSet());
 
-    List<Release> releases = releaseService.findByReleaseIds(releaseIdSet);
+    List<ReleaseSummary> releases = releaseService.findReleaseSummariesByReleaseIds(releaseIdSet);
 
     if (CollectionUtils.isEmpty(releases)) {
       throw new NotFoundException(String.format("releases not found for %s", releaseIds));
     }
 
-    Set<String> releaseKeys = releases.stream().map(Release::getReleaseKey).collect(Collectors
+    Set<String> releaseKeys = releases.stream().map(ReleaseSummary::getReleaseKey).collect(Collectors
         .toSet());
 
     List<InstanceConfig> instanceConfigs = instanceService
@@ -133,12 +127,10 @@ public class InstanceConfigController {
 
     List<InstanceDTO> instanceDTOs = BeanUtils.batchTransform(InstanceDTO.class, instances);
 
-    List<Release> otherReleases = releaseService.findByReleaseKeys(otherReleaseKeys);
+    List<ReleaseSummary> otherReleases = releaseService.findReleaseSummariesByReleaseKeys(otherReleaseKeys);
     Map<String, ReleaseDTO> releaseMap = Maps.newHashMap();
 
-    for (Release release : otherReleases) {
-      //unset configurations to save space
-      release.setConfigurations(null);
+    for (ReleaseSummary release : otherReleases) {
       ReleaseDTO releaseDTO = BeanUtils.transform(ReleaseDTO.class, release);
       releaseMap.put(release.getReleaseKey(), releaseDTO);
     }
@@ -178,12 +170,63 @@ public class InstanceConfigController {
     return new PageDTO<>(instanceDTOs, pageable, instances.getTotalElements());
   }
 
+  /**
+   * Keyset pagination variant, which costs the same for deep pages, the next page starts after the last id returned
+   */
+  @GetMapping(value = "/by-namespace", params = "afterId")
+  public List<InstanceDTO> getInstancesByNamespaceAfter(
+      @RequestParam("appId") String appId, @RequestParam("clusterName") String clusterName,
+      @RequestParam("namespaceName") String namespaceName,
+      @RequestParam(value = "instanceAppId", required = false) String instanceAppId,
+      @RequestParam("afterId") long afterId,
+      @RequestParam(value = "size", defaultValue = "20") int size) {
+    List<Instance> instances;
+    if (Strings.isNullOrEmpty(instanceAppId)) {
+      instances = instanceService.findInstancesByNamespaceAfter(appId, clusterName, namespaceName, afterId, size);
+    } else {
+      instances = instanceService.findInstancesByNamespaceAndInstanceAppIdAfter(instanceAppId, appId, clusterName,
+          namespaceName, afterId, size);
+    }
+
+    return BeanUtils.batchTransform(InstanceDTO.class, instances);
+  }
+
   @GetMapping("/by-namespace/count")
   public long getInstancesCountByNamespace(@RequestParam("appId") String appId,
                                           @RequestParam("clusterName") String clusterName,
                                           @RequestParam("namespaceName") String namespaceName) {
-    Page<Instance> instances = instanceService.findInstancesByNamespace(appId, clusterName,
-        namespaceName, PageRequest.of(0, 1));
-    return instances.getTotalElements();
+    return instanceService.countInstancesByNamespace(appId, clusterName, namespaceName);
+  }
+
+  private List<InstanceDTO> transformInstanceConfigs2InstanceDTOs(List<InstanceConfig> instanceConfigs) {
+    List<InstanceDTO> instanceDTOs = Collections.emptyList();
+    Multimap<Long, InstanceConfig> instanceConfigMap = HashMultimap.create();
+
+    for (InstanceConfig instanceConfig : instanceConfigs) {
+      instanceConfigMap.put(instanceConfig.getInstanceId(), instanceConfig);
+    }
+
+    Set<Long> instanceIds = instanceConfigMap.keySet();
+
+    List<Instance> instances = instanceService.findInstancesByIds(instanceIds);
+
+    if (!CollectionUtils.isEmpty(instances)) {
+      instanceDTOs = BeanUtils.batchTransform(InstanceDTO.class, instances);
+    }
+
+    for (InstanceDTO instanceDTO : instanceDTOs) {
+      Collection<InstanceConfig> configs = instanceConfigMap.get(instanceDTO.getId());
+      List<InstanceConfigDTO> configDTOs = configs.stream().map(instanceConfig -> {
+        InstanceConfigDTO instanceConfigDTO = new InstanceConfigDTO();
+        //to save some space
+        instanceConfigDTO.setRelease(null);
+        instanceConfigDTO.setReleaseDeliveryTime(instanceConfig.getReleaseDeliveryTime());
+        instanceConfigDTO.setDataChangeLastModifiedTime(instanceConfig
+            .getDataChangeLastModifiedTime());
+        return instanceConfigDTO;
+      }).collect(Collectors.toList());
+      instanceDTO.setConfigs(configDTOs);
+    }
+    return instanceDTOs;
   }
 }
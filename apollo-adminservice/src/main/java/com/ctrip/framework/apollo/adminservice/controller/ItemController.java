@@ -60,7 +60,7 @@ public class ItemController {
     commit.setAppId(appId);
     commit.setClusterName(clusterName);
     commit.setNamespaceName(namespaceName);
-    commit.setChangeSets(builder.build());
+    commit.setChangeSets(commitService.buildChangeSets(builder));
     commit.setDataChangeCreatedBy(dto.getDataChangeLastModifiedBy());
     commit.setDataChangeLastModifiedBy(dto.getDataChangeLastModifiedBy());
     commitService.save(commit);
@@ -101,7 +101,7 @@ public class ItemController {
       commit.setAppId(appId);
       commit.setClusterName(clusterName);
       commit.setNamespaceName(namespaceName);
-      commit.setChangeSets(builder.build());
+      commit.setChangeSets(commitService.buildChangeSets(builder));
       commit.setDataChangeCreatedBy(itemDTO.getDataChangeLastModifiedBy());
       commit.setDataChangeLastModifiedBy(itemDTO.getDataChangeLastModifiedBy());
       commitService.save(commit);
@@ -125,7 +125,7 @@ public class ItemController {
     commit.setAppId(namespace.getAppId());
     commit.setClusterName(namespace.getClusterName());
     commit.setNamespaceName(namespace.getNamespaceName());
-    commit.setChangeSets(new ConfigChangeContentBuilder().deleteItem(entity).build());
+    commit.setChangeSets(commitService.buildChangeSets(new ConfigChangeContentBuilder().deleteItem(entity)));
     commit.setDataChangeCreatedBy(operator);
     commit.setDataChangeLastModifiedBy(operator);
     commitService.save(commit);
@@ -11,12 +11,17 @@ import com.ctrip.framework.apollo.biz.service.ReleaseService;
 import com.ctrip.framework.apollo.biz.utils.ReleaseMessageKeyGenerator;
 import com.ctrip.framework.apollo.common.constants.NamespaceBranchStatus;
 import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
+import com.ctrip.framework.apollo.common.dto.NamespaceReleaseDTO;
 import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
+import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.common.exception.NotFoundException;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
 import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -62,10 +67,16 @@ public class ReleaseController {
   }
 
   @GetMapping("/releases")
-  public List<ReleaseDTO> findReleaseByIds(@RequestParam("releaseIds") String releaseIds) {
+  public List<ReleaseDTO> findReleaseByIds(@RequestParam("releaseIds") String releaseIds,
+                                           @RequestParam(value = "withConfigurations", defaultValue = "true")
+                                               boolean withConfigurations) {
     Set<Long> releaseIdSet = RELEASES_SPLITTER.splitToList(releaseIds).stream().map(Long::parseLong)
         .collect(Collectors.toSet());
 
+    if (!withConfigurations) {
+      return BeanUtils.batchTransform(ReleaseDTO.class, releaseService.findReleaseSummariesByReleaseIds(releaseIdSet));
+    }
+
     List<Release> releases = releaseService.findByReleaseIds(releaseIdSet);
 
     return BeanUtils.batchTransform(ReleaseDTO.class, releases);
@@ -75,7 +86,13 @@ public class ReleaseController {
   public List<ReleaseDTO> findAllReleases(@PathVariable("appId") String appId,
                                           @PathVariable("clusterName") String clusterName,
                                           @PathVariable("namespaceName") String namespaceName,
+                                          @RequestParam(value = "withConfigurations", defaultValue = "true")
+                                              boolean withConfigurations,
                                           Pageable page) {
+    if (!withConfigurations) {
+      return BeanUtils.batchTransform(ReleaseDTO.class,
+          releaseService.findAllReleaseSummaries(appId, clusterName, namespaceName, page));
+    }
     List<Release> releases = releaseService.findAllReleases(appId, clusterName, namespaceName, page);
     return BeanUtils.batchTransform(ReleaseDTO.class, releases);
   }
@@ -85,7 +102,13 @@ public class ReleaseController {
   public List<ReleaseDTO> findActiveReleases(@PathVariable("appId") String appId,
                                              @PathVariable("clusterName") String clusterName,
                                              @PathVariable("namespaceName") String namespaceName,
+                                             @RequestParam(value = "withConfigurations", defaultValue = "true")
+                                                 boolean withConfigurations,
                                              Pageable page) {
+    if (!withConfigurations) {
+      return BeanUtils.batchTransform(ReleaseDTO.class,
+          releaseService.findActiveReleaseSummaries(appId, clusterName, namespaceName, page));
+    }
     List<Release> releases = releaseService.findActiveReleases(appId, clusterName, namespaceName, page);
     return BeanUtils.batchTransform(ReleaseDTO.class, releases);
   }
@@ -115,18 +138,54 @@ public class ReleaseController {
     Release release = releaseService.publish(namespace, releaseName, releaseComment, operator, isEmergencyPublish);
 
     //send release message
-    Namespace parentNamespace = namespaceService.findParentNamespace(namespace);
-    String messageCluster;
-    if (parentNamespace != null) {
-      messageCluster = parentNamespace.getClusterName();
-    } else {
-      messageCluster = clusterName;
-    }
-    messageSender.sendMessage(ReleaseMessageKeyGenerator.generate(appId, messageCluster, namespaceName),
+    messageSender.sendMessage(generateReleaseMessageKey(namespace, appId, clusterName, namespaceName),
                               Topics.APOLLO_RELEASE_TOPIC);
     return BeanUtils.transform(ReleaseDTO.class, release);
   }
 
+  /**
+   * publish the namespaces of an app in one transaction, either all of them are released or none
+   *
+   * @return the releases in the order of the request
+   */
+  @Transactional
+  @PostMapping("/apps/{appId}/releases/batch")
+  public List<ReleaseDTO> publishBatch(@PathVariable("appId") String appId,
+                                       @RequestParam("operator") String operator,
+                                       @RequestParam(name = "isEmergencyPublish", defaultValue = "false") boolean isEmergencyPublish,
+                                       @RequestBody List<NamespaceReleaseDTO> namespaceReleases) {
+    if (CollectionUtils.isEmpty(namespaceReleases)) {
+      throw new BadRequestException("namespaces to release can not be empty");
+    }
+
+    Set<String> messageKeys = Sets.newLinkedHashSet();
+    List<Release> releases = Lists.newArrayListWithCapacity(namespaceReleases.size());
+    Set<String> releasedNamespaces = Sets.newHashSet();
+    for (NamespaceReleaseDTO namespaceRelease : namespaceReleases) {
+      String clusterName = namespaceRelease.getClusterName();
+      String namespaceName = namespaceRelease.getNamespaceName();
+      if (!releasedNamespaces.add(ReleaseMessageKeyGenerator.generate(appId, clusterName, namespaceName))) {
+        throw new BadRequestException(String.format("Duplicate namespace %s %s in the batch", clusterName,
+            namespaceName));
+      }
+
+      Namespace namespace = namespaceService.findOne(appId, clusterName, namespaceName);
+      if (namespace == null) {
+        throw new NotFoundException(String.format("Could not find namespace for %s %s %s", appId,
+            clusterName, namespaceName));
+      }
+      releases.add(releaseService.publish(namespace, namespaceRelease.getReleaseName(),
+          namespaceRelease.getReleaseComment(), operator, isEmergencyPublish));
+      messageKeys.add(generateReleaseMessageKey(namespace, appId, clusterName, namespaceName));
+    }
+
+    //the messages are committed together with the releases, so the config services see them in one scan
+    for (String messageKey : messageKeys) {
+      messageSender.sendMessage(messageKey, Topics.APOLLO_RELEASE_TOPIC);
+    }
+    return BeanUtils.batchTransform(ReleaseDTO.class, releases);
+  }
+
 
   /**
    * merge branch items to master and publish master
@@ -199,6 +258,14 @@ public class ReleaseController {
     Release release = releaseService.grayDeletionPublish(namespace, releaseName, releaseComment, operator, isEmergencyPublish, grayDelKeys);
 
     //send release message
+    messageSender.sendMessage(generateReleaseMessageKey(namespace, appId, clusterName, namespaceName),
+            Topics.APOLLO_RELEASE_TOPIC);
+    return BeanUtils.transform(ReleaseDTO.class, release);
+  }
+
+  private String generateReleaseMessageKey(Namespace namespace, String appId, String clusterName,
+                                           String namespaceName) {
+    //the branch release is notified with the parent cluster
     Namespace parentNamespace = namespaceService.findParentNamespace(namespace);
     String messageCluster;
     if (parentNamespace != null) {
@@ -206,9 +273,6 @@ public class ReleaseController {
     } else {
       messageCluster = clusterName;
     }
-    messageSender.sendMessage(ReleaseMessageKeyGenerator.generate(appId, messageCluster, namespaceName),
-            Topics.APOLLO_RELEASE_TOPIC);
-    return BeanUtils.transform(ReleaseDTO.class, release);
+    return ReleaseMessageKeyGenerator.generate(appId, messageCluster, namespaceName);
   }
-
 }
@@ -47,6 +47,26 @@ public class ReleaseHistoryController {
   }
 
 
+  /**
+   * Keyset pagination variant, which costs the same for deep pages, the next page starts before the last id returned
+   */
+  @GetMapping(value = "/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/histories",
+      params = "beforeId")
+  public List<ReleaseHistoryDTO> findReleaseHistoriesByNamespaceBefore(
+      @PathVariable String appId, @PathVariable String clusterName,
+      @PathVariable String namespaceName,
+      @RequestParam("beforeId") long beforeId,
+      @RequestParam(value = "size", defaultValue = "20") int size) {
+
+    List<ReleaseHistory> releaseHistories = releaseHistoryService.findReleaseHistoriesByNamespaceBefore(appId,
+        clusterName, namespaceName, beforeId, size);
+    List<ReleaseHistoryDTO> releaseHistoryDTOs = new ArrayList<>(releaseHistories.size());
+    for (ReleaseHistory releaseHistory : releaseHistories) {
+      releaseHistoryDTOs.add(transformReleaseHistory2DTO(releaseHistory));
+    }
+    return releaseHistoryDTOs;
+  }
+
   @GetMapping("/releases/histories/by_release_id_and_operation")
   public PageDTO<ReleaseHistoryDTO> findReleaseHistoryByReleaseIdAndOperation(
       @RequestParam("releaseId") long releaseId,
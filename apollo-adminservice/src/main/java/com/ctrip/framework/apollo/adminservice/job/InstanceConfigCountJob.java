@@ -0,0 +1,142 @@
+package com.ctrip.framework.apollo.adminservice.job;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.InstanceConfigCount;
+import com.ctrip.framework.apollo.biz.service.InstanceService;
+import com.ctrip.framework.apollo.biz.service.JobLockService;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import com.ctrip.framework.foundation.Foundation;
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Rebuilds the InstanceConfigCount table from the active instance configs when
+ * {@link BizConfig#isInstanceConfigCountEnabled()}, so the config services don't maintain the counts on every
+ * report. Only one admin service node runs the job at a time.
+ */
+@Component
+public class InstanceConfigCountJob {
+  private static final Logger logger = LoggerFactory.getLogger(InstanceConfigCountJob.class);
+  private static final Joiner KEY_JOINER = Joiner.on("+");
+  static final String JOB_NAME = "InstanceConfigCount";
+  static final int SCAN_BATCH_SIZE = 5000;
+  static final int SAVE_BATCH_SIZE = 500;
+  private static final long LOCK_LEASE_IN_SECONDS = 60;
+  private static final long COUNT_INTERVAL_IN_MINUTES = 10;
+
+  private final InstanceService instanceService;
+  private final JobLockService jobLockService;
+  private final BizConfig bizConfig;
+  private final ScheduledExecutorService executorService;
+  private final String owner;
+
+  public InstanceConfigCountJob(
+      final InstanceService instanceService,
+      final JobLockService jobLockService,
+      final BizConfig bizConfig) {
+    this.instanceService = instanceService;
+    this.jobLockService = jobLockService;
+    this.bizConfig = bizConfig;
+    this.executorService = Executors.newScheduledThreadPool(1, ApolloThreadFactory
+        .create("InstanceConfigCountJob", true));
+    this.owner = Foundation.net().getHostAddress() + "-" + UUID.randomUUID();
+  }
+
+  @PostConstruct
+  void initialize() {
+    executorService.scheduleWithFixedDelay(this::run, 1, COUNT_INTERVAL_IN_MINUTES, TimeUnit.MINUTES);
+  }
+
+  @PreDestroy
+  void stop() {
+    executorService.shutdownNow();
+  }
+
+  void run() {
+    if (!bizConfig.isInstanceConfigCountEnabled()
+        || !jobLockService.tryLock(JOB_NAME, owner, LOCK_LEASE_IN_SECONDS, TimeUnit.SECONDS)) {
+      return;
+    }
+
+    Transaction transaction = Tracer.newTransaction("Apollo.InstanceConfigCount", "rebuild");
+    try {
+      //DataChange_LastTime is stored in seconds
+      Date time = new Date(System.currentTimeMillis() / 1000 * 1000);
+      Map<String, InstanceConfigCount> counts = count();
+      if (counts != null && save(Lists.newArrayList(counts.values()), time)) {
+        //the counts not saved in this run belong to the releases without active instances
+        transaction.addData("Deleted", instanceService.deleteInstanceConfigCountsNotModifiedSince(time));
+      }
+      transaction.setStatus(Transaction.SUCCESS);
+    } catch (Throwable ex) {
+      transaction.setStatus(ex);
+      logger.error("Rebuild instance config counts failed", ex);
+    } finally {
+      jobLockService.unlock(JOB_NAME, owner);
+      transaction.complete();
+    }
+  }
+
+  /**
+   * @return the counts keyed by release, or null if the lock is lost
+   */
+  Map<String, InstanceConfigCount> count() {
+    Map<String, InstanceConfigCount> counts = Maps.newHashMap();
+    long maxId = instanceService.findMaxInstanceConfigId();
+    for (long fromId = 0; fromId < maxId; fromId += SCAN_BATCH_SIZE) {
+      for (InstanceConfigCount count : instanceService.countActiveInstanceConfigs(fromId, fromId + SCAN_BATCH_SIZE)) {
+        counts.merge(KEY_JOINER.join(count.getConfigAppId(), count.getConfigClusterName(),
+            count.getConfigNamespaceName(), count.getReleaseKey()), count, (existed, added) ->
+            new InstanceConfigCount(existed.getConfigAppId(), existed.getConfigClusterName(),
+                existed.getConfigNamespaceName(), existed.getReleaseKey(),
+                existed.getInstanceCount() + added.getInstanceCount()));
+      }
+      if (!renewLock()) {
+        return null;
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * @return whether all the counts are saved
+   */
+  boolean save(List<InstanceConfigCount> counts, Date time) {
+    for (List<InstanceConfigCount> batch : Lists.partition(counts, SAVE_BATCH_SIZE)) {
+      instanceService.saveInstanceConfigCounts(batch, time);
+      if (!renewLock()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * renew the lease, and stop if the lock is taken over
+   */
+  private boolean renewLock() {
+    if (Thread.currentThread().isInterrupted()
+        || !jobLockService.tryLock(JOB_NAME, owner, LOCK_LEASE_IN_SECONDS, TimeUnit.SECONDS)) {
+      Tracer.logEvent("Apollo.InstanceConfigCount.LockLost", owner);
+      return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,111 @@
+package com.ctrip.framework.apollo.adminservice.job;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.service.InstanceService;
+import com.ctrip.framework.apollo.biz.service.JobLockService;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import com.ctrip.framework.foundation.Foundation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Purges the instances and instance configs not reported for the retention days in small batches, so that the
+ * instance tables only hold the active instances. Only one admin service node runs the job at a time.
+ */
+@Component
+public class InstancePurgeJob {
+  private static final Logger logger = LoggerFactory.getLogger(InstancePurgeJob.class);
+  static final String JOB_NAME = "InstancePurge";
+  private static final long LOCK_LEASE_IN_SECONDS = 60;
+  private static final long PURGE_INTERVAL_IN_MINUTES = 60;
+
+  private final InstanceService instanceService;
+  private final JobLockService jobLockService;
+  private final BizConfig bizConfig;
+  private final ScheduledExecutorService executorService;
+  private final String owner;
+
+  public InstancePurgeJob(
+      final InstanceService instanceService,
+      final JobLockService jobLockService,
+      final BizConfig bizConfig) {
+    this.instanceService = instanceService;
+    this.jobLockService = jobLockService;
+    this.bizConfig = bizConfig;
+    this.executorService = Executors.newScheduledThreadPool(1, ApolloThreadFactory
+        .create("InstancePurgeJob", true));
+    this.owner = Foundation.net().getHostAddress() + "-" + UUID.randomUUID();
+  }
+
+  @PostConstruct
+  void initialize() {
+    executorService.scheduleWithFixedDelay(this::run, PURGE_INTERVAL_IN_MINUTES, PURGE_INTERVAL_IN_MINUTES,
+        TimeUnit.MINUTES);
+  }
+
+  @PreDestroy
+  void stop() {
+    executorService.shutdownNow();
+  }
+
+  void run() {
+    if (!bizConfig.isInstancePurgeEnabled()
+        || !jobLockService.tryLock(JOB_NAME, owner, LOCK_LEASE_IN_SECONDS, TimeUnit.SECONDS)) {
+      return;
+    }
+
+    Transaction transaction = Tracer.newTransaction("Apollo.InstancePurge", "purge");
+    try {
+      Date time = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(bizConfig.instanceRetentionDays()));
+      int batchSize = bizConfig.instancePurgeBatchSize();
+      //instance configs first, as only the instances without instance configs are purged
+      int instanceConfigs = purge(() -> instanceService.purgeInstanceConfigsNotModifiedSince(time, batchSize),
+          batchSize);
+      int instances = purge(() -> instanceService.purgeInstancesNotModifiedSince(time, batchSize), batchSize);
+      transaction.addData("InstanceConfigs", instanceConfigs);
+      transaction.addData("Instances", instances);
+      transaction.setStatus(Transaction.SUCCESS);
+    } catch (Throwable ex) {
+      transaction.setStatus(ex);
+      logger.error("Purge instances failed", ex);
+    } finally {
+      jobLockService.unlock(JOB_NAME, owner);
+      transaction.complete();
+    }
+  }
+
+  /**
+   * @return the number of rows purged
+   */
+  int purge(IntSupplier batch, int batchSize) throws InterruptedException {
+    int purged = 0;
+    while (!Thread.currentThread().isInterrupted()) {
+      int batchPurged = batch.getAsInt();
+      purged += batchPurged;
+      if (batchPurged < batchSize) {
+        break;
+      }
+
+      //renew the lease, and stop if the lock is taken over
+      if (!jobLockService.tryLock(JOB_NAME, owner, LOCK_LEASE_IN_SECONDS, TimeUnit.SECONDS)) {
+        Tracer.logEvent("Apollo.InstancePurge.LockLost", owner);
+        break;
+      }
+      TimeUnit.MILLISECONDS.sleep(bizConfig.instancePurgeBatchIntervalInMilli());
+    }
+    return purged;
+  }
+}
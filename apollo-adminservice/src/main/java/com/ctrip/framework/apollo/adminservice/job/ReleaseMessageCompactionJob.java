@@ -0,0 +1,127 @@
+package com.ctrip.framework.apollo.adminservice.job;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.ReleaseMessage;
+import com.ctrip.framework.apollo.biz.service.JobLockService;
+import com.ctrip.framework.apollo.biz.service.ReleaseMessageService;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import com.ctrip.framework.foundation.Foundation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Deletes the superseded release messages in background, since the config services only need the latest message
+ * of each content. Only one admin service node runs the job at a time, guarded by a {@link JobLockService} lock.
+ *
+ * Each run scans forward from where the last run on this node stopped, the messages before it are deleted by content
+ * once superseded, see {@link ReleaseMessageService#deleteSupersededMessages(List)}.
+ */
+@Component
+public class ReleaseMessageCompactionJob {
+  private static final Logger logger = LoggerFactory.getLogger(ReleaseMessageCompactionJob.class);
+  static final String JOB_NAME = "ReleaseMessageCompaction";
+  private static final long LOCK_LEASE_IN_SECONDS = 60;
+  //newer messages are left alone, so the messages being sent are not scanned over
+  private static final long SAFE_WINDOW_IN_SECONDS = 60;
+
+  private final ReleaseMessageService releaseMessageService;
+  private final JobLockService jobLockService;
+  private final BizConfig bizConfig;
+  private final ScheduledExecutorService executorService;
+  private final String owner;
+  //the id of the last message scanned on this node, 0 to scan from the first message, e.g. after restarts
+  private long highWaterMarkId;
+
+  public ReleaseMessageCompactionJob(
+      final ReleaseMessageService releaseMessageService,
+      final JobLockService jobLockService,
+      final BizConfig bizConfig) {
+    this.releaseMessageService = releaseMessageService;
+    this.jobLockService = jobLockService;
+    this.bizConfig = bizConfig;
+    this.executorService = Executors.newScheduledThreadPool(1, ApolloThreadFactory
+        .create("ReleaseMessageCompactionJob", true));
+    this.owner = Foundation.net().getHostAddress() + "-" + UUID.randomUUID();
+  }
+
+  @PostConstruct
+  void initialize() {
+    int interval = bizConfig.releaseMessageCompactionIntervalInSecond();
+    executorService.scheduleWithFixedDelay(this::run, interval, interval, TimeUnit.SECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    executorService.shutdownNow();
+  }
+
+  void run() {
+    if (!bizConfig.isReleaseMessageCompactionEnabled()
+        || !jobLockService.tryLock(JOB_NAME, owner, LOCK_LEASE_IN_SECONDS, TimeUnit.SECONDS)) {
+      return;
+    }
+
+    Transaction transaction = Tracer.newTransaction("Apollo.ReleaseMessageCompaction", "compact");
+    try {
+      int deleted = compact();
+      transaction.addData("Deleted", deleted);
+      transaction.setStatus(Transaction.SUCCESS);
+    } catch (Throwable ex) {
+      transaction.setStatus(ex);
+      logger.error("Compact release messages failed", ex);
+    } finally {
+      jobLockService.unlock(JOB_NAME, owner);
+      transaction.complete();
+    }
+  }
+
+  /**
+   * Walk through the release messages after the high-water mark in id order. The first run on a node starts from
+   * the first message, so that the backlog accumulated while the job was not running is compacted as well.
+   *
+   * @return the number of messages deleted
+   */
+  int compact() {
+    ReleaseMessage upperBound = releaseMessageService.findLatestReleaseMessageBefore(
+        new Date(System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(SAFE_WINDOW_IN_SECONDS)));
+    if (upperBound == null) {
+      return 0;
+    }
+
+    long maxId = upperBound.getId();
+    long lastId = highWaterMarkId;
+    int deleted = 0;
+    while (!Thread.currentThread().isInterrupted()) {
+      List<ReleaseMessage> messages = releaseMessageService.findReleaseMessagesAfter(lastId).stream()
+          .filter(message -> message.getId() <= maxId).collect(Collectors.toList());
+      if (messages.isEmpty()) {
+        break;
+      }
+
+      deleted += releaseMessageService.deleteSupersededMessages(messages);
+      lastId = messages.get(messages.size() - 1).getId();
+      highWaterMarkId = lastId;
+
+      //renew the lease, and stop if the lock is taken over, e.g. this node paused longer than the lease
+      if (!jobLockService.tryLock(JOB_NAME, owner, LOCK_LEASE_IN_SECONDS, TimeUnit.SECONDS)) {
+        Tracer.logEvent("Apollo.ReleaseMessageCompaction.LockLost", owner);
+        break;
+      }
+    }
+    return deleted;
+  }
+}
@@ -0,0 +1,167 @@
+package com.ctrip.framework.apollo.adminservice.job;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.Namespace;
+import com.ctrip.framework.apollo.biz.service.CommitService;
+import com.ctrip.framework.apollo.biz.service.JobLockService;
+import com.ctrip.framework.apollo.biz.service.NamespaceService;
+import com.ctrip.framework.apollo.biz.service.ReleaseHistoryService;
+import com.ctrip.framework.apollo.biz.service.ReleasePayloadService;
+import com.ctrip.framework.apollo.biz.service.ReleaseService;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import com.ctrip.framework.foundation.Foundation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Walks through all the namespaces and purges the release histories, releases and commits beyond the retention sizes
+ * in small batches. The latest active release and the releases still in use are never purged, see
+ * {@link ReleaseService#purgeReleases(String, String, String, int, int)}. The payloads left without releases are purged
+ * afterwards. Only one admin service node runs the job at a time.
+ */
+@Component
+public class ReleasePurgeJob {
+  private static final Logger logger = LoggerFactory.getLogger(ReleasePurgeJob.class);
+  static final String JOB_NAME = "ReleasePurge";
+  private static final long LOCK_LEASE_IN_SECONDS = 60;
+  private static final long PURGE_INTERVAL_IN_HOURS = 24;
+
+  private final NamespaceService namespaceService;
+  private final ReleaseService releaseService;
+  private final ReleaseHistoryService releaseHistoryService;
+  private final CommitService commitService;
+  private final ReleasePayloadService releasePayloadService;
+  private final JobLockService jobLockService;
+  private final BizConfig bizConfig;
+  private final ScheduledExecutorService executorService;
+  private final String owner;
+
+  public ReleasePurgeJob(
+      final NamespaceService namespaceService,
+      final ReleaseService releaseService,
+      final ReleaseHistoryService releaseHistoryService,
+      final CommitService commitService,
+      final ReleasePayloadService releasePayloadService,
+      final JobLockService jobLockService,
+      final BizConfig bizConfig) {
+    this.namespaceService = namespaceService;
+    this.releaseService = releaseService;
+    this.releaseHistoryService = releaseHistoryService;
+    this.commitService = commitService;
+    this.releasePayloadService = releasePayloadService;
+    this.jobLockService = jobLockService;
+    this.bizConfig = bizConfig;
+    this.executorService = Executors.newScheduledThreadPool(1, ApolloThreadFactory
+        .create("ReleasePurgeJob", true));
+    this.owner = Foundation.net().getHostAddress() + "-" + UUID.randomUUID();
+  }
+
+  @PostConstruct
+  void initialize() {
+    executorService.scheduleWithFixedDelay(this::run, PURGE_INTERVAL_IN_HOURS, PURGE_INTERVAL_IN_HOURS,
+        TimeUnit.HOURS);
+  }
+
+  @PreDestroy
+  void stop() {
+    executorService.shutdownNow();
+  }
+
+  void run() {
+    if (!bizConfig.isReleasePurgeEnabled()
+        || !jobLockService.tryLock(JOB_NAME, owner, LOCK_LEASE_IN_SECONDS, TimeUnit.SECONDS)) {
+      return;
+    }
+
+    Transaction transaction = Tracer.newTransaction("Apollo.ReleasePurge", "purge");
+    try {
+      int releaseRetentionSize = bizConfig.releaseRetentionSize();
+      int commitRetentionSize = bizConfig.commitRetentionSize();
+      int batchSize = bizConfig.releasePurgeBatchSize();
+      int releaseHistories = 0;
+      int releases = 0;
+      int commits = 0;
+      boolean locked = true;
+
+      long lastId = 0;
+      while (!Thread.currentThread().isInterrupted()) {
+        List<Namespace> namespaces = namespaceService.findNamespacesAfter(lastId);
+        if (namespaces.isEmpty()) {
+          break;
+        }
+
+        for (Namespace namespace : namespaces) {
+          String appId = namespace.getAppId();
+          String clusterName = namespace.getClusterName();
+          String namespaceName = namespace.getNamespaceName();
+          //release histories first, as the releases referenced by release histories are kept
+          releaseHistories += purge(() -> releaseHistoryService.purgeReleaseHistories(appId, clusterName,
+              namespaceName, releaseRetentionSize, batchSize), batchSize);
+          releases += purge(() -> releaseService.purgeReleases(appId, clusterName, namespaceName,
+              releaseRetentionSize, batchSize), batchSize);
+          commits += purge(() -> commitService.purgeCommits(appId, clusterName, namespaceName, commitRetentionSize,
+              batchSize), batchSize);
+        }
+        lastId = namespaces.get(namespaces.size() - 1).getId();
+
+        //renew the lease, and stop if the lock is taken over
+        if (!jobLockService.tryLock(JOB_NAME, owner, LOCK_LEASE_IN_SECONDS, TimeUnit.SECONDS)) {
+          Tracer.logEvent("Apollo.ReleasePurge.LockLost", owner);
+          locked = false;
+          break;
+        }
+      }
+      //the payloads of the purged releases
+      int payloads = 0;
+      if (locked && !Thread.currentThread().isInterrupted()) {
+        payloads = purge(() -> releasePayloadService.purgeOrphanPayloads(batchSize), batchSize);
+      }
+      transaction.addData("ReleaseHistories", releaseHistories);
+      transaction.addData("Releases", releases);
+      transaction.addData("Commits", commits);
+      transaction.addData("ReleasePayloads", payloads);
+      transaction.setStatus(Transaction.SUCCESS);
+    } catch (Throwable ex) {
+      transaction.setStatus(ex);
+      logger.error("Purge releases failed", ex);
+    } finally {
+      jobLockService.unlock(JOB_NAME, owner);
+      transaction.complete();
+    }
+  }
+
+  /**
+   * @return the number of rows purged
+   */
+  int purge(IntSupplier batch, int batchSize) throws InterruptedException {
+    int purged = 0;
+    while (!Thread.currentThread().isInterrupted()) {
+      int batchPurged = batch.getAsInt();
+      purged += batchPurged;
+      if (batchPurged < batchSize) {
+        break;
+      }
+
+      //renew the lease, and stop if the lock is taken over
+      if (!jobLockService.tryLock(JOB_NAME, owner, LOCK_LEASE_IN_SECONDS, TimeUnit.SECONDS)) {
+        Tracer.logEvent("Apollo.ReleasePurge.LockLost", owner);
+        break;
+      }
+      TimeUnit.MILLISECONDS.sleep(bizConfig.releasePurgeBatchIntervalInMilli());
+    }
+    return purged;
+  }
+}
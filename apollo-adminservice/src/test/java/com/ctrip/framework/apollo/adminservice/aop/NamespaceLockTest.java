@@ -19,6 +19,7 @@ import org.springframework.dao.DataIntegrityViolationException;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -98,6 +99,28 @@ public class NamespaceLockTest {
     verify(namespaceLockService).findLock(NAMESPACE_ID);
   }
 
+  @Test
+  public void acquireLockWithNamespaceIdAlreadyLockedBySelf() {
+
+    when(bizConfig.isNamespaceLockSwitchOff()).thenReturn(false);
+    when(namespaceLockService.findLock(NAMESPACE_ID)).thenReturn(mockNamespaceLock(CURRENT_USER));
+
+    namespaceLockAspect.acquireLock(NAMESPACE_ID, CURRENT_USER);
+
+    verify(namespaceService, never()).findOne(anyLong());
+    verify(namespaceLockService, never()).tryLock(any());
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void acquireLockWithNamespaceIdAlreadyLockedByOtherGuy() {
+
+    when(bizConfig.isNamespaceLockSwitchOff()).thenReturn(false);
+    when(namespaceService.findOne(NAMESPACE_ID)).thenReturn(mockNamespace());
+    when(namespaceLockService.findLock(NAMESPACE_ID)).thenReturn(mockNamespaceLock(ANOTHER_USER));
+
+    namespaceLockAspect.acquireLock(NAMESPACE_ID, CURRENT_USER);
+  }
+
   @Test
   public void acquireLockWithNamespaceIdSwitchOn(){
 
@@ -2,7 +2,7 @@ package com.ctrip.framework.apollo.adminservice.controller;
 
 import com.ctrip.framework.apollo.biz.entity.Instance;
 import com.ctrip.framework.apollo.biz.entity.InstanceConfig;
-import com.ctrip.framework.apollo.biz.entity.Release;
+import com.ctrip.framework.apollo.biz.entity.ReleaseSummary;
 import com.ctrip.framework.apollo.biz.service.InstanceService;
 import com.ctrip.framework.apollo.biz.service.ReleaseService;
 import com.ctrip.framework.apollo.common.dto.InstanceDTO;
@@ -27,8 +27,6 @@ import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -60,8 +58,7 @@ public class InstanceConfigControllerTest {
     long someInstanceId = 1;
     long anotherInstanceId = 2;
     String someReleaseKey = "someKey";
-    Release someRelease = new Release();
-    someRelease.setReleaseKey(someReleaseKey);
+    ReleaseSummary someRelease = assembleReleaseSummary(someReleaseKey);
     String someAppId = "someAppId";
     String anotherAppId = "anotherAppId";
     String someCluster = "someCluster";
@@ -72,7 +69,7 @@ public class InstanceConfigControllerTest {
     Date someReleaseDeliveryTime = new Date();
     Date anotherReleaseDeliveryTime = new Date();
 
-    when(releaseService.findOne(someReleaseId)).thenReturn(someRelease);
+    when(releaseService.findReleaseSummary(someReleaseId)).thenReturn(someRelease);
 
     InstanceConfig someInstanceConfig = assembleInstanceConfig(someInstanceId, someConfigAppId,
         someConfigNamespace, someReleaseKey, someReleaseDeliveryTime);
@@ -120,11 +117,44 @@ public class InstanceConfigControllerTest {
     assertEquals(anotherReleaseDeliveryTime, anotherInstanceDto.getConfigs().get(0).getReleaseDeliveryTime());
   }
 
+  @Test
+  public void testGetByReleaseAfter() throws Exception {
+    long someReleaseId = 1;
+    long someAfterId = 10;
+    int someSize = 2;
+    long someInstanceId = 11;
+    long anotherInstanceId = 12;
+    String someReleaseKey = "someKey";
+    ReleaseSummary someRelease = assembleReleaseSummary(someReleaseKey);
+    Date someReleaseDeliveryTime = new Date();
+
+    when(releaseService.findReleaseSummary(someReleaseId)).thenReturn(someRelease);
+    when(instanceService.findActiveInstanceConfigsByReleaseKeyAfter(someReleaseKey, someAfterId, someSize))
+        .thenReturn(Lists.newArrayList(
+            assembleInstanceConfig(someInstanceId, "someConfigAppId", "someNamespace", someReleaseKey,
+                someReleaseDeliveryTime),
+            assembleInstanceConfig(anotherInstanceId, "someConfigAppId", "someNamespace", someReleaseKey,
+                someReleaseDeliveryTime)));
+    Instance someInstance = assembleInstance(someInstanceId, "someAppId", "someCluster", "someDC", "someIp");
+    Instance anotherInstance = assembleInstance(anotherInstanceId, "someAppId", "someCluster", "someDC",
+        "anotherIp");
+    //the instances are not loaded in id order
+    when(instanceService.findInstancesByIds(Sets.newHashSet(someInstanceId, anotherInstanceId)))
+        .thenReturn(Lists.newArrayList(anotherInstance, someInstance));
+
+    List<InstanceDTO> result = instanceConfigController.getByReleaseAfter(someReleaseId, someAfterId, someSize);
+
+    assertEquals(2, result.size());
+    verifyInstance(someInstance, result.get(0));
+    verifyInstance(anotherInstance, result.get(1));
+    assertEquals(someReleaseDeliveryTime, result.get(0).getConfigs().get(0).getReleaseDeliveryTime());
+  }
+
   @Test(expected = NotFoundException.class)
   public void testGetByReleaseWhenReleaseIsNotFound() throws Exception {
     long someReleaseIdNotExists = 1;
 
-    when(releaseService.findOne(someReleaseIdNotExists)).thenReturn(null);
+    when(releaseService.findReleaseSummary(someReleaseIdNotExists)).thenReturn(null);
 
     instanceConfigController.getByRelease(someReleaseIdNotExists, pageable);
   }
@@ -141,14 +171,12 @@ public class InstanceConfigControllerTest {
     Date someReleaseDeliveryTime = new Date();
     Date anotherReleaseDeliveryTime = new Date();
 
-    Release someRelease = mock(Release.class);
-    Release anotherRelease = mock(Release.class);
     String someReleaseKey = "someReleaseKey";
     String anotherReleaseKey = "anotherReleaseKey";
-    when(someRelease.getReleaseKey()).thenReturn(someReleaseKey);
-    when(anotherRelease.getReleaseKey()).thenReturn(anotherReleaseKey);
+    ReleaseSummary someRelease = assembleReleaseSummary(someReleaseKey);
+    ReleaseSummary anotherRelease = assembleReleaseSummary(anotherReleaseKey);
 
-    when(releaseService.findByReleaseIds(Sets.newHashSet(someReleaseId, anotherReleaseId)))
+    when(releaseService.findReleaseSummariesByReleaseIds(Sets.newHashSet(someReleaseId, anotherReleaseId)))
         .thenReturn(Lists.newArrayList(someRelease, anotherRelease));
 
     long someInstanceId = 1;
@@ -182,11 +210,9 @@ public class InstanceConfigControllerTest {
     when(instanceService.findInstancesByIds(Sets.newHashSet(someInstanceId, anotherInstanceId)))
         .thenReturn(Lists.newArrayList(someInstance, anotherInstance));
 
-    Release someInstanceConfigRelease = new Release();
-    someInstanceConfigRelease.setReleaseKey(someInstanceConfigReleaseKey);
-    Release anotherInstanceConfigRelease = new Release();
-    anotherInstanceConfigRelease.setReleaseKey(anotherInstanceConfigReleaseKey);
-    when(releaseService.findByReleaseKeys(Sets.newHashSet(someInstanceConfigReleaseKey,
+    ReleaseSummary someInstanceConfigRelease = assembleReleaseSummary(someInstanceConfigReleaseKey);
+    ReleaseSummary anotherInstanceConfigRelease = assembleReleaseSummary(anotherInstanceConfigReleaseKey);
+    when(releaseService.findReleaseSummariesByReleaseKeys(Sets.newHashSet(someInstanceConfigReleaseKey,
         anotherInstanceConfigReleaseKey))).thenReturn(Lists.newArrayList(someInstanceConfigRelease,
         anotherInstanceConfigRelease));
 
@@ -303,10 +329,7 @@ public class InstanceConfigControllerTest {
     String someClusterName = "someClusterName";
     String someNamespaceName = "someNamespaceName";
 
-    Page<Instance> instances = new PageImpl<>(Collections.emptyList(), pageable, 2);
-
-    when(instanceService.findInstancesByNamespace(eq(someAppId), eq(someClusterName),
-        eq(someNamespaceName), any(Pageable.class))).thenReturn(instances);
+    when(instanceService.countInstancesByNamespace(someAppId, someClusterName, someNamespaceName)).thenReturn(2L);
 
     long result = instanceConfigController.getInstancesCountByNamespace(someAppId,
         someClusterName, someNamespaceName);
@@ -347,4 +370,8 @@ public class InstanceConfigControllerTest {
     instanceConfig.setReleaseDeliveryTime(releaseDeliveryTime);
     return instanceConfig;
   }
+
+  private ReleaseSummary assembleReleaseSummary(String releaseKey) {
+    return new ReleaseSummary(0, releaseKey, null, null, null, null, null, false, null, null, null, null);
+  }
 }
@@ -0,0 +1,68 @@
+package com.ctrip.framework.apollo.adminservice.controller;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.common.dto.AppDTO;
+import com.ctrip.framework.apollo.common.dto.NamespaceDTO;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Compares the latencies of the app and namespace lookups with and without the metadata cache on the in-memory
+ * db, run with -Dbenchmark
+ */
+public class MetadataCacheBenchmark extends AbstractControllerTest {
+  private static final Logger logger = LoggerFactory.getLogger(MetadataCacheBenchmark.class);
+  private static final int WARM_UP_REQUESTS = 1000;
+  private static final int REQUESTS = 5000;
+
+  @SpyBean
+  private BizConfig bizConfig;
+
+  @Test
+  @Sql(scripts = "/controller/test-release.sql", executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/controller/cleanup.sql", executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+  public void benchmarkMetadataCache() {
+    for (int ttl : new int[]{0, 60, 0, 60}) {
+      doReturn(ttl).when(bizConfig).metadataCacheTtlInSecond();
+
+      request(WARM_UP_REQUESTS);
+      long[] latencies = request(REQUESTS);
+      Arrays.sort(latencies);
+
+      logger.info("Metadata cache ttl {}s: p50 {} us, p99 {} us, max {} us over {} requests", ttl,
+          toMicros(latencies[REQUESTS / 2]), toMicros(latencies[REQUESTS * 99 / 100]),
+          toMicros(latencies[REQUESTS - 1]), REQUESTS);
+    }
+  }
+
+  /**
+   * @return the latency of each request in nanoseconds, the app and the namespace are looked up in turns
+   */
+  private long[] request(int count) {
+    long[] latencies = new long[count];
+    for (int i = 0; i < count; i++) {
+      long start = System.nanoTime();
+      if (i % 2 == 0) {
+        restTemplate.getForObject(url("/apps/someAppId"), AppDTO.class);
+      } else {
+        restTemplate.getForObject(url("/apps/someAppId/clusters/default/namespaces/application"),
+            NamespaceDTO.class);
+      }
+      latencies[i] = System.nanoTime() - start;
+    }
+    return latencies;
+  }
+
+  private long toMicros(long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+}
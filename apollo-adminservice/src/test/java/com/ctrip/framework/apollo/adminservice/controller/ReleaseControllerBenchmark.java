@@ -0,0 +1,88 @@
+package com.ctrip.framework.apollo.adminservice.controller;
+
+import com.ctrip.framework.apollo.common.dto.NamespaceReleaseDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Times publishing the namespaces of an app in one batch against publishing them one by one, run with -Dbenchmark
+ */
+public class ReleaseControllerBenchmark extends AbstractControllerTest {
+  private static final Logger logger = LoggerFactory.getLogger(ReleaseControllerBenchmark.class);
+  private static final int NAMESPACE_COUNT = 30;
+  private static final int ROUNDS = 5;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private String someAppId = "someAppId";
+  private String someClusterName = "default";
+
+  @Test
+  @Sql(scripts = "/controller/cleanup.sql", executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+  public void benchmarkPublishBatch() {
+    jdbcTemplate.update("INSERT INTO App (AppId, Name, OwnerName, OwnerEmail) VALUES (?, 'someAppName', "
+        + "'someOwnerName', 'someOwnerName@ctrip.com')", someAppId);
+    jdbcTemplate.update("INSERT INTO Cluster (AppId, Name) VALUES (?, ?)", someAppId, someClusterName);
+    List<NamespaceReleaseDTO> namespaceReleases = Lists.newArrayList();
+    for (int i = 0; i < NAMESPACE_COUNT; i++) {
+      String namespaceName = "namespace" + i;
+      jdbcTemplate.update("INSERT INTO AppNamespace (AppId, Name) VALUES (?, ?)", someAppId, namespaceName);
+      jdbcTemplate.update("INSERT INTO Namespace (Id, AppId, ClusterName, NamespaceName) VALUES (?, ?, ?, ?)",
+          1000 + i, someAppId, someClusterName, namespaceName);
+      for (int j = 0; j < 3; j++) {
+        jdbcTemplate.update("INSERT INTO Item (NamespaceId, `Key`, Value) VALUES (?, ?, ?)", 1000 + i, "k" + j,
+            "v" + j);
+      }
+      namespaceReleases.add(new NamespaceReleaseDTO(someClusterName, namespaceName, "someReleaseName",
+          "someComment"));
+    }
+
+    //the first rounds warm up the JVM
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      publishOneByOne(namespaceReleases);
+      long oneByOneCost = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      ReleaseDTO[] releases = restTemplate.postForObject(
+          url("/apps/" + someAppId + "/releases/batch?operator=test"), namespaceReleases, ReleaseDTO[].class);
+      long batchCost = System.nanoTime() - start;
+      assertEquals(NAMESPACE_COUNT, releases.length);
+
+      logger.info("Round {}: published {} namespaces one by one in {} ms, in one batch in {} ms", round,
+          NAMESPACE_COUNT, TimeUnit.NANOSECONDS.toMillis(oneByOneCost), TimeUnit.NANOSECONDS.toMillis(batchCost));
+    }
+  }
+
+  private void publishOneByOne(List<NamespaceReleaseDTO> namespaceReleases) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+    for (NamespaceReleaseDTO namespaceRelease : namespaceReleases) {
+      MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+      parameters.add("name", namespaceRelease.getReleaseName());
+      parameters.add("comment", namespaceRelease.getReleaseComment());
+      parameters.add("operator", "test");
+      restTemplate.postForObject(url("/apps/" + someAppId + "/clusters/" + someClusterName + "/namespaces/"
+          + namespaceRelease.getNamespaceName() + "/releases"), new HttpEntity<>(parameters, headers),
+          ReleaseDTO.class);
+    }
+  }
+}
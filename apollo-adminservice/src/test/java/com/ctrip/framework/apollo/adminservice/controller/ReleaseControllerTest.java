@@ -10,9 +10,11 @@ import com.ctrip.framework.apollo.common.dto.AppDTO;
 import com.ctrip.framework.apollo.common.dto.ClusterDTO;
 import com.ctrip.framework.apollo.common.dto.ItemDTO;
 import com.ctrip.framework.apollo.common.dto.NamespaceDTO;
+import com.ctrip.framework.apollo.common.dto.NamespaceReleaseDTO;
 import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
 import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
 import com.google.gson.Gson;
 import org.junit.Assert;
 import org.junit.Test;
@@ -26,8 +28,10 @@ import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.Mockito.*;
@@ -90,6 +94,66 @@ public class ReleaseControllerTest extends AbstractControllerTest {
     configurations.put("k3", "v3");
     Gson gson = new Gson();
     Assert.assertEquals(gson.toJson(configurations), release.getConfigurations());
+
+    String activeReleasesUrl = "http://localhost:" + port + "/apps/" + app.getAppId() + "/clusters/"
+        + cluster.getName() + "/namespaces/" + namespace.getNamespaceName() + "/releases/active";
+    ReleaseDTO[] activeReleases = restTemplate.getForObject(activeReleasesUrl, ReleaseDTO[].class);
+    ReleaseDTO[] activeReleaseSummaries = restTemplate.getForObject(activeReleasesUrl + "?withConfigurations=false",
+        ReleaseDTO[].class);
+    Assert.assertEquals(1, activeReleases.length);
+    Assert.assertEquals(gson.toJson(configurations), activeReleases[0].getConfigurations());
+    Assert.assertEquals(1, activeReleaseSummaries.length);
+    Assert.assertEquals(release.getId(), activeReleaseSummaries[0].getId());
+    Assert.assertEquals(release.getReleaseKey(), activeReleaseSummaries[0].getReleaseKey());
+    Assert.assertEquals("someReleaseName", activeReleaseSummaries[0].getName());
+    Assert.assertNull(activeReleaseSummaries[0].getConfigurations());
+  }
+
+  @Test
+  @Sql(scripts = "/controller/test-release-batch.sql", executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/controller/cleanup.sql", executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+  public void testPublishBatch() {
+    String appId = "someAppId";
+    int namespaceCount = 3;
+    List<NamespaceReleaseDTO> namespaceReleases = Lists.newArrayList();
+    for (int i = 0; i < namespaceCount; i++) {
+      namespaceReleases.add(new NamespaceReleaseDTO("default", "namespace" + i, "someReleaseName", "someComment"));
+    }
+
+    ResponseEntity<ReleaseDTO[]> response = restTemplate.postForEntity(
+        url("/apps/" + appId + "/releases/batch?operator=test"), namespaceReleases, ReleaseDTO[].class);
+
+    Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
+    ReleaseDTO[] releases = response.getBody();
+    Assert.assertEquals(namespaceCount, releases.length);
+    for (int i = 0; i < namespaceCount; i++) {
+      Assert.assertEquals("namespace" + i, releases[i].getNamespaceName());
+      Assert.assertEquals("{\"k1\":\"v1\",\"k2\":\"v2\",\"k3\":\"v3\"}", releases[i].getConfigurations());
+    }
+  }
+
+  @Test
+  @Sql(scripts = "/controller/test-release-batch.sql", executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/controller/cleanup.sql", executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+  public void testPublishBatchWithNamespaceNotFound() {
+    String appId = "someAppId";
+    int releasesBefore = releaseRepository.findByAppIdAndClusterNameAndNamespaceNameOrderByIdAsc(appId, "default",
+        "namespace0").size();
+    List<NamespaceReleaseDTO> namespaceReleases = Lists.newArrayList(
+        new NamespaceReleaseDTO("default", "namespace0", "someReleaseName", "someComment"),
+        new NamespaceReleaseDTO("default", "notExistedNamespace", "someReleaseName", "someComment"));
+
+    try {
+      restTemplate.postForEntity(url("/apps/" + appId + "/releases/batch?operator=test"), namespaceReleases,
+          ReleaseDTO[].class);
+      Assert.fail("Should fail when a namespace is not found");
+    } catch (HttpClientErrorException ex) {
+      Assert.assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    //the whole batch is rolled back
+    Assert.assertEquals(releasesBefore, releaseRepository.findByAppIdAndClusterNameAndNamespaceNameOrderByIdAsc(
+        appId, "default", "namespace0").size());
   }
 
   @Test
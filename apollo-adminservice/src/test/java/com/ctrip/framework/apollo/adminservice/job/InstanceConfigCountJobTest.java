@@ -0,0 +1,108 @@
+package com.ctrip.framework.apollo.adminservice.job;
+
+import com.google.common.collect.Lists;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.InstanceConfigCount;
+import com.ctrip.framework.apollo.biz.service.InstanceService;
+import com.ctrip.framework.apollo.biz.service.JobLockService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InstanceConfigCountJobTest {
+  @Mock
+  private InstanceService instanceService;
+  @Mock
+  private JobLockService jobLockService;
+  @Mock
+  private BizConfig bizConfig;
+
+  private InstanceConfigCountJob countJob;
+
+  @Before
+  public void setUp() {
+    countJob = new InstanceConfigCountJob(instanceService, jobLockService, bizConfig);
+  }
+
+  @Test
+  public void testRunWhenDisabled() {
+    when(bizConfig.isInstanceConfigCountEnabled()).thenReturn(false);
+
+    countJob.run();
+
+    verify(jobLockService, never()).tryLock(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+  }
+
+  @Test
+  public void testRunRebuildsCounts() {
+    int batchSize = InstanceConfigCountJob.SCAN_BATCH_SIZE;
+    when(bizConfig.isInstanceConfigCountEnabled()).thenReturn(true);
+    when(jobLockService.tryLock(eq(InstanceConfigCountJob.JOB_NAME), anyString(), anyLong(), any(TimeUnit.class)))
+        .thenReturn(true);
+    when(instanceService.findMaxInstanceConfigId()).thenReturn(batchSize + 1L);
+    when(instanceService.countActiveInstanceConfigs(0, batchSize)).thenReturn(Lists.newArrayList(
+        assembleCount("someNamespace", 2), assembleCount("anotherNamespace", 1)));
+    when(instanceService.countActiveInstanceConfigs(batchSize, 2 * batchSize)).thenReturn(Lists.newArrayList(
+        assembleCount("someNamespace", 3)));
+
+    long start = System.currentTimeMillis();
+    countJob.run();
+
+    ArgumentCaptor<List<InstanceConfigCount>> counts = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<Date> time = ArgumentCaptor.forClass(Date.class);
+    verify(instanceService).saveInstanceConfigCounts(counts.capture(), time.capture());
+    assertEquals(2, counts.getValue().size());
+    for (InstanceConfigCount count : counts.getValue()) {
+      assertEquals("someNamespace".equals(count.getConfigNamespaceName()) ? 5 : 1, count.getInstanceCount());
+    }
+    assertEquals(start, time.getValue().getTime(), 1000);
+    verify(instanceService).deleteInstanceConfigCountsNotModifiedSince(time.getValue());
+    verify(jobLockService).unlock(eq(InstanceConfigCountJob.JOB_NAME), anyString());
+  }
+
+  @Test
+  public void testRunStopsWhenLockLost() {
+    when(bizConfig.isInstanceConfigCountEnabled()).thenReturn(true);
+    when(jobLockService.tryLock(eq(InstanceConfigCountJob.JOB_NAME), anyString(), anyLong(), any(TimeUnit.class)))
+        .thenReturn(true, false);
+    when(instanceService.findMaxInstanceConfigId()).thenReturn(1L);
+
+    countJob.run();
+
+    verify(instanceService, never()).saveInstanceConfigCounts(anyList(), any(Date.class));
+    verify(instanceService, never()).deleteInstanceConfigCountsNotModifiedSince(any(Date.class));
+  }
+
+  @Test
+  public void testCountWithoutInstanceConfigs() {
+    when(instanceService.findMaxInstanceConfigId()).thenReturn(0L);
+
+    assertEquals(0, countJob.count().size());
+    verify(instanceService, never()).countActiveInstanceConfigs(anyLong(), anyLong());
+  }
+
+  private InstanceConfigCount assembleCount(String namespaceName, long instanceCount) {
+    return new InstanceConfigCount("someAppId", "default", namespaceName, "someReleaseKey", instanceCount);
+  }
+}
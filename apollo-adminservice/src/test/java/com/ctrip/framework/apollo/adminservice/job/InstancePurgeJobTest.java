@@ -0,0 +1,88 @@
+package com.ctrip.framework.apollo.adminservice.job;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.service.InstanceService;
+import com.ctrip.framework.apollo.biz.service.JobLockService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InstancePurgeJobTest {
+  @Mock
+  private InstanceService instanceService;
+  @Mock
+  private JobLockService jobLockService;
+  @Mock
+  private BizConfig bizConfig;
+
+  private InstancePurgeJob purgeJob;
+
+  @Before
+  public void setUp() {
+    purgeJob = new InstancePurgeJob(instanceService, jobLockService, bizConfig);
+  }
+
+  @Test
+  public void testRunWhenDisabled() {
+    when(bizConfig.isInstancePurgeEnabled()).thenReturn(false);
+
+    purgeJob.run();
+
+    verify(jobLockService, never()).tryLock(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+  }
+
+  @Test
+  public void testRunPurgesInBatches() {
+    int batchSize = 2;
+    int retentionDays = 30;
+    when(bizConfig.isInstancePurgeEnabled()).thenReturn(true);
+    when(bizConfig.instanceRetentionDays()).thenReturn(retentionDays);
+    when(bizConfig.instancePurgeBatchSize()).thenReturn(batchSize);
+    when(jobLockService.tryLock(eq(InstancePurgeJob.JOB_NAME), anyString(), anyLong(), any(TimeUnit.class)))
+        .thenReturn(true);
+    when(instanceService.purgeInstanceConfigsNotModifiedSince(any(Date.class), eq(batchSize)))
+        .thenReturn(batchSize, batchSize, 1);
+    when(instanceService.purgeInstancesNotModifiedSince(any(Date.class), eq(batchSize))).thenReturn(0);
+
+    long start = System.currentTimeMillis();
+    purgeJob.run();
+
+    ArgumentCaptor<Date> time = ArgumentCaptor.forClass(Date.class);
+    verify(instanceService, times(3)).purgeInstanceConfigsNotModifiedSince(time.capture(), eq(batchSize));
+    assertEquals(start - TimeUnit.DAYS.toMillis(retentionDays), time.getValue().getTime(), 1000);
+    verify(instanceService, times(1)).purgeInstancesNotModifiedSince(time.getValue(), batchSize);
+    verify(bizConfig, times(2)).instancePurgeBatchIntervalInMilli();
+    verify(jobLockService).unlock(eq(InstancePurgeJob.JOB_NAME), anyString());
+  }
+
+  @Test
+  public void testPurgeStopsWhenLockLost() throws Exception {
+    when(jobLockService.tryLock(eq(InstancePurgeJob.JOB_NAME), anyString(), anyLong(), any(TimeUnit.class)))
+        .thenReturn(false);
+    when(instanceService.purgeInstancesNotModifiedSince(any(Date.class), anyInt())).thenReturn(2);
+
+    int purged = purgeJob.purge(() -> instanceService.purgeInstancesNotModifiedSince(new Date(), 2), 2);
+
+    assertEquals(2, purged);
+    verify(instanceService, times(1)).purgeInstancesNotModifiedSince(any(Date.class), anyInt());
+  }
+}
@@ -0,0 +1,139 @@
+package com.ctrip.framework.apollo.adminservice.job;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.ReleaseMessage;
+import com.ctrip.framework.apollo.biz.service.JobLockService;
+import com.ctrip.framework.apollo.biz.service.ReleaseMessageService;
+import com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReleaseMessageCompactionJobTest {
+  @Mock
+  private ReleaseMessageService releaseMessageService;
+  @Mock
+  private JobLockService jobLockService;
+  @Mock
+  private BizConfig bizConfig;
+
+  private ReleaseMessageCompactionJob compactionJob;
+
+  @Before
+  public void setUp() {
+    compactionJob = new ReleaseMessageCompactionJob(releaseMessageService, jobLockService, bizConfig);
+  }
+
+  @Test
+  public void testRunWhenDisabled() {
+    when(bizConfig.isReleaseMessageCompactionEnabled()).thenReturn(false);
+
+    compactionJob.run();
+
+    verify(jobLockService, never()).tryLock(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+  }
+
+  @Test
+  public void testRunWithoutLock() {
+    when(bizConfig.isReleaseMessageCompactionEnabled()).thenReturn(true);
+    when(jobLockService.tryLock(eq(ReleaseMessageCompactionJob.JOB_NAME), anyString(), anyLong(),
+        any(TimeUnit.class))).thenReturn(false);
+
+    compactionJob.run();
+
+    verify(releaseMessageService, never()).findLatestReleaseMessageBefore(any());
+    verify(jobLockService, never()).unlock(anyString(), anyString());
+  }
+
+  @Test
+  public void testRunCompactsUpToTheSafeId() {
+    when(bizConfig.isReleaseMessageCompactionEnabled()).thenReturn(true);
+    when(jobLockService.tryLock(eq(ReleaseMessageCompactionJob.JOB_NAME), anyString(), anyLong(),
+        any(TimeUnit.class))).thenReturn(true);
+    when(releaseMessageService.findLatestReleaseMessageBefore(any())).thenReturn(assembleMessage(4));
+    when(releaseMessageService.findReleaseMessagesAfter(0))
+        .thenReturn(Lists.newArrayList(assembleMessage(1), assembleMessage(2)));
+    when(releaseMessageService.findReleaseMessagesAfter(2))
+        .thenReturn(Lists.newArrayList(assembleMessage(3), assembleMessage(4), assembleMessage(5)));
+    when(releaseMessageService.findReleaseMessagesAfter(4)).thenReturn(Lists.newArrayList(assembleMessage(5)));
+    when(releaseMessageService.deleteSupersededMessages(anyList())).thenReturn(1);
+
+    compactionJob.run();
+
+    ArgumentCaptor<List<ReleaseMessage>> batches = ArgumentCaptor.forClass(List.class);
+    verify(releaseMessageService, times(2)).deleteSupersededMessages(batches.capture());
+    //message 5 is newer than the safe id, so it is left alone
+    assertEquals(Lists.newArrayList(3L, 4L),
+        batches.getValue().stream().map(ReleaseMessage::getId).collect(Collectors.toList()));
+    verify(jobLockService).unlock(eq(ReleaseMessageCompactionJob.JOB_NAME), anyString());
+  }
+
+  @Test
+  public void testCompactFromTheHighWaterMark() {
+    when(jobLockService.tryLock(eq(ReleaseMessageCompactionJob.JOB_NAME), anyString(), anyLong(),
+        any(TimeUnit.class))).thenReturn(true);
+    when(releaseMessageService.findLatestReleaseMessageBefore(any())).thenReturn(assembleMessage(2),
+        assembleMessage(4));
+    when(releaseMessageService.findReleaseMessagesAfter(0))
+        .thenReturn(Lists.newArrayList(assembleMessage(1), assembleMessage(2)));
+    when(releaseMessageService.findReleaseMessagesAfter(2))
+        .thenReturn(Lists.newArrayList(assembleMessage(3), assembleMessage(4)));
+
+    compactionJob.compact();
+    compactionJob.compact();
+
+    //the second run starts after the messages scanned by the first run
+    verify(releaseMessageService, times(1)).findReleaseMessagesAfter(0);
+    verify(releaseMessageService, times(2)).findReleaseMessagesAfter(2);
+    verify(releaseMessageService).findReleaseMessagesAfter(4);
+  }
+
+  @Test
+  public void testCompactStopsWhenLockLost() {
+    when(jobLockService.tryLock(eq(ReleaseMessageCompactionJob.JOB_NAME), anyString(), anyLong(),
+        any(TimeUnit.class))).thenReturn(false);
+    when(releaseMessageService.findLatestReleaseMessageBefore(any())).thenReturn(assembleMessage(4));
+    List<ReleaseMessage> messages = Lists.newArrayList(assembleMessage(1), assembleMessage(2));
+    when(releaseMessageService.findReleaseMessagesAfter(0)).thenReturn(messages);
+    when(releaseMessageService.deleteSupersededMessages(messages)).thenReturn(1);
+
+    assertEquals(1, compactionJob.compact());
+
+    verify(releaseMessageService, never()).findReleaseMessagesAfter(2);
+  }
+
+  @Test
+  public void testCompactWithNoMessages() {
+    when(releaseMessageService.findLatestReleaseMessageBefore(any())).thenReturn(null);
+
+    assertEquals(0, compactionJob.compact());
+
+    verify(releaseMessageService, never()).findReleaseMessagesAfter(anyLong());
+  }
+
+  private ReleaseMessage assembleMessage(long id) {
+    ReleaseMessage message = new ReleaseMessage("someMessage");
+    message.setId(id);
+    return message;
+  }
+}
@@ -0,0 +1,126 @@
+package com.ctrip.framework.apollo.adminservice.job;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.Namespace;
+import com.ctrip.framework.apollo.biz.service.CommitService;
+import com.ctrip.framework.apollo.biz.service.JobLockService;
+import com.ctrip.framework.apollo.biz.service.NamespaceService;
+import com.ctrip.framework.apollo.biz.service.ReleaseHistoryService;
+import com.ctrip.framework.apollo.biz.service.ReleasePayloadService;
+import com.ctrip.framework.apollo.biz.service.ReleaseService;
+import com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReleasePurgeJobTest {
+  private static final String someAppId = "someAppId";
+  private static final String someCluster = "someCluster";
+
+  @Mock
+  private NamespaceService namespaceService;
+  @Mock
+  private ReleaseService releaseService;
+  @Mock
+  private ReleaseHistoryService releaseHistoryService;
+  @Mock
+  private CommitService commitService;
+  @Mock
+  private ReleasePayloadService releasePayloadService;
+  @Mock
+  private JobLockService jobLockService;
+  @Mock
+  private BizConfig bizConfig;
+
+  private ReleasePurgeJob purgeJob;
+
+  @Before
+  public void setUp() {
+    purgeJob = new ReleasePurgeJob(namespaceService, releaseService, releaseHistoryService, commitService,
+        releasePayloadService, jobLockService, bizConfig);
+  }
+
+  @Test
+  public void testRunWhenDisabled() {
+    when(bizConfig.isReleasePurgeEnabled()).thenReturn(false);
+
+    purgeJob.run();
+
+    verify(jobLockService, never()).tryLock(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+    verify(namespaceService, never()).findNamespacesAfter(anyLong());
+  }
+
+  @Test
+  public void testRunPurgesAllNamespaces() {
+    int batchSize = 2;
+    when(bizConfig.isReleasePurgeEnabled()).thenReturn(true);
+    when(bizConfig.releaseRetentionSize()).thenReturn(100);
+    when(bizConfig.commitRetentionSize()).thenReturn(1000);
+    when(bizConfig.releasePurgeBatchSize()).thenReturn(batchSize);
+    when(jobLockService.tryLock(eq(ReleasePurgeJob.JOB_NAME), anyString(), anyLong(), any(TimeUnit.class)))
+        .thenReturn(true);
+    Namespace someNamespace = assembleNamespace(1, "someNamespace");
+    Namespace anotherNamespace = assembleNamespace(2, "anotherNamespace");
+    when(namespaceService.findNamespacesAfter(0)).thenReturn(Lists.newArrayList(someNamespace, anotherNamespace));
+    when(namespaceService.findNamespacesAfter(2)).thenReturn(Collections.emptyList());
+    when(releaseHistoryService.purgeReleaseHistories(someAppId, someCluster, "someNamespace", 100, batchSize))
+        .thenReturn(batchSize, 0);
+    when(releaseService.purgeReleases(someAppId, someCluster, "someNamespace", 100, batchSize)).thenReturn(1);
+    when(releasePayloadService.purgeOrphanPayloads(batchSize)).thenReturn(1);
+
+    purgeJob.run();
+
+    InOrder inOrder = inOrder(releaseHistoryService, releaseService, commitService, releasePayloadService);
+    inOrder.verify(releaseHistoryService, times(2)).purgeReleaseHistories(someAppId, someCluster, "someNamespace",
+        100, batchSize);
+    inOrder.verify(releaseService).purgeReleases(someAppId, someCluster, "someNamespace", 100, batchSize);
+    inOrder.verify(commitService).purgeCommits(someAppId, someCluster, "someNamespace", 1000, batchSize);
+    verify(releaseHistoryService).purgeReleaseHistories(someAppId, someCluster, "anotherNamespace", 100,
+        batchSize);
+    verify(releaseService).purgeReleases(someAppId, someCluster, "anotherNamespace", 100, batchSize);
+    verify(commitService).purgeCommits(someAppId, someCluster, "anotherNamespace", 1000, batchSize);
+    inOrder.verify(releasePayloadService).purgeOrphanPayloads(batchSize);
+    verify(bizConfig, times(1)).releasePurgeBatchIntervalInMilli();
+    verify(jobLockService).unlock(eq(ReleasePurgeJob.JOB_NAME), anyString());
+  }
+
+  @Test
+  public void testRunStopsWhenLockLost() {
+    when(bizConfig.isReleasePurgeEnabled()).thenReturn(true);
+    when(jobLockService.tryLock(eq(ReleasePurgeJob.JOB_NAME), anyString(), anyLong(), any(TimeUnit.class)))
+        .thenReturn(true, false);
+    when(namespaceService.findNamespacesAfter(0))
+        .thenReturn(Lists.newArrayList(assembleNamespace(1, "someNamespace")));
+
+    purgeJob.run();
+
+    verify(namespaceService, never()).findNamespacesAfter(1);
+    verify(releaseService).purgeReleases(anyString(), anyString(), anyString(), anyInt(), anyInt());
+    verify(releasePayloadService, never()).purgeOrphanPayloads(anyInt());
+  }
+
+  private Namespace assembleNamespace(long id, String namespaceName) {
+    Namespace namespace = new Namespace(someAppId, someCluster, namespaceName);
+    namespace.setId(id);
+    return namespace;
+  }
+}
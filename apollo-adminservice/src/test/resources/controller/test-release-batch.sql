@@ -0,0 +1,21 @@
+INSERT INTO App (AppId, Name, OwnerName, OwnerEmail) VALUES ('someAppId','someAppName','someOwnerName','someOwnerName@ctrip.com');
+
+INSERT INTO Cluster (AppId, Name) VALUES ('someAppId', 'default');
+
+INSERT INTO AppNamespace (AppId, Name) VALUES ('someAppId', 'namespace0');
+INSERT INTO Namespace (Id, AppId, ClusterName, NamespaceName) VALUES (200, 'someAppId', 'default', 'namespace0');
+INSERT INTO Item (NamespaceId, `Key`, Value, Comment) VALUES (200, 'k1', 'v1', 'comment1');
+INSERT INTO Item (NamespaceId, `Key`, Value, Comment) VALUES (200, 'k2', 'v2', 'comment2');
+INSERT INTO Item (NamespaceId, `Key`, Value, Comment) VALUES (200, 'k3', 'v3', 'comment3');
+
+INSERT INTO AppNamespace (AppId, Name) VALUES ('someAppId', 'namespace1');
+INSERT INTO Namespace (Id, AppId, ClusterName, NamespaceName) VALUES (201, 'someAppId', 'default', 'namespace1');
+INSERT INTO Item (NamespaceId, `Key`, Value, Comment) VALUES (201, 'k1', 'v1', 'comment1');
+INSERT INTO Item (NamespaceId, `Key`, Value, Comment) VALUES (201, 'k2', 'v2', 'comment2');
+INSERT INTO Item (NamespaceId, `Key`, Value, Comment) VALUES (201, 'k3', 'v3', 'comment3');
+
+INSERT INTO AppNamespace (AppId, Name) VALUES ('someAppId', 'namespace2');
+INSERT INTO Namespace (Id, AppId, ClusterName, NamespaceName) VALUES (202, 'someAppId', 'default', 'namespace2');
+INSERT INTO Item (NamespaceId, `Key`, Value, Comment) VALUES (202, 'k1', 'v1', 'comment1');
+INSERT INTO Item (NamespaceId, `Key`, Value, Comment) VALUES (202, 'k2', 'v2', 'comment2');
+INSERT INTO Item (NamespaceId, `Key`, Value, Comment) VALUES (202, 'k3', 'v3', 'comment3');
@@ -28,6 +28,26 @@ public class BizConfig extends RefreshableConfig {
   private static final int DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH = 100;
   private static final int DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH_INTERVAL_IN_MILLI = 100;//100ms
   private static final int DEFAULT_LONG_POLLING_TIMEOUT = 60; //60s
+  private static final int DEFAULT_CONFIG_CACHE_WARM_UP_CONCURRENCY = 4;
+  private static final int DEFAULT_CONFIG_CACHE_WARM_UP_TIMEOUT = 60; //60s
+  private static final int DEFAULT_CONCURRENCY_LIMIT_INITIAL = 100;
+  private static final int DEFAULT_CONCURRENCY_LIMIT_MIN = 20;
+  private static final int DEFAULT_CONCURRENCY_LIMIT_MAX = 1000;
+  private static final int DEFAULT_CONCURRENCY_LIMIT_LATENCY_THRESHOLD_IN_MILLI = 500; //500ms
+  private static final int DEFAULT_CONCURRENCY_LIMIT_RETRY_AFTER = 5; //5s
+  private static final int DEFAULT_CONSISTENT_HASH_LOAD_FACTOR_IN_PERCENT = 125;
+  private static final int DEFAULT_DISCOVERY_CACHE_TTL = 5; //5s
+  private static final int DEFAULT_RELEASE_MESSAGE_COMPACTION_INTERVAL = 60; //60s
+  private static final int DEFAULT_METADATA_CACHE_TTL = 0; //0s
+  private static final int DEFAULT_INSTANCE_RETENTION_DAYS = 30;
+  private static final int DEFAULT_INSTANCE_PURGE_BATCH_SIZE = 500;
+  private static final int DEFAULT_INSTANCE_PURGE_BATCH_INTERVAL = 100; //100ms
+  private static final int DEFAULT_RELEASE_RETENTION_SIZE = 100;
+  private static final int DEFAULT_COMMIT_RETENTION_SIZE = 1000;
+  private static final int DEFAULT_RELEASE_PURGE_BATCH_SIZE = 100;
+  private static final int DEFAULT_RELEASE_PURGE_BATCH_INTERVAL = 100; //100ms
+  private static final int DEFAULT_AUDIT_ASYNC_QUEUE_CAPACITY = 10000;
+  private static final int DEFAULT_AUDIT_ASYNC_BATCH_SIZE = 100;
 
   private Gson gson = new Gson();
   private static final Type namespaceValueLengthOverrideTypeReference =
@@ -90,6 +110,15 @@ public class BizConfig extends RefreshableConfig {
     return !getBooleanProperty("namespace.lock.switch", false);
   }
 
+  /**
+   * how long the app, cluster, app namespace and namespace lookups are cached, 0 means no cache.
+   * Changes made by other admin service nodes are only noticed after it.
+   */
+  public int metadataCacheTtlInSecond() {
+    int ttl = getIntProperty("metadata.cache.ttl", DEFAULT_METADATA_CACHE_TTL);
+    return checkInt(ttl, 0, 60, DEFAULT_METADATA_CACHE_TTL);
+  }
+
   /**
    * ctrip config
    **/
@@ -143,10 +172,223 @@ public class BizConfig extends RefreshableConfig {
     return checkInt(interval, 10, Integer.MAX_VALUE, DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH_INTERVAL_IN_MILLI);
   }
 
+  /**
+   * the min length of release configurations to store compressed, 0 means never compress
+   */
+  public int releaseConfigurationsCompressionThreshold() {
+    int threshold = getIntProperty("release.configurations.compression.threshold", 0);
+    return checkInt(threshold, 0, Integer.MAX_VALUE, 0);
+  }
+
+  /**
+   * whether to store the release configurations by content hash, so that releases with identical configurations
+   * share the same payload, requires the ReleasePayload table
+   */
+  public boolean isReleasePayloadDeduplicationEnabled() {
+    return getBooleanProperty("release.payload.deduplication.enabled", false);
+  }
+
+  /**
+   * whether to compact the release messages in background instead of cleaning them after each release,
+   * requires the JobLock table
+   */
+  public boolean isReleaseMessageCompactionEnabled() {
+    return getBooleanProperty("release-message.compaction.enabled", false);
+  }
+
+  public int releaseMessageCompactionIntervalInSecond() {
+    int interval = getIntProperty("release-message.compaction.interval", DEFAULT_RELEASE_MESSAGE_COMPACTION_INTERVAL);
+    return checkInt(interval, 10, Integer.MAX_VALUE, DEFAULT_RELEASE_MESSAGE_COMPACTION_INTERVAL);
+  }
+
+  /**
+   * whether to purge the instances not reported for {@link #instanceRetentionDays()}, requires the JobLock table
+   */
+  public boolean isInstancePurgeEnabled() {
+    return getBooleanProperty("instance.purge.enabled", false);
+  }
+
+  public int instanceRetentionDays() {
+    int days = getIntProperty("instance.retention.days", DEFAULT_INSTANCE_RETENTION_DAYS);
+    //the active instances are reported at least once a day
+    return checkInt(days, 2, Integer.MAX_VALUE, DEFAULT_INSTANCE_RETENTION_DAYS);
+  }
+
+  public int instancePurgeBatchSize() {
+    int batchSize = getIntProperty("instance.purge.batch-size", DEFAULT_INSTANCE_PURGE_BATCH_SIZE);
+    return checkInt(batchSize, 1, 5000, DEFAULT_INSTANCE_PURGE_BATCH_SIZE);
+  }
+
+  /**
+   * the pause between purge batches, to throttle the load on the database
+   */
+  public int instancePurgeBatchIntervalInMilli() {
+    int interval = getIntProperty("instance.purge.batch-interval", DEFAULT_INSTANCE_PURGE_BATCH_INTERVAL);
+    return checkInt(interval, 0, Integer.MAX_VALUE, DEFAULT_INSTANCE_PURGE_BATCH_INTERVAL);
+  }
+
+  /**
+   * whether to answer the instance count of a namespace from the InstanceConfigCount table, which the admin service
+   * rebuilds from the active instances periodically, requires the JobLock table
+   */
+  public boolean isInstanceConfigCountEnabled() {
+    return getBooleanProperty("instance.config.count.enabled", false);
+  }
+
+  /**
+   * whether to purge the releases, release histories and commits beyond the retention sizes, requires the JobLock table
+   */
+  public boolean isReleasePurgeEnabled() {
+    return getBooleanProperty("release.purge.enabled", false);
+  }
+
+  /**
+   * the number of the latest releases and release histories kept for each namespace
+   */
+  public int releaseRetentionSize() {
+    int size = getIntProperty("release.retention.size", DEFAULT_RELEASE_RETENTION_SIZE);
+    return checkInt(size, 10, Integer.MAX_VALUE, DEFAULT_RELEASE_RETENTION_SIZE);
+  }
+
+  /**
+   * the number of the latest commits kept for each namespace
+   */
+  public int commitRetentionSize() {
+    int size = getIntProperty("commit.retention.size", DEFAULT_COMMIT_RETENTION_SIZE);
+    return checkInt(size, 10, Integer.MAX_VALUE, DEFAULT_COMMIT_RETENTION_SIZE);
+  }
+
+  public int releasePurgeBatchSize() {
+    int batchSize = getIntProperty("release.purge.batch-size", DEFAULT_RELEASE_PURGE_BATCH_SIZE);
+    return checkInt(batchSize, 1, 1000, DEFAULT_RELEASE_PURGE_BATCH_SIZE);
+  }
+
+  /**
+   * the pause between the batches of a namespace
+   */
+  public int releasePurgeBatchIntervalInMilli() {
+    int interval = getIntProperty("release.purge.batch-interval", DEFAULT_RELEASE_PURGE_BATCH_INTERVAL);
+    return checkInt(interval, 0, Integer.MAX_VALUE, DEFAULT_RELEASE_PURGE_BATCH_INTERVAL);
+  }
+
+  /**
+   * whether to write the audits in background batches, the audits not flushed yet are lost if the process crashes
+   */
+  public boolean isAuditAsyncEnabled() {
+    return getBooleanProperty("audit.async.enabled", false);
+  }
+
+  /**
+   * the audits are written synchronously when the queue is full, only read on startup
+   */
+  public int auditAsyncQueueCapacity() {
+    int capacity = getIntProperty("audit.async.queue.capacity", DEFAULT_AUDIT_ASYNC_QUEUE_CAPACITY);
+    return checkInt(capacity, 1, 1000000, DEFAULT_AUDIT_ASYNC_QUEUE_CAPACITY);
+  }
+
+  public int auditAsyncBatchSize() {
+    int batchSize = getIntProperty("audit.async.batch-size", DEFAULT_AUDIT_ASYNC_BATCH_SIZE);
+    return checkInt(batchSize, 1, 1000, DEFAULT_AUDIT_ASYNC_BATCH_SIZE);
+  }
+
+  /**
+   * the min estimated json length of commit change sets to store compressed, 0 means never compress
+   */
+  public int commitChangeSetsCompressionThreshold() {
+    int threshold = getIntProperty("commit.change-sets.compression.threshold", 0);
+    return checkInt(threshold, 0, Integer.MAX_VALUE, 0);
+  }
+
   public boolean isConfigServiceCacheEnabled() {
     return getBooleanProperty("config-service.cache.enabled", false);
   }
 
+  /**
+   * the number of most used namespaces to preload into the config cache on startup, 0 means no warm up
+   */
+  public int configCacheWarmUpSize() {
+    int size = getIntProperty("config-service.cache.warm-up.size", 0);
+    return checkInt(size, 0, Integer.MAX_VALUE, 0);
+  }
+
+  public int configCacheWarmUpConcurrency() {
+    int concurrency = getIntProperty("config-service.cache.warm-up.concurrency", DEFAULT_CONFIG_CACHE_WARM_UP_CONCURRENCY);
+    return checkInt(concurrency, 1, 100, DEFAULT_CONFIG_CACHE_WARM_UP_CONCURRENCY);
+  }
+
+  public int configCacheWarmUpTimeoutInSecond() {
+    int timeout = getIntProperty("config-service.cache.warm-up.timeout", DEFAULT_CONFIG_CACHE_WARM_UP_TIMEOUT);
+    return checkInt(timeout, 1, Integer.MAX_VALUE, DEFAULT_CONFIG_CACHE_WARM_UP_TIMEOUT);
+  }
+
+  /**
+   * whether to log one aggregated tracer event per request instead of one event per watched key
+   */
+  public boolean isTracerEventAggregated() {
+    return getBooleanProperty("config-service.tracer.event.aggregated", false);
+  }
+
+  public boolean isConcurrencyLimitEnabled() {
+    return getBooleanProperty("config-service.concurrency-limit.enabled", false);
+  }
+
+  public int concurrencyLimitInitial() {
+    int limit = getIntProperty("config-service.concurrency-limit.initial", DEFAULT_CONCURRENCY_LIMIT_INITIAL);
+    return checkInt(limit, 1, Integer.MAX_VALUE, DEFAULT_CONCURRENCY_LIMIT_INITIAL);
+  }
+
+  public int concurrencyLimitMin() {
+    int limit = getIntProperty("config-service.concurrency-limit.min", DEFAULT_CONCURRENCY_LIMIT_MIN);
+    return checkInt(limit, 1, Integer.MAX_VALUE, DEFAULT_CONCURRENCY_LIMIT_MIN);
+  }
+
+  public int concurrencyLimitMax() {
+    int limit = getIntProperty("config-service.concurrency-limit.max", DEFAULT_CONCURRENCY_LIMIT_MAX);
+    return checkInt(limit, 1, Integer.MAX_VALUE, DEFAULT_CONCURRENCY_LIMIT_MAX);
+  }
+
+  public int concurrencyLimitLatencyThresholdInMilli() {
+    int threshold = getIntProperty("config-service.concurrency-limit.latency-threshold",
+        DEFAULT_CONCURRENCY_LIMIT_LATENCY_THRESHOLD_IN_MILLI);
+    return checkInt(threshold, 1, Integer.MAX_VALUE, DEFAULT_CONCURRENCY_LIMIT_LATENCY_THRESHOLD_IN_MILLI);
+  }
+
+  public int concurrencyLimitRetryAfterInSecond() {
+    int retryAfter = getIntProperty("config-service.concurrency-limit.retry-after", DEFAULT_CONCURRENCY_LIMIT_RETRY_AFTER);
+    return checkInt(retryAfter, 1, 3600, DEFAULT_CONCURRENCY_LIMIT_RETRY_AFTER);
+  }
+
+  /**
+   * whether the meta service returns config services ordered by the consistent hash of the client's appId
+   */
+  public boolean isConfigServiceConsistentHashEnabled() {
+    return getBooleanProperty("config-service.consistent-hash.enabled", false);
+  }
+
+  /**
+   * the max expected load of a config service relative to the average load, e.g. 125 means 1.25 times of the average
+   */
+  public int configServiceConsistentHashLoadFactorInPercent() {
+    int loadFactor = getIntProperty("config-service.consistent-hash.load-factor",
+        DEFAULT_CONSISTENT_HASH_LOAD_FACTOR_IN_PERCENT);
+    return checkInt(loadFactor, 100, Integer.MAX_VALUE, DEFAULT_CONSISTENT_HASH_LOAD_FACTOR_IN_PERCENT);
+  }
+
+  /**
+   * how long the meta service caches the discovered instances, 0 means no cache
+   */
+  public int discoveryCacheTtlInSecond() {
+    int ttl = getIntProperty("meta-service.discovery.cache.ttl", DEFAULT_DISCOVERY_CACHE_TTL);
+    return checkInt(ttl, 0, 300, DEFAULT_DISCOVERY_CACHE_TTL);
+  }
+
+  /**
+   * whether the meta service returns the config services in the client's data center first
+   */
+  public boolean isDiscoveryLocalityEnabled() {
+    return getBooleanProperty("meta-service.discovery.locality.enabled", false);
+  }
+
   int checkInt(int value, int min, int max, int defaultValue) {
     if (value >= min && value <= max) {
       return value;
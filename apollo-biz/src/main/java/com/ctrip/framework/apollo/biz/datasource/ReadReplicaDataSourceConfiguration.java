@@ -0,0 +1,66 @@
+package com.ctrip.framework.apollo.biz.datasource;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+/**
+ * Optional read replica for ApolloConfigDB, enabled when spring.datasource.replica.jdbc-url is configured.
+ *
+ * The primary datasource is still configured by spring.datasource.*, and the replica accepts hikari settings
+ * directly under spring.datasource.replica.*, e.g. jdbc-url, username, password and maximum-pool-size.
+ *
+ * Only the release loads of the config service are routed to the replica, see {@link ReplicaRouting}. The admin
+ * service, which shares this configuration when running in the same process, keeps reading from the primary.
+ *
+ * The underlying pools are not exposed as beans, so that the datasource initializer and refresh scope only
+ * see the routing datasource.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "jdbc-url")
+public class ReadReplicaDataSourceConfiguration {
+  private final HikariDataSource primaryDataSource;
+  private final HikariDataSource replicaDataSource;
+
+  public ReadReplicaDataSourceConfiguration(final DataSourceProperties properties, final Environment environment) {
+    Binder binder = Binder.get(environment);
+
+    primaryDataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    binder.bind("spring.datasource.hikari", Bindable.ofInstance(primaryDataSource));
+
+    replicaDataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+    binder.bind("spring.datasource.replica", Bindable.ofInstance(replicaDataSource));
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource() {
+    ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource);
+    routingDataSource.afterPropertiesSet();
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+
+  @Bean
+  public ReplicaPositionTracker replicaPositionTracker(ReplicaRouting replicaRouting, BizConfig bizConfig) {
+    return new ReplicaPositionTracker(replicaDataSource, replicaRouting, bizConfig);
+  }
+
+  @PreDestroy
+  public void close() {
+    primaryDataSource.close();
+    replicaDataSource.close();
+  }
+}
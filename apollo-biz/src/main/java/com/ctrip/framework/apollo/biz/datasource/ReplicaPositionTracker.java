@@ -0,0 +1,65 @@
+package com.ctrip.framework.apollo.biz.datasource;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.tracer.Tracer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+/**
+ * Tracks the largest release message id replicated to the read replica
+ */
+public class ReplicaPositionTracker implements InitializingBean, DisposableBean {
+  private static final Logger logger = LoggerFactory.getLogger(ReplicaPositionTracker.class);
+  private static final String LARGEST_RELEASE_MESSAGE_ID_SQL = "SELECT MAX(`Id`) FROM `ReleaseMessage`";
+
+  private final JdbcTemplate replicaJdbcTemplate;
+  private final ReplicaRouting replicaRouting;
+  private final BizConfig bizConfig;
+  private final ScheduledExecutorService executorService;
+
+  public ReplicaPositionTracker(final DataSource replicaDataSource, final ReplicaRouting replicaRouting,
+                                final BizConfig bizConfig) {
+    this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+    this.replicaRouting = replicaRouting;
+    this.bizConfig = bizConfig;
+    executorService = Executors.newScheduledThreadPool(1, ApolloThreadFactory
+        .create("ReplicaPositionTracker", true));
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    //all queries go to the primary until we know the replica's position
+    replicaRouting.updateReplicatedReleaseMessageId(0);
+    trackPosition();
+
+    int interval = bizConfig.releaseMessageScanIntervalInMilli();
+    executorService.scheduleWithFixedDelay(this::trackPosition, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    executorService.shutdownNow();
+  }
+
+  private void trackPosition() {
+    try {
+      Long position = replicaJdbcTemplate.queryForObject(LARGEST_RELEASE_MESSAGE_ID_SQL, Long.class);
+      replicaRouting.updateReplicatedReleaseMessageId(position == null ? 0 : position);
+    } catch (Throwable ex) {
+      //keep the last known position, which is conservative since the replica only moves forward
+      Tracer.logError(ex);
+      logger.error("Track replica position failed", ex);
+    }
+  }
+}
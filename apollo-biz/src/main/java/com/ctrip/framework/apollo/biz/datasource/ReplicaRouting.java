@@ -0,0 +1,68 @@
+package com.ctrip.framework.apollo.biz.datasource;
+
+import com.ctrip.framework.apollo.tracer.Tracer;
+
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Routing hints for {@link ReplicaRoutingDataSource}.
+ *
+ * Only the read only transactions run by {@link #executeOnReplica(Supplier)}, i.e. the release loads of the config
+ * service, go to the read replica, everything else stays on the primary. Data newer than the replica's replicated
+ * release message position must be read from the primary as well.
+ */
+@Component
+public class ReplicaRouting {
+  private static final ThreadLocal<Boolean> replicaAllowed = ThreadLocal.withInitial(() -> false);
+  private static final ThreadLocal<Boolean> primaryForced = ThreadLocal.withInitial(() -> false);
+
+  //when there is no replica configured, everything is regarded as replicated
+  private volatile long replicatedReleaseMessageId = Long.MAX_VALUE;
+
+  /**
+   * Execute the supplier, and make its db queries go to the primary if the release message is not replicated yet
+   */
+  public <T> T executeWithReleaseMessage(long releaseMessageId, Supplier<T> supplier) {
+    if (releaseMessageId <= replicatedReleaseMessageId || primaryForced.get()) {
+      return supplier.get();
+    }
+
+    Tracer.logEvent("Apollo.Replica.FallbackToPrimary", String.valueOf(releaseMessageId));
+    primaryForced.set(true);
+    try {
+      return supplier.get();
+    } finally {
+      primaryForced.set(false);
+    }
+  }
+
+  /**
+   * Execute the supplier, and let its read only db queries go to the replica unless the primary is forced
+   */
+  public <T> T executeOnReplica(Supplier<T> supplier) {
+    if (replicaAllowed.get()) {
+      return supplier.get();
+    }
+
+    replicaAllowed.set(true);
+    try {
+      return supplier.get();
+    } finally {
+      replicaAllowed.set(false);
+    }
+  }
+
+  public long getReplicatedReleaseMessageId() {
+    return replicatedReleaseMessageId;
+  }
+
+  void updateReplicatedReleaseMessageId(long releaseMessageId) {
+    this.replicatedReleaseMessageId = releaseMessageId;
+  }
+
+  static boolean isReplicaAllowed() {
+    return replicaAllowed.get() && !primaryForced.get();
+  }
+}
@@ -0,0 +1,38 @@
+package com.ctrip.framework.apollo.biz.datasource;
+
+import com.google.common.collect.Maps;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes the read only transactions allowed by {@link ReplicaRouting} to the read replica and everything else to the
+ * primary.
+ *
+ * Must be wrapped with a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so that the
+ * target connection is fetched after the transaction's read only flag is exposed.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+  static final String PRIMARY = "primary";
+  static final String REPLICA = "replica";
+
+  public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+    Map<Object, Object> targetDataSources = Maps.newHashMap();
+    targetDataSources.put(PRIMARY, primary);
+    targetDataSources.put(REPLICA, replica);
+    setTargetDataSources(targetDataSources);
+    setDefaultTargetDataSource(primary);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (ReplicaRouting.isReplicaAllowed() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return REPLICA;
+    }
+    return PRIMARY;
+  }
+}
@@ -1,5 +1,6 @@
 package com.ctrip.framework.apollo.biz.entity;
 
+import com.ctrip.framework.apollo.biz.utils.CommitChangeSetsCodec;
 import com.ctrip.framework.apollo.common.entity.BaseEntity;
 
 import org.hibernate.annotations.SQLDelete;
@@ -9,6 +10,7 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Lob;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 
 @Entity
 @Table(name = "Commit")
@@ -16,10 +18,16 @@ import javax.persistence.Table;
 @Where(clause = "isDeleted = 0")
 public class Commit extends BaseEntity {
 
+  /**
+   * the stored change sets, which might be compressed, see {@link CommitChangeSetsCodec}
+   */
   @Lob
   @Column(name = "ChangeSets", nullable = false)
   private String changeSets;
 
+  @Transient
+  private volatile String decompressedChangeSets;
+
   @Column(name = "AppId", nullable = false)
   private String appId;
 
@@ -33,11 +41,20 @@ public class Commit extends BaseEntity {
   private String comment;
 
   public String getChangeSets() {
-    return changeSets;
+    String result = decompressedChangeSets;
+    if (result == null && changeSets != null) {
+      result = CommitChangeSetsCodec.decompress(changeSets);
+      decompressedChangeSets = result;
+    }
+    return result;
   }
 
+  /**
+   * @param changeSets the json change sets, or the compressed ones
+   */
   public void setChangeSets(String changeSets) {
     this.changeSets = changeSets;
+    this.decompressedChangeSets = null;
   }
 
   public String getAppId() {
@@ -74,7 +91,7 @@ public class Commit extends BaseEntity {
 
   @Override
   public String toString() {
-    return toStringHelper().add("changeSets", changeSets).add("appId", appId).add("clusterName", clusterName)
+    return toStringHelper().add("changeSets", getChangeSets()).add("appId", appId).add("clusterName", clusterName)
         .add("namespaceName", namespaceName).add("comment", comment).toString();
   }
 }
@@ -0,0 +1,104 @@
+package com.ctrip.framework.apollo.biz.entity;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * The number of active instance configs of a release, rebuilt periodically from the instance configs
+ */
+@Entity
+@Table(name = "InstanceConfigCount", uniqueConstraints = @UniqueConstraint(columnNames = {"ConfigAppId",
+    "ConfigClusterName", "ConfigNamespaceName", "ReleaseKey"}))
+public class InstanceConfigCount {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "Id")
+  private long id;
+
+  @Column(name = "ConfigAppId", nullable = false)
+  private String configAppId;
+
+  @Column(name = "ConfigClusterName", nullable = false)
+  private String configClusterName;
+
+  @Column(name = "ConfigNamespaceName", nullable = false)
+  private String configNamespaceName;
+
+  @Column(name = "ReleaseKey", nullable = false)
+  private String releaseKey;
+
+  @Column(name = "InstanceCount", nullable = false)
+  private long instanceCount;
+
+  @Column(name = "DataChange_LastTime")
+  private Date dataChangeLastModifiedTime;
+
+  @PrePersist
+  @PreUpdate
+  protected void prePersist() {
+    dataChangeLastModifiedTime = new Date();
+  }
+
+  public InstanceConfigCount() {
+  }
+
+  public InstanceConfigCount(String configAppId, String configClusterName, String configNamespaceName,
+                             String releaseKey, long instanceCount) {
+    this.configAppId = configAppId;
+    this.configClusterName = configClusterName;
+    this.configNamespaceName = configNamespaceName;
+    this.releaseKey = releaseKey;
+    this.instanceCount = instanceCount;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public String getConfigAppId() {
+    return configAppId;
+  }
+
+  public String getConfigClusterName() {
+    return configClusterName;
+  }
+
+  public String getConfigNamespaceName() {
+    return configNamespaceName;
+  }
+
+  public String getReleaseKey() {
+    return releaseKey;
+  }
+
+  public long getInstanceCount() {
+    return instanceCount;
+  }
+
+  public Date getDataChangeLastModifiedTime() {
+    return dataChangeLastModifiedTime;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .omitNullValues()
+        .add("configAppId", configAppId)
+        .add("configClusterName", configClusterName)
+        .add("configNamespaceName", configNamespaceName)
+        .add("releaseKey", releaseKey)
+        .add("instanceCount", instanceCount)
+        .toString();
+  }
+}
@@ -0,0 +1,69 @@
+package com.ctrip.framework.apollo.biz.entity;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+
+/**
+ * The lease of a background job, so that only one node runs the job at a time
+ */
+@Entity
+@Table(name = "JobLock")
+public class JobLock {
+  @Id
+  @Column(name = "Name", length = 64)
+  private String name;
+
+  @Column(name = "Owner", nullable = false)
+  private String owner;
+
+  @Column(name = "ExpireTime", nullable = false)
+  private Date expireTime;
+
+  @Column(name = "DataChange_LastTime")
+  private Date dataChangeLastModifiedTime;
+
+  @PrePersist
+  @PreUpdate
+  protected void prePersist() {
+    dataChangeLastModifiedTime = new Date();
+  }
+
+  public JobLock() {
+  }
+
+  public JobLock(String name, String owner, Date expireTime) {
+    this.name = name;
+    this.owner = owner;
+    this.expireTime = expireTime;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getOwner() {
+    return owner;
+  }
+
+  public Date getExpireTime() {
+    return expireTime;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .omitNullValues()
+        .add("name", name)
+        .add("owner", owner)
+        .add("expireTime", expireTime)
+        .toString();
+  }
+}
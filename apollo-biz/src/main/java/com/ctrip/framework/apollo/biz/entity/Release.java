@@ -1,14 +1,20 @@
 package com.ctrip.framework.apollo.biz.entity;
 
+import com.ctrip.framework.apollo.biz.utils.ReleaseConfigurationsCodec;
 import com.ctrip.framework.apollo.common.entity.BaseEntity;
 
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
+import org.hibernate.proxy.HibernateProxy;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.JoinColumn;
 import javax.persistence.Lob;
+import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 
 /**
  * @author Jason Song(song_s@ctrip.com)
@@ -33,10 +39,27 @@ public class Release extends BaseEntity {
   @Column(name = "NamespaceName", nullable = false)
   private String namespaceName;
 
+  /**
+   * the stored configurations, which might be compressed, see {@link ReleaseConfigurationsCodec}.
+   * Empty if the configurations are stored in the payload.
+   */
   @Column(name = "Configurations", nullable = false)
   @Lob
   private String configurations;
 
+  //the decompressed configurations, decompress once per loaded entity
+  @Transient
+  private volatile String decompressedConfigurations;
+
+  /**
+   * the deduplicated configurations, null for the releases storing configurations inline.
+   * The column is always mapped, so the v1.5.1 to v1.6.0 config db delta is mandatory.
+   * Lazy, the finders reading the configurations fetch it in the same query, see ReleaseRepository.
+   */
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "PayloadHash")
+  private ReleasePayload payload;
+
   @Column(name = "Comment", nullable = false)
   private String comment;
 
@@ -60,7 +83,60 @@ public class Release extends BaseEntity {
   }
 
   public String getConfigurations() {
-    return configurations;
+    if (payload != null) {
+      return payload.getDecompressedContent();
+    }
+    String result = decompressedConfigurations;
+    if (result == null && configurations != null) {
+      result = ReleaseConfigurationsCodec.decompress(configurations);
+      decompressedConfigurations = result;
+    }
+    return result;
+  }
+
+  /**
+   * @return whether the configurations are stored compressed
+   */
+  public boolean isConfigurationsCompressed() {
+    String stored = payload != null ? payload.getContent() : configurations;
+    return stored != null && ReleaseConfigurationsCodec.isCompressed(stored);
+  }
+
+  public ReleasePayload getPayload() {
+    return payload;
+  }
+
+  /**
+   * @return the hash of the payload, or null if the configurations are stored inline
+   */
+  public String getPayloadHash() {
+    if (payload instanceof HibernateProxy) {
+      //don't load the content just for the hash
+      return (String) ((HibernateProxy) payload).getHibernateLazyInitializer().getIdentifier();
+    }
+    return payload == null ? null : payload.getHash();
+  }
+
+  /**
+   * Store the configurations in the payload instead of inline
+   */
+  public void setPayload(ReleasePayload payload) {
+    this.payload = payload;
+    this.configurations = "";
+    this.decompressedConfigurations = null;
+  }
+
+  /**
+   * Store the configurations compressed, the configurations returned by {@link #getConfigurations()} are not affected
+   */
+  public void compressConfigurations() {
+    //payloads are compressed when they are created
+    if (payload != null) {
+      return;
+    }
+    String decompressed = getConfigurations();
+    this.configurations = ReleaseConfigurationsCodec.compress(decompressed);
+    this.decompressedConfigurations = decompressed;
   }
 
   public String getNamespaceName() {
@@ -89,6 +165,8 @@ public class Release extends BaseEntity {
 
   public void setConfigurations(String configurations) {
     this.configurations = configurations;
+    this.decompressedConfigurations = null;
+    this.payload = null;
   }
 
   public void setNamespaceName(String namespaceName) {
@@ -109,7 +187,7 @@ public class Release extends BaseEntity {
 
   public String toString() {
     return toStringHelper().add("name", name).add("appId", appId).add("clusterName", clusterName)
-        .add("namespaceName", namespaceName).add("configurations", configurations)
+        .add("namespaceName", namespaceName).add("configurations", getConfigurations()).add("payloadHash", getPayloadHash())
         .add("comment", comment).add("isAbandoned", isAbandoned).toString();
   }
 }
@@ -0,0 +1,88 @@
+package com.ctrip.framework.apollo.biz.entity;
+
+import com.ctrip.framework.apollo.biz.utils.ReleaseConfigurationsCodec;
+import com.google.common.base.MoreObjects;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.PrePersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+/**
+ * The release configurations stored by content hash, releases with identical configurations share the same payload.
+ *
+ * Payloads are immutable, they are purged by the release purge job once no release references them.
+ */
+@Entity
+@Table(name = "ReleasePayload")
+public class ReleasePayload {
+  /**
+   * the sha256 hex of the json configurations
+   */
+  @Id
+  @Column(name = "Hash", length = 64)
+  private String hash;
+
+  /**
+   * the stored configurations, which might be compressed, see {@link ReleaseConfigurationsCodec}
+   */
+  @Column(name = "Content", nullable = false)
+  @Lob
+  private String content;
+
+  //the decompressed configurations, shared by all the releases referencing this payload instance
+  @Transient
+  private volatile String decompressedContent;
+
+  @Column(name = "DataChange_CreatedTime")
+  private Date dataChangeCreatedTime;
+
+  @PrePersist
+  protected void prePersist() {
+    if (this.dataChangeCreatedTime == null) {
+      dataChangeCreatedTime = new Date();
+    }
+  }
+
+  public ReleasePayload() {
+  }
+
+  public ReleasePayload(String hash, String content) {
+    this.hash = hash;
+    this.content = content;
+  }
+
+  public String getHash() {
+    return hash;
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  /**
+   * @return the json configurations
+   */
+  public String getDecompressedContent() {
+    String result = decompressedContent;
+    if (result == null && content != null) {
+      result = ReleaseConfigurationsCodec.decompress(content);
+      decompressedContent = result;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .omitNullValues()
+        .add("hash", hash)
+        .add("dataChangeCreatedTime", dataChangeCreatedTime)
+        .toString();
+  }
+}
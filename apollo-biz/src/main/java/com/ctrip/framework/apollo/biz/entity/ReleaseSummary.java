@@ -0,0 +1,87 @@
+package com.ctrip.framework.apollo.biz.entity;
+
+import java.util.Date;
+
+/**
+ * The metadata of a {@link Release}, loaded without the configurations
+ */
+public class ReleaseSummary {
+  private final long id;
+  private final String releaseKey;
+  private final String name;
+  private final String appId;
+  private final String clusterName;
+  private final String namespaceName;
+  private final String comment;
+  private final boolean isAbandoned;
+  private final String dataChangeCreatedBy;
+  private final Date dataChangeCreatedTime;
+  private final String dataChangeLastModifiedBy;
+  private final Date dataChangeLastModifiedTime;
+
+  public ReleaseSummary(long id, String releaseKey, String name, String appId, String clusterName,
+                        String namespaceName, String comment, boolean isAbandoned, String dataChangeCreatedBy,
+                        Date dataChangeCreatedTime, String dataChangeLastModifiedBy,
+                        Date dataChangeLastModifiedTime) {
+    this.id = id;
+    this.releaseKey = releaseKey;
+    this.name = name;
+    this.appId = appId;
+    this.clusterName = clusterName;
+    this.namespaceName = namespaceName;
+    this.comment = comment;
+    this.isAbandoned = isAbandoned;
+    this.dataChangeCreatedBy = dataChangeCreatedBy;
+    this.dataChangeCreatedTime = dataChangeCreatedTime;
+    this.dataChangeLastModifiedBy = dataChangeLastModifiedBy;
+    this.dataChangeLastModifiedTime = dataChangeLastModifiedTime;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public String getReleaseKey() {
+    return releaseKey;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getAppId() {
+    return appId;
+  }
+
+  public String getClusterName() {
+    return clusterName;
+  }
+
+  public String getNamespaceName() {
+    return namespaceName;
+  }
+
+  public String getComment() {
+    return comment;
+  }
+
+  public boolean isAbandoned() {
+    return isAbandoned;
+  }
+
+  public String getDataChangeCreatedBy() {
+    return dataChangeCreatedBy;
+  }
+
+  public Date getDataChangeCreatedTime() {
+    return dataChangeCreatedTime;
+  }
+
+  public String getDataChangeLastModifiedBy() {
+    return dataChangeLastModifiedBy;
+  }
+
+  public Date getDataChangeLastModifiedTime() {
+    return dataChangeLastModifiedTime;
+  }
+}
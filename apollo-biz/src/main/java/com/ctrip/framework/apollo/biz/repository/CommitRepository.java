@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommitRepository extends PagingAndSortingRepository<Commit, Long> {
@@ -14,8 +15,28 @@ public interface CommitRepository extends PagingAndSortingRepository<Commit, Lon
   List<Commit> findByAppIdAndClusterNameAndNamespaceNameOrderByIdDesc(String appId, String clusterName,
                                                                       String namespaceName, Pageable pageable);
 
+  List<Commit> findByAppIdAndClusterNameAndNamespaceNameAndIdLessThanOrderByIdDesc(String appId, String clusterName,
+      String namespaceName, long id, Pageable pageable);
+
+  @Query("select c.id from Commit c where c.appId = ?1 and c.clusterName = ?2 and c.namespaceName = ?3 "
+      + "order by c.id desc")
+  List<Long> findIdsByNamespace(String appId, String clusterName, String namespaceName, Pageable pageable);
+
+  @Query("select c.id from Commit c where c.appId = ?1 and c.clusterName = ?2 and c.namespaceName = ?3 "
+      + "and c.id <= ?4 order by c.id asc")
+  List<Long> findIdsByNamespaceAndIdLessThanEqual(String appId, String clusterName, String namespaceName,
+                                                  long maxId, Pageable pageable);
+
+  @Modifying
+  @Query("delete from Commit where id in ?1")
+  int deleteByIds(Collection<Long> ids);
+
   @Modifying
   @Query("update Commit set isdeleted=1,DataChange_LastModifiedBy = ?4 where appId=?1 and clusterName=?2 and namespaceName = ?3")
   int batchDelete(String appId, String clusterName, String namespaceName, String operator);
 
+  @Modifying
+  @Query("update Commit set isdeleted=1,DataChange_LastModifiedBy = ?3 where appId=?1 and clusterName=?2")
+  int batchDelete(String appId, String clusterName, String operator);
+
 }
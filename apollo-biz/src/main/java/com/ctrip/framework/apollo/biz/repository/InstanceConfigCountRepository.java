@@ -0,0 +1,36 @@
+package com.ctrip.framework.apollo.biz.repository;
+
+import com.ctrip.framework.apollo.biz.entity.InstanceConfigCount;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+
+public interface InstanceConfigCountRepository extends PagingAndSortingRepository<InstanceConfigCount, Long> {
+
+  List<InstanceConfigCount> findByConfigAppIdAndConfigClusterNameAndConfigNamespaceName(String appId,
+      String clusterName, String namespaceName);
+
+  @Query("select sum(c.instanceCount) from InstanceConfigCount c where c.configAppId = :appId "
+      + "and c.configClusterName = :clusterName and c.configNamespaceName = :namespaceName")
+  Long sumByNamespace(@Param("appId") String appId, @Param("clusterName") String clusterName,
+      @Param("namespaceName") String namespaceName);
+
+  @Modifying
+  @Query(value = "INSERT INTO InstanceConfigCount (ConfigAppId, ConfigClusterName, ConfigNamespaceName, ReleaseKey, "
+      + "InstanceCount, DataChange_LastTime) "
+      + "VALUES (:appId, :clusterName, :namespaceName, :releaseKey, :instanceCount, :time) "
+      + "ON DUPLICATE KEY UPDATE InstanceCount = :instanceCount, DataChange_LastTime = :time",
+      nativeQuery = true)
+  int save(@Param("appId") String appId, @Param("clusterName") String clusterName,
+      @Param("namespaceName") String namespaceName, @Param("releaseKey") String releaseKey,
+      @Param("instanceCount") long instanceCount, @Param("time") Date time);
+
+  @Modifying
+  @Query("delete from InstanceConfigCount where dataChangeLastModifiedTime < ?1")
+  int deleteByDataChangeLastModifiedTimeBefore(Date time);
+}
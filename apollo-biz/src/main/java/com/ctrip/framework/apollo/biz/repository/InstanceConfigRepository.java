@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -21,16 +22,47 @@ public interface InstanceConfigRepository extends PagingAndSortingRepository<Ins
   Page<InstanceConfig> findByReleaseKeyAndDataChangeLastModifiedTimeAfter(String releaseKey, Date
       validDate, Pageable pageable);
 
+  List<InstanceConfig> findByReleaseKeyAndDataChangeLastModifiedTimeAfterAndInstanceIdGreaterThanOrderByInstanceIdAsc(
+      String releaseKey, Date validDate, long instanceId, Pageable pageable);
+
   Page<InstanceConfig> findByConfigAppIdAndConfigClusterNameAndConfigNamespaceNameAndDataChangeLastModifiedTimeAfter(
       String appId, String clusterName, String namespaceName, Date validDate, Pageable pageable);
 
+  List<InstanceConfig> findByConfigAppIdAndConfigClusterNameAndConfigNamespaceNameAndDataChangeLastModifiedTimeAfterAndInstanceIdGreaterThanOrderByInstanceIdAsc(
+      String appId, String clusterName, String namespaceName, Date validDate, long instanceId, Pageable pageable);
+
   List<InstanceConfig> findByConfigAppIdAndConfigClusterNameAndConfigNamespaceNameAndDataChangeLastModifiedTimeAfterAndReleaseKeyNotIn(
       String appId, String clusterName, String namespaceName, Date validDate, Set<String> releaseKey);
 
+  @Query("select c.configAppId, c.configClusterName, c.configNamespaceName, count(c) from InstanceConfig c " +
+      "where c.dataChangeLastModifiedTime > :validDate " +
+      "group by c.configAppId, c.configClusterName, c.configNamespaceName order by count(c) desc")
+  List<Object[]> findMostUsedNamespaces(@Param("validDate") Date validDate, Pageable pageable);
+
   @Modifying
   @Query("delete from InstanceConfig  where ConfigAppId=?1 and ConfigClusterName=?2 and ConfigNamespaceName = ?3")
   int batchDelete(String appId, String clusterName, String namespaceName);
 
+  @Modifying
+  @Query("delete from InstanceConfig  where ConfigAppId=?1 and ConfigClusterName=?2")
+  int batchDelete(String appId, String clusterName);
+
+  @Query("select c.id from InstanceConfig c where c.dataChangeLastModifiedTime < :time")
+  List<Long> findIdsByDataChangeLastModifiedTimeBefore(@Param("time") Date time, Pageable pageable);
+
+  @Query("select c.configAppId, c.configClusterName, c.configNamespaceName, c.releaseKey, count(c) " +
+      "from InstanceConfig c where c.id > :fromId and c.id <= :toId and c.dataChangeLastModifiedTime > :validDate " +
+      "group by c.configAppId, c.configClusterName, c.configNamespaceName, c.releaseKey")
+  List<Object[]> countByReleaseKeyAndIdBetween(@Param("fromId") long fromId, @Param("toId") long toId,
+      @Param("validDate") Date validDate);
+
+  @Query("select coalesce(max(c.id), 0) from InstanceConfig c")
+  long findMaxId();
+
+  @Modifying
+  @Query("delete from InstanceConfig where id in :ids")
+  int deleteByIds(@Param("ids") Collection<Long> ids);
+
   @Query(
       value = "select b.Id from `InstanceConfig` a inner join `Instance` b on b.Id =" +
           " a.`InstanceId` where a.`ConfigAppId` = :configAppId and a.`ConfigClusterName` = " +
@@ -45,4 +77,15 @@ public interface InstanceConfigRepository extends PagingAndSortingRepository<Ins
       @Param("instanceAppId") String instanceAppId, @Param("configAppId") String configAppId,
       @Param("clusterName") String clusterName, @Param("namespaceName") String namespaceName,
       @Param("validDate") Date validDate, Pageable pageable);
+
+  @Query(
+      value = "select b.Id from `InstanceConfig` a inner join `Instance` b on b.Id =" +
+          " a.`InstanceId` where a.`ConfigAppId` = :configAppId and a.`ConfigClusterName` = " +
+          ":clusterName and a.`ConfigNamespaceName` = :namespaceName and a.`DataChange_LastTime` " +
+          "> :validDate and b.`AppId` = :instanceAppId and b.`Id` > :instanceId order by b.`Id`",
+      nativeQuery = true)
+  List<Object> findInstanceIdsByNamespaceAndInstanceAppIdAfter(
+      @Param("instanceAppId") String instanceAppId, @Param("configAppId") String configAppId,
+      @Param("clusterName") String clusterName, @Param("namespaceName") String namespaceName,
+      @Param("validDate") Date validDate, @Param("instanceId") long instanceId, Pageable pageable);
 }
@@ -2,8 +2,25 @@ package com.ctrip.framework.apollo.biz.repository;
 
 import com.ctrip.framework.apollo.biz.entity.Instance;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 
 public interface InstanceRepository extends PagingAndSortingRepository<Instance, Long> {
   Instance findByAppIdAndClusterNameAndDataCenterAndIp(String appId, String clusterName, String dataCenter, String ip);
+
+  @Query("select i.id from Instance i where i.dataChangeLastModifiedTime < :time "
+      + "and not exists (select c.id from InstanceConfig c where c.instanceId = i.id)")
+  List<Long> findIdsWithoutInstanceConfigsByDataChangeLastModifiedTimeBefore(@Param("time") Date time,
+      Pageable pageable);
+
+  @Modifying
+  @Query("delete from Instance where id in :ids")
+  int deleteByIds(@Param("ids") Collection<Long> ids);
 }
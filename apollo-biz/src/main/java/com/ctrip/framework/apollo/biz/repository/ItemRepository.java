@@ -6,10 +6,11 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
-public interface ItemRepository extends PagingAndSortingRepository<Item, Long> {
+public interface ItemRepository extends PagingAndSortingRepository<Item, Long>, ItemRepositoryCustom {
 
   Item findByNamespaceIdAndKey(Long namespaceId, String key);
 
@@ -21,8 +22,17 @@ public interface ItemRepository extends PagingAndSortingRepository<Item, Long> {
 
   Item findFirst1ByNamespaceIdOrderByLineNumDesc(Long namespaceId);
 
+  List<Item> findByNamespaceIdInAndIdGreaterThanOrderByIdAsc(Collection<Long> namespaceIds, long id);
+
+  @Query("select coalesce(max(i.id), 0) from Item i")
+  long findMaxId();
+
   @Modifying
   @Query("update Item set isdeleted=1,DataChange_LastModifiedBy = ?2 where namespaceId = ?1")
   int deleteByNamespaceId(long namespaceId, String operator);
 
+  @Modifying
+  @Query("update Item set isdeleted=1,DataChange_LastModifiedBy = ?2 where namespaceId in ?1")
+  int deleteByNamespaceIds(Collection<Long> namespaceIds, String operator);
+
 }
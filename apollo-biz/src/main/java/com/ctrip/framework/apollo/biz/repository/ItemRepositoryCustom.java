@@ -0,0 +1,14 @@
+package com.ctrip.framework.apollo.biz.repository;
+
+import com.ctrip.framework.apollo.biz.entity.Item;
+
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+
+  /**
+   * Insert the items in one jdbc batch, which hibernate can't do for the identity ids.
+   * The ids of the items are not populated, the inserted items need to be loaded again if needed.
+   */
+  int[] batchInsert(List<Item> items);
+}
@@ -0,0 +1,51 @@
+package com.ctrip.framework.apollo.biz.repository;
+
+import com.ctrip.framework.apollo.biz.entity.Item;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+  private static final String INSERT_ITEM_SQL = "INSERT INTO Item (NamespaceId, `Key`, Value, Comment, LineNum, "
+      + "IsDeleted, DataChange_CreatedBy, DataChange_CreatedTime, DataChange_LastModifiedBy, DataChange_LastTime) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public ItemRepositoryImpl(final DataSource dataSource) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  @Override
+  public int[] batchInsert(List<Item> items) {
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    return jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, new BatchPreparedStatementSetter() {
+      @Override
+      public void setValues(PreparedStatement statement, int i) throws SQLException {
+        Item item = items.get(i);
+        statement.setLong(1, item.getNamespaceId());
+        statement.setString(2, item.getKey());
+        statement.setString(3, item.getValue());
+        statement.setString(4, item.getComment());
+        statement.setInt(5, item.getLineNum());
+        statement.setBoolean(6, false);
+        statement.setString(7, item.getDataChangeCreatedBy());
+        statement.setTimestamp(8, now);
+        statement.setString(9, item.getDataChangeLastModifiedBy());
+        statement.setTimestamp(10, now);
+      }
+
+      @Override
+      public int getBatchSize() {
+        return items.size();
+      }
+    });
+  }
+}
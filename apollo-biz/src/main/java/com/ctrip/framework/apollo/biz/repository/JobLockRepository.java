@@ -0,0 +1,32 @@
+package com.ctrip.framework.apollo.biz.repository;
+
+import com.ctrip.framework.apollo.biz.entity.JobLock;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+
+public interface JobLockRepository extends PagingAndSortingRepository<JobLock, String> {
+
+  @Modifying
+  @Query("update JobLock set owner = :owner, expireTime = :expireTime where name = :name "
+      + "and (owner = :owner or expireTime <= :now)")
+  int acquire(@Param("name") String name, @Param("owner") String owner, @Param("expireTime") Date expireTime,
+      @Param("now") Date now);
+
+  /**
+   * Insert instead of save, as saving an entity with assigned id merges into the row created by another node
+   */
+  @Modifying
+  @Query(value = "INSERT INTO JobLock (Name, Owner, ExpireTime, DataChange_LastTime) "
+      + "VALUES (:name, :owner, :expireTime, :now)", nativeQuery = true)
+  int create(@Param("name") String name, @Param("owner") String owner, @Param("expireTime") Date expireTime,
+      @Param("now") Date now);
+
+  @Modifying
+  @Query("update JobLock set expireTime = :now where name = :name and owner = :owner")
+  int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Date now);
+}
@@ -2,12 +2,20 @@ package com.ctrip.framework.apollo.biz.repository;
 
 import com.ctrip.framework.apollo.biz.entity.NamespaceLock;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import java.util.Collection;
+
 public interface NamespaceLockRepository extends PagingAndSortingRepository<NamespaceLock, Long> {
 
   NamespaceLock findByNamespaceId(Long namespaceId);
 
   Long deleteByNamespaceId(Long namespaceId);
 
+  @Modifying
+  @Query("delete from NamespaceLock where namespaceId in ?1")
+  int deleteByNamespaceIds(Collection<Long> namespaceIds);
+
 }
@@ -6,10 +6,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface NamespaceRepository extends PagingAndSortingRepository<Namespace, Long> {
+public interface NamespaceRepository extends PagingAndSortingRepository<Namespace, Long>, NamespaceRepositoryCustom {
 
   List<Namespace> findByAppIdAndClusterNameOrderByIdAsc(String appId, String clusterName);
 
@@ -21,8 +23,31 @@ public interface NamespaceRepository extends PagingAndSortingRepository<Namespac
 
   List<Namespace> findByAppIdAndNamespaceNameOrderByIdAsc(String appId, String namespaceName);
 
+  List<Namespace> findFirst500ByIdGreaterThanOrderByIdAsc(long id);
+
+  List<Namespace> findByAppIdAndClusterNameInAndNamespaceNameIn(String appId, Collection<String> clusterNames,
+                                                                 Collection<String> namespaceNames);
+
   List<Namespace> findByNamespaceName(String namespaceName, Pageable page);
 
   int countByNamespaceNameAndAppIdNot(String namespaceName, String appId);
 
+  /**
+   * Find the namespaces having items modified after the latest active release, or having items but never released.
+   * Items modified back to the released values are also counted, so the namespaces found need to be double checked.
+   *
+   * The latest releases of the clusters are grouped once and joined, instead of looked up for each item.
+   */
+  @Query(value = "SELECT n.* FROM `Namespace` n "
+      + "LEFT JOIN (SELECT `AppId`, `ClusterName`, `NamespaceName`, MAX(`Id`) AS `Id` FROM `Release` "
+      + "WHERE `AppId` = :appId AND `ClusterName` IN (:clusterNames) AND `IsAbandoned` = 0 AND `IsDeleted` = 0 "
+      + "GROUP BY `AppId`, `ClusterName`, `NamespaceName`) lr ON lr.`AppId` = n.`AppId` "
+      + "AND lr.`ClusterName` = n.`ClusterName` AND lr.`NamespaceName` = n.`NamespaceName` "
+      + "LEFT JOIN `Release` r ON r.`Id` = lr.`Id` "
+      + "WHERE n.`AppId` = :appId AND n.`ClusterName` IN (:clusterNames) AND n.`IsDeleted` = 0 AND EXISTS ("
+      + "SELECT 1 FROM `Item` i WHERE i.`NamespaceId` = n.`Id` AND i.`IsDeleted` = 0 "
+      + "AND (r.`Id` IS NULL OR i.`DataChange_LastTime` > r.`DataChange_LastTime`))", nativeQuery = true)
+  List<Namespace> findNamespacesWithItemsModifiedAfterLatestRelease(@Param("appId") String appId,
+      @Param("clusterNames") Collection<String> clusterNames);
+
 }
@@ -0,0 +1,14 @@
+package com.ctrip.framework.apollo.biz.repository;
+
+import com.ctrip.framework.apollo.biz.entity.Namespace;
+
+import java.util.List;
+
+public interface NamespaceRepositoryCustom {
+
+  /**
+   * Insert the namespaces in one jdbc batch, which hibernate can't do for the identity ids.
+   * The ids of the namespaces are not populated, the inserted namespaces need to be loaded again if needed.
+   */
+  int[] batchInsert(List<Namespace> namespaces);
+}
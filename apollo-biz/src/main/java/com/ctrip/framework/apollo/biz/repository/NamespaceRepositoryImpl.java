@@ -0,0 +1,49 @@
+package com.ctrip.framework.apollo.biz.repository;
+
+import com.ctrip.framework.apollo.biz.entity.Namespace;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+public class NamespaceRepositoryImpl implements NamespaceRepositoryCustom {
+  private static final String INSERT_NAMESPACE_SQL = "INSERT INTO Namespace (AppId, ClusterName, NamespaceName, "
+      + "IsDeleted, DataChange_CreatedBy, DataChange_CreatedTime, DataChange_LastModifiedBy, DataChange_LastTime) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public NamespaceRepositoryImpl(final DataSource dataSource) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  @Override
+  public int[] batchInsert(List<Namespace> namespaces) {
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    return jdbcTemplate.batchUpdate(INSERT_NAMESPACE_SQL, new BatchPreparedStatementSetter() {
+      @Override
+      public void setValues(PreparedStatement statement, int i) throws SQLException {
+        Namespace namespace = namespaces.get(i);
+        statement.setString(1, namespace.getAppId());
+        statement.setString(2, namespace.getClusterName());
+        statement.setString(3, namespace.getNamespaceName());
+        statement.setBoolean(4, false);
+        statement.setString(5, namespace.getDataChangeCreatedBy());
+        statement.setTimestamp(6, now);
+        statement.setString(7, namespace.getDataChangeLastModifiedBy());
+        statement.setTimestamp(8, now);
+      }
+
+      @Override
+      public int getBatchSize() {
+        return namespaces.size();
+      }
+    });
+  }
+}
@@ -2,6 +2,8 @@ package com.ctrip.framework.apollo.biz.repository;
 
 import com.ctrip.framework.apollo.biz.entity.ReleaseHistory;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,14 +18,34 @@ public interface ReleaseHistoryRepository extends PagingAndSortingRepository<Rel
   Page<ReleaseHistory> findByAppIdAndClusterNameAndNamespaceNameOrderByIdDesc(String appId, String
       clusterName, String namespaceName, Pageable pageable);
 
+  List<ReleaseHistory> findByAppIdAndClusterNameAndNamespaceNameAndIdLessThanOrderByIdDesc(String appId,
+      String clusterName, String namespaceName, long id, Pageable pageable);
+
   Page<ReleaseHistory> findByReleaseIdAndOperationOrderByIdDesc(long releaseId, int operation, Pageable pageable);
 
   Page<ReleaseHistory> findByPreviousReleaseIdAndOperationOrderByIdDesc(long previousReleaseId, int operation, Pageable pageable);
 
   Page<ReleaseHistory> findByReleaseIdAndOperationInOrderByIdDesc(long releaseId, Set<Integer> operations, Pageable pageable);
 
+  @Query("select h.id from ReleaseHistory h where h.appId = ?1 and h.clusterName = ?2 and h.namespaceName = ?3 "
+      + "order by h.id desc")
+  List<Long> findIdsByNamespace(String appId, String clusterName, String namespaceName, Pageable pageable);
+
+  @Query("select h.id from ReleaseHistory h where h.appId = ?1 and h.clusterName = ?2 and h.namespaceName = ?3 "
+      + "and h.id <= ?4 order by h.id asc")
+  List<Long> findIdsByNamespaceAndIdLessThanEqual(String appId, String clusterName, String namespaceName,
+                                                  long maxId, Pageable pageable);
+
+  @Modifying
+  @Query("delete from ReleaseHistory where id in ?1")
+  int deleteByIds(Collection<Long> ids);
+
   @Modifying
   @Query("update ReleaseHistory set isdeleted=1,DataChange_LastModifiedBy = ?4 where appId=?1 and clusterName=?2 and namespaceName = ?3")
   int batchDelete(String appId, String clusterName, String namespaceName, String operator);
 
+  @Modifying
+  @Query("update ReleaseHistory set isdeleted=1,DataChange_LastModifiedBy = ?3 where appId=?1 and clusterName=?2")
+  int batchDelete(String appId, String clusterName, String operator);
+
 }
@@ -2,11 +2,13 @@ package com.ctrip.framework.apollo.biz.repository;
 
 import com.ctrip.framework.apollo.biz.entity.ReleaseMessage;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -23,4 +25,14 @@ public interface ReleaseMessageRepository extends PagingAndSortingRepository<Rel
 
   @Query("select message, max(id) as id from ReleaseMessage where message in :messages group by message")
   List<Object[]> findLatestReleaseMessagesGroupByMessages(@Param("messages") Collection<String> messages);
+
+  ReleaseMessage findTopByDataChangeLastModifiedTimeLessThanOrderByIdDesc(Date time);
+
+  @Modifying
+  @Query("delete from ReleaseMessage where id in :ids")
+  int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Modifying
+  @Query("delete from ReleaseMessage where message in :messages and id < :id")
+  int deleteByMessageInAndIdLessThan(@Param("messages") Collection<String> messages, @Param("id") long id);
 }
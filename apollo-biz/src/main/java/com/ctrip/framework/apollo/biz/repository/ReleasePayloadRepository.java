@@ -0,0 +1,49 @@
+package com.ctrip.framework.apollo.biz.repository;
+
+import com.ctrip.framework.apollo.biz.entity.ReleasePayload;
+
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+public interface ReleasePayloadRepository extends PagingAndSortingRepository<ReleasePayload, String> {
+
+  /**
+   * Inserts the payload, or does nothing if the same content was inserted by others
+   */
+  @Modifying
+  @Query(value = "INSERT INTO ReleasePayload (Hash, Content, DataChange_CreatedTime) VALUES (:hash, :content, :now) "
+      + "ON DUPLICATE KEY UPDATE Hash = Hash", nativeQuery = true)
+  int insertIfAbsent(@Param("hash") String hash, @Param("content") String content, @Param("now") Date now);
+
+  /**
+   * A locking read, which sees the payloads committed by others after the current transaction started
+   */
+  @Lock(LockModeType.PESSIMISTIC_READ)
+  @Query("select p from ReleasePayload p where p.hash = :hash")
+  ReleasePayload findByHashForShare(@Param("hash") String hash);
+
+  /**
+   * The payloads not referenced by any release, including the deleted ones
+   */
+  @Query(value = "SELECT p.`Hash` FROM `ReleasePayload` p WHERE NOT EXISTS "
+      + "(SELECT 1 FROM `Release` r WHERE r.`PayloadHash` = p.`Hash`) LIMIT :limit", nativeQuery = true)
+  List<String> findOrphanHashes(@Param("limit") int limit);
+
+  /**
+   * Deletes the payloads still not referenced, the check locks the releases, so a release being published with the
+   * payload either keeps it or sees it gone
+   */
+  @Modifying
+  @Query(value = "DELETE FROM `ReleasePayload` WHERE `Hash` IN (:hashes) AND NOT EXISTS "
+      + "(SELECT 1 FROM `Release` r WHERE r.`PayloadHash` = `ReleasePayload`.`Hash`)", nativeQuery = true)
+  int deleteOrphansByHashIn(@Param("hashes") Collection<String> hashes);
+}
@@ -1,38 +1,105 @@
 package com.ctrip.framework.apollo.biz.repository;
 
 import com.ctrip.framework.apollo.biz.entity.Release;
+import com.ctrip.framework.apollo.biz.entity.ReleaseSummary;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
+ * The finders returning releases fetch the payload in the same query, since the configurations are read from it.
+ * Use the summaries when the configurations are not needed.
+ *
  * @author Jason Song(song_s@ctrip.com)
  */
 public interface ReleaseRepository extends PagingAndSortingRepository<Release, Long> {
+  String SELECT_RELEASE_SUMMARY = "select new com.ctrip.framework.apollo.biz.entity.ReleaseSummary(r.id, r.releaseKey, "
+      + "r.name, r.appId, r.clusterName, r.namespaceName, r.comment, r.isAbandoned, r.dataChangeCreatedBy, "
+      + "r.dataChangeCreatedTime, r.dataChangeLastModifiedBy, r.dataChangeLastModifiedTime) from Release r ";
 
+  @EntityGraph(attributePaths = "payload")
+  @Override
+  Optional<Release> findById(Long id);
+
+  @EntityGraph(attributePaths = "payload")
+  @Override
+  Iterable<Release> findAllById(Iterable<Long> ids);
+
+  @EntityGraph(attributePaths = "payload")
   Release findFirstByAppIdAndClusterNameAndNamespaceNameAndIsAbandonedFalseOrderByIdDesc(@Param("appId") String appId, @Param("clusterName") String clusterName,
                                                                                          @Param("namespaceName") String namespaceName);
 
+  @EntityGraph(attributePaths = "payload")
   Release findByIdAndIsAbandonedFalse(long id);
 
+  @EntityGraph(attributePaths = "payload")
   List<Release> findByAppIdAndClusterNameAndNamespaceNameOrderByIdDesc(String appId, String clusterName, String namespaceName, Pageable page);
 
+  @EntityGraph(attributePaths = "payload")
   List<Release> findByAppIdAndClusterNameAndNamespaceNameAndIsAbandonedFalseOrderByIdDesc(String appId, String clusterName, String namespaceName, Pageable page);
 
+  @EntityGraph(attributePaths = "payload")
   List<Release> findByReleaseKeyIn(Set<String> releaseKey);
 
+  @EntityGraph(attributePaths = "payload")
   List<Release> findByIdIn(Set<Long> releaseIds);
 
+  @Query(SELECT_RELEASE_SUMMARY + "where r.appId = ?1 and r.clusterName = ?2 and r.namespaceName = ?3 order by r.id desc")
+  List<ReleaseSummary> findSummariesByNamespace(String appId, String clusterName, String namespaceName, Pageable page);
+
+  @Query(SELECT_RELEASE_SUMMARY + "where r.appId = ?1 and r.clusterName = ?2 and r.namespaceName = ?3 "
+      + "and r.isAbandoned = false order by r.id desc")
+  List<ReleaseSummary> findActiveSummariesByNamespace(String appId, String clusterName, String namespaceName,
+                                                      Pageable page);
+
+  @Query(SELECT_RELEASE_SUMMARY + "where r.releaseKey in ?1")
+  List<ReleaseSummary> findSummariesByReleaseKeyIn(Set<String> releaseKeys);
+
+  @Query(SELECT_RELEASE_SUMMARY + "where r.id = ?1")
+  ReleaseSummary findSummaryById(long releaseId);
+
+  @Query(SELECT_RELEASE_SUMMARY + "where r.id in ?1")
+  List<ReleaseSummary> findSummariesByIdIn(Set<Long> releaseIds);
+
   @Modifying
   @Query("update Release set isdeleted=1,DataChange_LastModifiedBy = ?4 where appId=?1 and clusterName=?2 and namespaceName = ?3")
   int batchDelete(String appId, String clusterName, String namespaceName, String operator);
 
+  @Modifying
+  @Query("update Release set isdeleted=1,DataChange_LastModifiedBy = ?3 where appId=?1 and clusterName=?2")
+  int batchDelete(String appId, String clusterName, String operator);
+
+  @Query("select r.id from Release r where r.appId = ?1 and r.clusterName = ?2 and r.namespaceName = ?3 "
+      + "order by r.id desc")
+  List<Long> findIdsByNamespace(String appId, String clusterName, String namespaceName, Pageable page);
+
+  /**
+   * The releases referenced by release histories, as the release or the previous release, gray release rules or
+   * instance configs are excluded
+   */
+  @Query("select r.id from Release r where r.appId = ?1 and r.clusterName = ?2 and r.namespaceName = ?3 "
+      + "and r.id <= ?4 and r.id <> ?5 "
+      + "and not exists (select h.id from ReleaseHistory h where h.releaseId = r.id) "
+      + "and not exists (select h.id from ReleaseHistory h where h.previousReleaseId = r.id) "
+      + "and not exists (select g.id from GrayReleaseRule g where g.releaseId = r.id) "
+      + "and not exists (select c.id from InstanceConfig c where c.releaseKey = r.releaseKey) order by r.id asc")
+  List<Long> findIdsToPurge(String appId, String clusterName, String namespaceName, long maxId,
+                            long activeReleaseId, Pageable page);
+
+  @Modifying
+  @Query("delete from Release where id in ?1")
+  int deleteByIds(Collection<Long> ids);
+
   // For release history conversion program, need to delete after conversion it done
+  @EntityGraph(attributePaths = "payload")
   List<Release> findByAppIdAndClusterNameAndNamespaceNameOrderByIdAsc(String appId, String clusterName, String namespaceName);
 }
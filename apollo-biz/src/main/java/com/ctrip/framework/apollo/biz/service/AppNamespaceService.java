@@ -1,5 +1,6 @@
 package com.ctrip.framework.apollo.biz.service;
 
+import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.biz.entity.Audit;
 import com.ctrip.framework.apollo.biz.entity.Cluster;
 import com.ctrip.framework.apollo.biz.entity.Namespace;
@@ -19,9 +20,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class AppNamespaceService {
@@ -32,16 +35,19 @@ public class AppNamespaceService {
   private final NamespaceService namespaceService;
   private final ClusterService clusterService;
   private final AuditService auditService;
+  private final MetadataCache<AppNamespace> appNamespaceCache;
 
   public AppNamespaceService(
       final AppNamespaceRepository appNamespaceRepository,
       final @Lazy NamespaceService namespaceService,
       final @Lazy ClusterService clusterService,
-      final AuditService auditService) {
+      final AuditService auditService,
+      final BizConfig bizConfig) {
     this.appNamespaceRepository = appNamespaceRepository;
     this.namespaceService = namespaceService;
     this.clusterService = clusterService;
     this.auditService = auditService;
+    this.appNamespaceCache = new MetadataCache<>(AppNamespace.class, bizConfig);
   }
 
   public boolean isAppNamespaceNameUnique(String appId, String namespaceName) {
@@ -74,7 +80,8 @@ public class AppNamespaceService {
   public AppNamespace findOne(String appId, String namespaceName) {
     Preconditions
         .checkArgument(!StringUtils.isContainEmpty(appId, namespaceName), "appId or Namespace must not be null");
-    return appNamespaceRepository.findByAppIdAndName(appId, namespaceName);
+    return appNamespaceCache.get(() -> appNamespaceRepository.findByAppIdAndName(appId, namespaceName), appId,
+                                 namespaceName);
   }
 
   public List<AppNamespace> findByAppIdAndNamespaces(String appId, Set<String> namespaceNames) {
@@ -125,6 +132,7 @@ public class AppNamespaceService {
     AppNamespace managedNs = appNamespaceRepository.findByAppIdAndName(appNamespace.getAppId(), appNamespace.getName());
     BeanUtils.copyEntityProperties(appNamespace, managedNs);
     managedNs = appNamespaceRepository.save(managedNs);
+    appNamespaceCache.evict(managedNs.getAppId(), managedNs.getName());
 
     auditService.audit(AppNamespace.class.getSimpleName(), managedNs.getId(), Audit.OP.UPDATE,
                        managedNs.getDataChangeLastModifiedBy());
@@ -135,27 +143,19 @@ public class AppNamespaceService {
   public void createNamespaceForAppNamespaceInAllCluster(String appId, String namespaceName, String createBy) {
     List<Cluster> clusters = clusterService.findParentClusters(appId);
 
-    for (Cluster cluster : clusters) {
+    Set<String> clusterNames = clusters.stream().map(Cluster::getName)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
 
-      // in case there is some dirty data, e.g. public namespace deleted in other app and now created in this app
-      if (!namespaceService.isNamespaceUnique(appId, cluster.getName(), namespaceName)) {
-        continue;
-      }
-
-      Namespace namespace = new Namespace();
-      namespace.setClusterName(cluster.getName());
-      namespace.setAppId(appId);
-      namespace.setNamespaceName(namespaceName);
-      namespace.setDataChangeCreatedBy(createBy);
-      namespace.setDataChangeLastModifiedBy(createBy);
-
-      namespaceService.save(namespace);
-    }
+    // the existing namespaces are skipped, in case there is some dirty data, e.g. public namespace deleted in other app
+    // and now created in this app
+    namespaceService.batchCreate(appId, clusterNames, Collections.singleton(namespaceName), createBy);
   }
 
   @Transactional
   public void batchDelete(String appId, String operator) {
     appNamespaceRepository.batchDeleteByAppId(appId, operator);
+    //apps are rarely deleted, so there is no need to find the app namespaces to evict
+    appNamespaceCache.evictAll();
   }
 
   @Transactional
@@ -176,5 +176,6 @@ public class AppNamespaceService {
 
     // 2. delete app namespace
     appNamespaceRepository.delete(appId, namespaceName, operator);
+    appNamespaceCache.evict(appId, namespaceName);
   }
 }
@@ -1,5 +1,6 @@
 package com.ctrip.framework.apollo.biz.service;
 
+import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.biz.entity.Audit;
 import com.ctrip.framework.apollo.biz.repository.AppRepository;
 import com.ctrip.framework.apollo.common.entity.App;
@@ -18,10 +19,12 @@ public class AppService {
 
   private final AppRepository appRepository;
   private final AuditService auditService;
+  private final MetadataCache<App> appCache;
 
-  public AppService(final AppRepository appRepository, final AuditService auditService) {
+  public AppService(final AppRepository appRepository, final AuditService auditService, final BizConfig bizConfig) {
     this.appRepository = appRepository;
     this.auditService = auditService;
+    this.appCache = new MetadataCache<>(App.class, bizConfig);
   }
 
   public boolean isAppIdUnique(String appId) {
@@ -39,6 +42,7 @@ public class AppService {
     app.setDeleted(true);
     app.setDataChangeLastModifiedBy(operator);
     appRepository.save(app);
+    appCache.evict(app.getAppId());
 
     auditService.audit(App.class.getSimpleName(), id, Audit.OP.DELETE, operator);
   }
@@ -53,7 +57,7 @@ public class AppService {
   }
 
   public App findOne(String appId) {
-    return appRepository.findByAppId(appId);
+    return appCache.get(() -> appRepository.findByAppId(appId), appId);
   }
 
   @Transactional
@@ -87,6 +91,7 @@ public class AppService {
     managedApp.setDataChangeLastModifiedBy(app.getDataChangeLastModifiedBy());
 
     managedApp = appRepository.save(managedApp);
+    appCache.evict(appId);
 
     auditService.audit(App.class.getSimpleName(), managedApp.getId(), Audit.OP.UPDATE,
         managedApp.getDataChangeLastModifiedBy());
@@ -0,0 +1,135 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.Audit;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Buffers the audits in a bounded queue and writes them in jdbc batches in background.
+ *
+ * The buffered audits are flushed on shutdown, so only the audits buffered when the process crashes are lost.
+ */
+@Component
+class AsyncAuditWriter {
+  private static final Logger logger = LoggerFactory.getLogger(AsyncAuditWriter.class);
+  private static final String INSERT_AUDIT_SQL = "INSERT INTO Audit (EntityName, EntityId, OpName, Comment, IsDeleted, "
+      + "DataChange_CreatedBy, DataChange_CreatedTime, DataChange_LastModifiedBy, DataChange_LastTime) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final int SHUTDOWN_TIMEOUT_IN_SECOND = 5;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final BizConfig bizConfig;
+  private final BlockingQueue<Audit> queue;
+  private final ExecutorService executorService;
+  private final AtomicBoolean stopped;
+  //offers hold the read lock, so none of them is still adding to the queue once stop holds the write lock
+  private final ReadWriteLock stopLock;
+
+  public AsyncAuditWriter(final DataSource dataSource, final BizConfig bizConfig) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.bizConfig = bizConfig;
+    this.queue = Queues.newLinkedBlockingQueue(bizConfig.auditAsyncQueueCapacity());
+    this.executorService = Executors.newSingleThreadExecutor(ApolloThreadFactory.create("AsyncAuditWriter", true));
+    this.stopped = new AtomicBoolean(false);
+    this.stopLock = new ReentrantReadWriteLock();
+  }
+
+  @PostConstruct
+  void initialize() {
+    executorService.submit(() -> {
+      while (!stopped.get() && !Thread.currentThread().isInterrupted()) {
+        try {
+          Audit audit = queue.poll(1, TimeUnit.SECONDS);
+          if (audit != null) {
+            List<Audit> batch = Lists.newArrayList(audit);
+            queue.drainTo(batch, bizConfig.auditAsyncBatchSize() - 1);
+            write(batch);
+          }
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        } catch (Throwable ex) {
+          Tracer.logError(ex);
+        }
+      }
+    });
+  }
+
+  /**
+   * @return false if the queue is full or the writer is stopped, in which case the caller should write the audit
+   */
+  boolean offer(Audit audit) {
+    stopLock.readLock().lock();
+    try {
+      return !stopped.get() && queue.offer(audit);
+    } finally {
+      stopLock.readLock().unlock();
+    }
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    stopLock.writeLock().lock();
+    try {
+      stopped.set(true);
+    } finally {
+      stopLock.writeLock().unlock();
+    }
+    executorService.shutdown();
+    executorService.awaitTermination(SHUTDOWN_TIMEOUT_IN_SECOND, TimeUnit.SECONDS);
+
+    List<Audit> remaining = Lists.newArrayList();
+    queue.drainTo(remaining);
+    for (List<Audit> batch : Lists.partition(remaining, bizConfig.auditAsyncBatchSize())) {
+      write(batch);
+    }
+  }
+
+  private void write(List<Audit> audits) {
+    Transaction transaction = Tracer.newTransaction("Apollo.Audit", "write");
+    try {
+      jdbcTemplate.batchUpdate(INSERT_AUDIT_SQL, audits, audits.size(), (statement, audit) -> {
+        statement.setString(1, audit.getEntityName());
+        if (audit.getEntityId() == null) {
+          statement.setNull(2, Types.BIGINT);
+        } else {
+          statement.setLong(2, audit.getEntityId());
+        }
+        statement.setString(3, audit.getOpName());
+        statement.setString(4, audit.getComment());
+        statement.setBoolean(5, false);
+        statement.setString(6, audit.getDataChangeCreatedBy());
+        statement.setTimestamp(7, new Timestamp(audit.getDataChangeCreatedTime().getTime()));
+        statement.setString(8, audit.getDataChangeLastModifiedBy());
+        statement.setTimestamp(9, new Timestamp(audit.getDataChangeLastModifiedTime().getTime()));
+      });
+      transaction.setStatus(Transaction.SUCCESS);
+    } catch (Throwable ex) {
+      transaction.setStatus(ex);
+      logger.error("Write {} audits failed", audits.size(), ex);
+    } finally {
+      transaction.complete();
+    }
+  }
+}
@@ -1,19 +1,36 @@
 package com.ctrip.framework.apollo.biz.service;
 
+import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.biz.entity.Audit;
 import com.ctrip.framework.apollo.biz.repository.AuditRepository;
+import com.ctrip.framework.apollo.tracer.Tracer;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Date;
 import java.util.List;
 
 @Service
 public class AuditService {
 
   private final AuditRepository auditRepository;
+  private final AsyncAuditWriter asyncAuditWriter;
+  private final BizConfig bizConfig;
+  private final TransactionTemplate transactionTemplate;
 
-  public AuditService(final AuditRepository auditRepository) {
+  public AuditService(final AuditRepository auditRepository, final AsyncAuditWriter asyncAuditWriter,
+                      final BizConfig bizConfig, final PlatformTransactionManager transactionManager) {
     this.auditRepository = auditRepository;
+    this.asyncAuditWriter = asyncAuditWriter;
+    this.bizConfig = bizConfig;
+    //the audits not buffered are saved after the caller's transaction committed, so in a transaction of their own
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
   }
 
   List<Audit> findByOwner(String owner) {
@@ -31,11 +48,42 @@ public class AuditService {
     audit.setEntityId(entityId);
     audit.setOpName(op.name());
     audit.setDataChangeCreatedBy(owner);
-    auditRepository.save(audit);
+    audit(audit);
   }
 
   @Transactional
   void audit(Audit audit){
+    if (bizConfig.isAuditAsyncEnabled()) {
+      auditAsync(audit);
+      return;
+    }
     auditRepository.save(audit);
   }
+
+  private void auditAsync(Audit audit) {
+    Date now = new Date();
+    if (audit.getDataChangeCreatedTime() == null) {
+      audit.setDataChangeCreatedTime(now);
+    }
+    audit.setDataChangeLastModifiedTime(now);
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      offerOrSave(audit);
+      return;
+    }
+    //only buffer the audits of the changes committed
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCommit() {
+        offerOrSave(audit);
+      }
+    });
+  }
+
+  private void offerOrSave(Audit audit) {
+    if (!asyncAuditWriter.offer(audit)) {
+      Tracer.logEvent("Apollo.Audit.WriteSync", audit.getEntityName());
+      transactionTemplate.execute(status -> auditRepository.save(audit));
+    }
+  }
 }
@@ -14,6 +14,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -42,6 +44,11 @@ public class BizDBPropertySource extends RefreshablePropertySource {
 
   @Override
   protected void refresh() {
+    //probe first, so the configs are loaded only when changed
+    if (!shouldReload(findVersion())) {
+      return;
+    }
+
     Iterable<ServerConfig> dbConfigs = serverConfigRepository.findAll();
 
     Map<String, Object> newConfigs = Maps.newHashMap();
@@ -88,4 +95,8 @@ public class BizDBPropertySource extends RefreshablePropertySource {
 
   }
 
+  private Object findVersion() {
+    List<Object[]> version = serverConfigRepository.findVersion();
+    return version.isEmpty() ? null : Arrays.asList(version.get(0));
+  }
 }
@@ -1,5 +1,6 @@
 package com.ctrip.framework.apollo.biz.service;
 
+import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.biz.entity.Audit;
 import com.ctrip.framework.apollo.biz.entity.Cluster;
 import com.ctrip.framework.apollo.biz.repository.ClusterRepository;
@@ -22,14 +23,17 @@ public class ClusterService {
   private final ClusterRepository clusterRepository;
   private final AuditService auditService;
   private final NamespaceService namespaceService;
+  private final MetadataCache<Cluster> clusterCache;
 
   public ClusterService(
       final ClusterRepository clusterRepository,
       final AuditService auditService,
-      final @Lazy NamespaceService namespaceService) {
+      final @Lazy NamespaceService namespaceService,
+      final BizConfig bizConfig) {
     this.clusterRepository = clusterRepository;
     this.auditService = auditService;
     this.namespaceService = namespaceService;
+    this.clusterCache = new MetadataCache<>(Cluster.class, bizConfig);
   }
 
 
@@ -40,7 +44,7 @@ public class ClusterService {
   }
 
   public Cluster findOne(String appId, String name) {
-    return clusterRepository.findByAppIdAndName(appId, name);
+    return clusterCache.get(() -> clusterRepository.findByAppIdAndName(appId, name), appId, name);
   }
 
   public Cluster findOne(long clusterId) {
@@ -100,6 +104,7 @@ public class ClusterService {
     cluster.setDeleted(true);
     cluster.setDataChangeLastModifiedBy(operator);
     clusterRepository.save(cluster);
+    clusterCache.evict(cluster.getAppId(), cluster.getName());
 
     auditService.audit(Cluster.class.getSimpleName(), id, Audit.OP.DELETE, operator);
   }
@@ -110,6 +115,7 @@ public class ClusterService {
         clusterRepository.findByAppIdAndName(cluster.getAppId(), cluster.getName());
     BeanUtils.copyEntityProperties(cluster, managedCluster);
     managedCluster = clusterRepository.save(managedCluster);
+    clusterCache.evict(managedCluster.getAppId(), managedCluster.getName());
 
     auditService.audit(Cluster.class.getSimpleName(), managedCluster.getId(), Audit.OP.UPDATE,
                        managedCluster.getDataChangeLastModifiedBy());
@@ -1,7 +1,10 @@
 package com.ctrip.framework.apollo.biz.service;
 
+import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.biz.entity.Commit;
 import com.ctrip.framework.apollo.biz.repository.CommitRepository;
+import com.ctrip.framework.apollo.biz.utils.ConfigChangeContentBuilder;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,9 +15,11 @@ import java.util.List;
 public class CommitService {
 
   private final CommitRepository commitRepository;
+  private final BizConfig bizConfig;
 
-  public CommitService(final CommitRepository commitRepository) {
+  public CommitService(final CommitRepository commitRepository, final BizConfig bizConfig) {
     this.commitRepository = commitRepository;
+    this.bizConfig = bizConfig;
   }
 
   @Transactional
@@ -23,13 +28,58 @@ public class CommitService {
     return commitRepository.save(commit);
   }
 
+  /**
+   * @return the change sets to store, compressed when the estimated json length reaches the compression threshold
+   */
+  public String buildChangeSets(ConfigChangeContentBuilder builder) {
+    int compressionThreshold = bizConfig.commitChangeSetsCompressionThreshold();
+    if (compressionThreshold > 0 && builder.estimateLength() >= compressionThreshold) {
+      return builder.buildCompressed();
+    }
+    return builder.build();
+  }
+
   public List<Commit> find(String appId, String clusterName, String namespaceName, Pageable page){
     return commitRepository.findByAppIdAndClusterNameAndNamespaceNameOrderByIdDesc(appId, clusterName, namespaceName, page);
   }
 
+  /**
+   * Keyset pagination of the commits, newest first
+   *
+   * @param beforeId the id of the last commit of the previous page, or 0 for the first page
+   */
+  public List<Commit> findBefore(String appId, String clusterName, String namespaceName, long beforeId, int size) {
+    return commitRepository.findByAppIdAndClusterNameAndNamespaceNameAndIdLessThanOrderByIdDesc(appId, clusterName,
+        namespaceName, beforeId > 0 ? beforeId : Long.MAX_VALUE, PageRequest.of(0, size));
+  }
+
   @Transactional
   public int batchDelete(String appId, String clusterName, String namespaceName, String operator){
     return commitRepository.batchDelete(appId, clusterName, namespaceName, operator);
   }
 
+  @Transactional
+  public int batchDelete(String appId, String clusterName, String operator) {
+    return commitRepository.batchDelete(appId, clusterName, operator);
+  }
+
+  /**
+   * Purge a batch of the commits older than the latest retention size commits of the namespace
+   *
+   * @return the number of commits purged, less than the batch size if there are no more to purge
+   */
+  @Transactional
+  public int purgeCommits(String appId, String clusterName, String namespaceName, int retentionSize, int batchSize) {
+    List<Long> maxIds = commitRepository.findIdsByNamespace(appId, clusterName, namespaceName,
+                                                            PageRequest.of(retentionSize, 1));
+    if (maxIds.isEmpty()) {
+      return 0;
+    }
+
+    List<Long> ids = commitRepository.findIdsByNamespaceAndIdLessThanEqual(appId, clusterName, namespaceName,
+                                                                           maxIds.get(0),
+                                                                           PageRequest.of(0, batchSize));
+    return ids.isEmpty() ? 0 : commitRepository.deleteByIds(ids);
+  }
+
 }
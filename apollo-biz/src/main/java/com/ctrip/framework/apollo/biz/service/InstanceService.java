@@ -1,14 +1,19 @@
 package com.ctrip.framework.apollo.biz.service;
 
+import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.biz.entity.Instance;
 import com.ctrip.framework.apollo.biz.entity.InstanceConfig;
+import com.ctrip.framework.apollo.biz.entity.InstanceConfigCount;
+import com.ctrip.framework.apollo.biz.repository.InstanceConfigCountRepository;
 import com.ctrip.framework.apollo.biz.repository.InstanceConfigRepository;
 import com.ctrip.framework.apollo.biz.repository.InstanceRepository;
+import com.ctrip.framework.apollo.biz.utils.ReleaseMessageKeyGenerator;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import java.util.Objects;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +22,7 @@ import org.springframework.util.CollectionUtils;
 import java.math.BigInteger;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -29,12 +35,18 @@ import java.util.stream.Collectors;
 public class InstanceService {
   private final InstanceRepository instanceRepository;
   private final InstanceConfigRepository instanceConfigRepository;
+  private final InstanceConfigCountRepository instanceConfigCountRepository;
+  private final BizConfig bizConfig;
 
   public InstanceService(
       final InstanceRepository instanceRepository,
-      final InstanceConfigRepository instanceConfigRepository) {
+      final InstanceConfigRepository instanceConfigRepository,
+      final InstanceConfigCountRepository instanceConfigCountRepository,
+      final BizConfig bizConfig) {
     this.instanceRepository = instanceRepository;
     this.instanceConfigRepository = instanceConfigRepository;
+    this.instanceConfigCountRepository = instanceConfigCountRepository;
+    this.bizConfig = bizConfig;
   }
 
   public Instance findInstance(String appId, String clusterName, String dataCenter, String ip) {
@@ -88,6 +100,20 @@ public class InstanceService {
     return new PageImpl<>(instances, pageable, instanceConfigs.getTotalElements());
   }
 
+  /**
+   * Count the active instances of a namespace, or read the counts rebuilt periodically when
+   * {@link BizConfig#isInstanceConfigCountEnabled()}
+   */
+  public long countInstancesByNamespace(String appId, String clusterName, String namespaceName) {
+    if (bizConfig.isInstanceConfigCountEnabled()) {
+      Long count = instanceConfigCountRepository.sumByNamespace(appId, clusterName, namespaceName);
+      return count == null ? 0 : count;
+    }
+    return instanceConfigRepository
+        .findByConfigAppIdAndConfigClusterNameAndConfigNamespaceNameAndDataChangeLastModifiedTimeAfter(appId,
+            clusterName, namespaceName, getValidInstanceConfigDate(), PageRequest.of(0, 1)).getTotalElements();
+  }
+
   public Page<Instance> findInstancesByNamespaceAndInstanceAppId(String instanceAppId, String
       appId, String clusterName, String
                                                                      namespaceName, Pageable
@@ -98,30 +124,79 @@ public class InstanceService {
 
     List<Instance> instances = Collections.emptyList();
     if (instanceIdResult.hasContent()) {
-      Set<Long> instanceIds = instanceIdResult.getContent().stream().map((Object o) -> {
-        if (o == null) {
-          return null;
-        }
+      instances = findInstancesByIds(toInstanceIds(instanceIdResult.getContent()));
+    }
 
-        if (o instanceof Integer) {
-          return ((Integer)o).longValue();
-        }
+    return new PageImpl<>(instances, pageable, instanceIdResult.getTotalElements());
+  }
 
-        if (o instanceof Long) {
-          return (Long) o;
-        }
+  /**
+   * Keyset pagination of the active instances of a release, ordered by instance id
+   *
+   * @param afterInstanceId the id of the last instance of the previous page, or 0 for the first page
+   */
+  public List<InstanceConfig> findActiveInstanceConfigsByReleaseKeyAfter(String releaseKey, long afterInstanceId,
+                                                                         int size) {
+    return instanceConfigRepository
+        .findByReleaseKeyAndDataChangeLastModifiedTimeAfterAndInstanceIdGreaterThanOrderByInstanceIdAsc(releaseKey,
+            getValidInstanceConfigDate(), afterInstanceId, PageRequest.of(0, size));
+  }
 
-        //for h2 test
-        if (o instanceof BigInteger) {
-          return ((BigInteger) o).longValue();
-        }
+  /**
+   * Keyset pagination of the active instances of a namespace, ordered by instance id
+   *
+   * @param afterInstanceId the id of the last instance of the previous page, or 0 for the first page
+   */
+  public List<Instance> findInstancesByNamespaceAfter(String appId, String clusterName, String namespaceName,
+                                                      long afterInstanceId, int size) {
+    List<InstanceConfig> instanceConfigs = instanceConfigRepository
+        .findByConfigAppIdAndConfigClusterNameAndConfigNamespaceNameAndDataChangeLastModifiedTimeAfterAndInstanceIdGreaterThanOrderByInstanceIdAsc(
+            appId, clusterName, namespaceName, getValidInstanceConfigDate(), afterInstanceId, PageRequest.of(0, size));
 
-        return null;
-      }).filter(Objects::nonNull).collect(Collectors.toSet());
-      instances = findInstancesByIds(instanceIds);
+    return findInstancesSortedById(instanceConfigs.stream().map(InstanceConfig::getInstanceId)
+        .collect(Collectors.toSet()));
+  }
+
+  public List<Instance> findInstancesByNamespaceAndInstanceAppIdAfter(String instanceAppId, String appId,
+                                                                      String clusterName, String namespaceName,
+                                                                      long afterInstanceId, int size) {
+    List<Object> instanceIds = instanceConfigRepository.findInstanceIdsByNamespaceAndInstanceAppIdAfter(
+        instanceAppId, appId, clusterName, namespaceName, getValidInstanceConfigDate(), afterInstanceId,
+        PageRequest.of(0, size));
+
+    return findInstancesSortedById(toInstanceIds(instanceIds));
+  }
+
+  private List<Instance> findInstancesSortedById(Set<Long> instanceIds) {
+    if (instanceIds.isEmpty()) {
+      return Collections.emptyList();
     }
+    List<Instance> instances = findInstancesByIds(instanceIds);
+    instances.sort(Comparator.comparingLong(Instance::getId));
+    return instances;
+  }
 
-    return new PageImpl<>(instances, pageable, instanceIdResult.getTotalElements());
+  private Set<Long> toInstanceIds(List<Object> instanceIdResult) {
+    return instanceIdResult.stream().map((Object o) -> {
+      if (o == null) {
+        return null;
+      }
+
+      if (o instanceof Integer) {
+        return ((Integer)o).longValue();
+      }
+
+      if (o instanceof Long) {
+        return (Long) o;
+      }
+
+      //for h2 test
+      if (o instanceof BigInteger) {
+        return ((BigInteger) o).longValue();
+      }
+
+      return null;
+    }).filter(Objects::nonNull).collect(Collectors.toSet());
   }
 
   public List<InstanceConfig> findInstanceConfigsByNamespaceWithReleaseKeysNotIn(String appId,
@@ -141,6 +216,20 @@ public class InstanceService {
     return instanceConfigs;
   }
 
+  /**
+   * Find the namespaces used by most active instances
+   *
+   * @return the release message keys of the namespaces, ordered by active instance count desc
+   */
+  public List<String> findMostUsedNamespaceKeys(int limit) {
+    List<Object[]> namespaces = instanceConfigRepository.findMostUsedNamespaces(getValidInstanceConfigDate(),
+        PageRequest.of(0, limit));
+
+    return namespaces.stream().map(namespace -> ReleaseMessageKeyGenerator
+        .generate((String) namespace[0], (String) namespace[1], (String) namespace[2]))
+        .collect(Collectors.toList());
+  }
+
   /**
    * Currently the instance config is expired by 1 day, add one more hour to avoid possible time
    * difference
@@ -178,4 +267,70 @@ public class InstanceService {
   public int batchDeleteInstanceConfig(String configAppId, String configClusterName, String configNamespaceName){
     return instanceConfigRepository.batchDelete(configAppId, configClusterName, configNamespaceName);
   }
+
+  @Transactional
+  public int batchDeleteInstanceConfig(String configAppId, String configClusterName) {
+    return instanceConfigRepository.batchDelete(configAppId, configClusterName);
+  }
+
+  /**
+   * Purge a batch of the instance configs not reported since the time
+   *
+   * @return the number of instance configs purged, less than the batch size if there are no more to purge
+   */
+  @Transactional
+  public int purgeInstanceConfigsNotModifiedSince(Date time, int batchSize) {
+    List<Long> ids = instanceConfigRepository.findIdsByDataChangeLastModifiedTimeBefore(time,
+        PageRequest.of(0, batchSize));
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    return instanceConfigRepository.deleteByIds(ids);
+  }
+
+  /**
+   * Purge a batch of the instances not modified since the time and having no instance configs left,
+   * so the instances still reporting are kept
+   *
+   * @return the number of instances purged, less than the batch size if there are no more to purge
+   */
+  @Transactional
+  public int purgeInstancesNotModifiedSince(Date time, int batchSize) {
+    List<Long> ids = instanceRepository.findIdsWithoutInstanceConfigsByDataChangeLastModifiedTimeBefore(time,
+        PageRequest.of(0, batchSize));
+    return ids.isEmpty() ? 0 : instanceRepository.deleteByIds(ids);
+  }
+
+  public long findMaxInstanceConfigId() {
+    return instanceConfigRepository.findMaxId();
+  }
+
+  /**
+   * Count the active instance configs with ids in (fromId, toId] by release
+   */
+  public List<InstanceConfigCount> countActiveInstanceConfigs(long fromId, long toId) {
+    List<InstanceConfigCount> counts = Lists.newArrayList();
+    for (Object[] count : instanceConfigRepository.countByReleaseKeyAndIdBetween(fromId, toId,
+        getValidInstanceConfigDate())) {
+      counts.add(new InstanceConfigCount((String) count[0], (String) count[1], (String) count[2],
+          (String) count[3], ((Number) count[4]).longValue()));
+    }
+    return counts;
+  }
+
+  @Transactional
+  public void saveInstanceConfigCounts(List<InstanceConfigCount> counts, Date time) {
+    for (InstanceConfigCount count : counts) {
+      instanceConfigCountRepository.save(count.getConfigAppId(), count.getConfigClusterName(),
+          count.getConfigNamespaceName(), count.getReleaseKey(), count.getInstanceCount(), time);
+    }
+  }
+
+  /**
+   * Delete the counts not saved since the time, i.e. the releases without active instances any more
+   */
+  @Transactional
+  public int deleteInstanceConfigCountsNotModifiedSince(Date time) {
+    return instanceConfigCountRepository.deleteByDataChangeLastModifiedTimeBefore(time);
+  }
 }
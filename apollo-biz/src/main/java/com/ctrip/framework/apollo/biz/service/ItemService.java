@@ -10,14 +10,21 @@ import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.common.exception.NotFoundException;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
 import com.ctrip.framework.apollo.core.utils.StringUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class ItemService {
@@ -60,6 +67,11 @@ public class ItemService {
 
   }
 
+  @Transactional
+  public int batchDelete(Collection<Long> namespaceIds, String operator) {
+    return itemRepository.deleteByNamespaceIds(namespaceIds, operator);
+  }
+
   public Item findOne(String appId, String clusterName, String namespaceName, String key) {
     Namespace namespace = namespaceService.findOne(appId, clusterName, namespaceName);
     if (namespace == null) {
@@ -88,6 +100,10 @@ public class ItemService {
     return item;
   }
 
+  public List<Item> findItemsByIds(Iterable<Long> itemIds) {
+    return Lists.newArrayList(itemRepository.findAllById(itemIds));
+  }
+
   public List<Item> findItemsWithoutOrdered(Long namespaceId) {
     List<Item> items = itemRepository.findByNamespaceId(namespaceId);
     if (items == null) {
@@ -147,6 +163,52 @@ public class ItemService {
     return item;
   }
 
+  /**
+   * Save the items in one jdbc batch, the line numbers of the items should be assigned already
+   *
+   * @return the saved items in the same order
+   */
+  @Transactional
+  public List<Item> batchSave(List<Item> entities) {
+    if (entities.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Set<Long> namespaceIds = Sets.newHashSet();
+    for (Item entity : entities) {
+      checkItemKeyLength(entity.getKey());
+      checkItemValueLength(entity.getNamespaceId(), entity.getValue());
+      namespaceIds.add(entity.getNamespaceId());
+    }
+
+    long maxId = itemRepository.findMaxId();
+    itemRepository.batchInsert(entities);
+
+    //load the items inserted to audit them with ids, the auto increment ids follow the insertion order
+    List<Item> savedItems = Lists.newArrayListWithCapacity(entities.size());
+    Iterator<Item> pendingItems = entities.iterator();
+    Item pendingItem = pendingItems.next();
+    for (Item item : itemRepository.findByNamespaceIdInAndIdGreaterThanOrderByIdAsc(namespaceIds, maxId)) {
+      //skip the items inserted by others meanwhile
+      if (pendingItem == null || !isSameItem(pendingItem, item)) {
+        continue;
+      }
+      savedItems.add(item);
+      auditService.audit(Item.class.getSimpleName(), item.getId(), Audit.OP.INSERT, item.getDataChangeCreatedBy());
+      pendingItem = pendingItems.hasNext() ? pendingItems.next() : null;
+    }
+    Preconditions.checkState(savedItems.size() == entities.size(), "Expected %s items saved, but found %s",
+        entities.size(), savedItems.size());
+
+    return savedItems;
+  }
+
+  private boolean isSameItem(Item entity, Item savedItem) {
+    return entity.getNamespaceId() == savedItem.getNamespaceId()
+        && Objects.equals(entity.getLineNum(), savedItem.getLineNum())
+        && Objects.equals(entity.getKey(), savedItem.getKey())
+        && Objects.equals(entity.getDataChangeCreatedBy(), savedItem.getDataChangeCreatedBy());
+  }
+
   @Transactional
   public Item update(Item item) {
     checkItemValueLength(item.getNamespaceId(), item.getValue());
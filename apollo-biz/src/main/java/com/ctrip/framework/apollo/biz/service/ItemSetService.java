@@ -9,13 +9,23 @@ import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
 import com.ctrip.framework.apollo.common.dto.ItemDTO;
 import com.ctrip.framework.apollo.common.exception.NotFoundException;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 
 @Service
 public class ItemSetService {
+  private static final int FIND_ITEMS_BATCH_SIZE = 500;
 
   private final AuditService auditService;
   private final CommitService commitService;
@@ -41,12 +51,25 @@ public class ItemSetService {
     String operator = changeSet.getDataChangeLastModifiedBy();
     ConfigChangeContentBuilder configChangeContentBuilder = new ConfigChangeContentBuilder();
 
+    //load the items to update and delete in bulk, so that they are found in the persistence context afterwards
+    Map<Long, Item> managedItems = findManagedItems(changeSet);
+
     if (!CollectionUtils.isEmpty(changeSet.getCreateItems())) {
+      //line numbers are assigned here instead of querying the last item for each created item
+      Map<Long, Integer> lastLineNums = Maps.newHashMap();
+      List<Item> createItems = Lists.newArrayListWithCapacity(changeSet.getCreateItems().size());
       for (ItemDTO item : changeSet.getCreateItems()) {
         Item entity = BeanUtils.transform(Item.class, item);
         entity.setDataChangeCreatedBy(operator);
         entity.setDataChangeLastModifiedBy(operator);
-        Item createdItem = itemService.save(entity);
+        int lastLineNum = lastLineNums.computeIfAbsent(entity.getNamespaceId(), this::findLastLineNum);
+        if (entity.getLineNum() == 0) {
+          entity.setLineNum(lastLineNum + 1);
+        }
+        lastLineNums.put(entity.getNamespaceId(), Math.max(lastLineNum, entity.getLineNum()));
+        createItems.add(entity);
+      }
+      for (Item createdItem : itemService.batchSave(createItems)) {
         configChangeContentBuilder.createItem(createdItem);
       }
       auditService.audit("ItemSet", null, Audit.OP.INSERT, operator);
@@ -56,7 +79,7 @@ public class ItemSetService {
       for (ItemDTO item : changeSet.getUpdateItems()) {
         Item entity = BeanUtils.transform(Item.class, item);
 
-        Item managedItem = itemService.findOne(entity.getId());
+        Item managedItem = managedItems.get(entity.getId());
         if (managedItem == null) {
           throw new NotFoundException(String.format("item not found.(key=%s)", entity.getKey()));
         }
@@ -84,7 +107,7 @@ public class ItemSetService {
     }
 
     if (configChangeContentBuilder.hasContent()){
-      createCommit(appId, clusterName, namespaceName, configChangeContentBuilder.build(),
+      createCommit(appId, clusterName, namespaceName, configChangeContentBuilder,
                    changeSet.getDataChangeLastModifiedBy());
     }
 
@@ -92,14 +115,45 @@ public class ItemSetService {
 
   }
 
-  private void createCommit(String appId, String clusterName, String namespaceName, String configChangeContent,
-                            String operator) {
+  private Map<Long, Item> findManagedItems(ItemChangeSets changeSet) {
+    Set<Long> itemIds = Sets.newHashSet();
+    if (!CollectionUtils.isEmpty(changeSet.getUpdateItems())) {
+      for (ItemDTO item : changeSet.getUpdateItems()) {
+        itemIds.add(item.getId());
+      }
+    }
+    if (!CollectionUtils.isEmpty(changeSet.getDeleteItems())) {
+      for (ItemDTO item : changeSet.getDeleteItems()) {
+        itemIds.add(item.getId());
+      }
+    }
+    if (itemIds.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    Map<Long, Item> managedItems = Maps.newHashMapWithExpectedSize(itemIds.size());
+    //keep the in clause short, long in clauses are slow to parse and might not use the primary key
+    for (List<Long> partition : Iterables.partition(itemIds, FIND_ITEMS_BATCH_SIZE)) {
+      for (Item item : itemService.findItemsByIds(partition)) {
+        managedItems.put(item.getId(), item);
+      }
+    }
+    return managedItems;
+  }
+
+  private int findLastLineNum(long namespaceId) {
+    Item lastItem = itemService.findLastOne(namespaceId);
+    return lastItem == null ? 0 : lastItem.getLineNum();
+  }
+
+  private void createCommit(String appId, String clusterName, String namespaceName,
+                            ConfigChangeContentBuilder configChangeContentBuilder, String operator) {
 
     Commit commit = new Commit();
     commit.setAppId(appId);
     commit.setClusterName(clusterName);
     commit.setNamespaceName(namespaceName);
-    commit.setChangeSets(configChangeContent);
+    commit.setChangeSets(commitService.buildChangeSets(configChangeContentBuilder));
     commit.setDataChangeCreatedBy(operator);
     commit.setDataChangeLastModifiedBy(operator);
     commitService.save(commit);
@@ -0,0 +1,62 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.repository.JobLockRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lease based locks stored in db, used to make sure only one node runs a background job at a time.
+ *
+ * The lease is judged by the local clock of each node, so the lease should be much longer than the clock skew.
+ */
+@Service
+public class JobLockService {
+  private final JobLockRepository jobLockRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  public JobLockService(
+      final JobLockRepository jobLockRepository,
+      final PlatformTransactionManager transactionManager) {
+    this.jobLockRepository = jobLockRepository;
+    //the lock creation might fail and should not roll back the caller, so each step runs in its own transaction
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Acquire the lock if it is free or expired, or extend the lease if it is already held by the owner
+   *
+   * @return whether the owner holds the lock now
+   */
+  public boolean tryLock(String name, String owner, long lease, TimeUnit timeUnit) {
+    Date now = new Date();
+    Date expireTime = new Date(now.getTime() + timeUnit.toMillis(lease));
+
+    Integer acquired = transactionTemplate.execute(status -> jobLockRepository.acquire(name, owner, expireTime, now));
+    if (acquired != null && acquired > 0) {
+      return true;
+    }
+    if (jobLockRepository.existsById(name)) {
+      return false;
+    }
+
+    //the first time the job runs
+    try {
+      transactionTemplate.execute(status -> jobLockRepository.create(name, owner, expireTime, now));
+      return true;
+    } catch (DataIntegrityViolationException ex) {
+      //another node created the lock at the same time
+      return false;
+    }
+  }
+
+  public void unlock(String name, String owner) {
+    transactionTemplate.execute(status -> jobLockRepository.release(name, owner, new Date()));
+  }
+}
@@ -0,0 +1,96 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.common.utils.BeanUtils;
+import com.ctrip.framework.apollo.core.ConfigConsts;
+import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caches copies of the slowly changing entities found by their keys for {@link BizConfig#metadataCacheTtlInSecond()}.
+ *
+ * The cache is bypassed inside transactions, so the entities to change are always read from db. The entities changed on
+ * this node are evicted immediately and again when the transaction completes, changes made by other nodes are noticed
+ * after the ttl.
+ */
+class MetadataCache<T> {
+  private static final Joiner KEY_JOINER = Joiner.on(ConfigConsts.CLUSTER_NAMESPACE_SEPARATOR);
+  private static final int MAX_TTL_IN_SECOND = 60;
+  private static final int MAXIMUM_SIZE = 10000;
+
+  private final Class<T> entityClass;
+  private final BizConfig bizConfig;
+  private final Cache<String, CachedEntity<T>> cache;
+
+  MetadataCache(Class<T> entityClass, BizConfig bizConfig) {
+    this.entityClass = entityClass;
+    this.bizConfig = bizConfig;
+    this.cache = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE)
+        .expireAfterWrite(MAX_TTL_IN_SECOND, TimeUnit.SECONDS).build();
+  }
+
+  /**
+   * @return the cached entity if it is not expired, otherwise the one loaded, the entities not found are not cached
+   */
+  T get(Supplier<T> loader, String... keys) {
+    int ttl = bizConfig.metadataCacheTtlInSecond();
+    if (ttl <= 0 || TransactionSynchronizationManager.isActualTransactionActive()) {
+      return loader.get();
+    }
+
+    String key = KEY_JOINER.join(keys);
+    CachedEntity<T> cached = cache.getIfPresent(key);
+    if (cached != null && System.currentTimeMillis() - cached.cachedTime < TimeUnit.SECONDS.toMillis(ttl)) {
+      //callers might change the entity, so the cached one is never handed out
+      return BeanUtils.transform(entityClass, cached.entity);
+    }
+
+    T entity = loader.get();
+    if (entity != null) {
+      cache.put(key, new CachedEntity<>(BeanUtils.transform(entityClass, entity), System.currentTimeMillis()));
+    }
+    return entity;
+  }
+
+  void evict(String... keys) {
+    String key = KEY_JOINER.join(keys);
+    cache.invalidate(key);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      //the entity might be cached again by other threads before the change is committed
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(int status) {
+          cache.invalidate(key);
+        }
+      });
+    }
+  }
+
+  void evictAll() {
+    cache.invalidateAll();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(int status) {
+          cache.invalidateAll();
+        }
+      });
+    }
+  }
+
+  private static class CachedEntity<T> {
+    private final T entity;
+    private final long cachedTime;
+
+    CachedEntity(T entity, long cachedTime) {
+      this.entity = entity;
+      this.cachedTime = cachedTime;
+    }
+  }
+}
@@ -5,6 +5,8 @@ import com.ctrip.framework.apollo.biz.repository.NamespaceLockRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+
 @Service
 public class NamespaceLockService {
 
@@ -28,4 +30,9 @@ public class NamespaceLockService {
   public void unlock(Long namespaceId){
     namespaceLockRepository.deleteByNamespaceId(namespaceId);
   }
+
+  @Transactional
+  public void unlock(Collection<Long> namespaceIds) {
+    namespaceLockRepository.deleteByNamespaceIds(namespaceIds);
+  }
 }
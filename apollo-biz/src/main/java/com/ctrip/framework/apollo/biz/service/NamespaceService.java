@@ -1,5 +1,6 @@
 package com.ctrip.framework.apollo.biz.service;
 
+import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.biz.entity.Audit;
 import com.ctrip.framework.apollo.biz.entity.Cluster;
 import com.ctrip.framework.apollo.biz.entity.Item;
@@ -16,7 +17,10 @@ import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.common.exception.ServiceException;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
 import com.ctrip.framework.apollo.core.ConfigConsts;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
 import com.google.gson.Gson;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Pageable;
@@ -24,8 +28,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +56,7 @@ public class NamespaceService {
   private final NamespaceLockService namespaceLockService;
   private final InstanceService instanceService;
   private final MessageSender messageSender;
+  private final MetadataCache<Namespace> namespaceCache;
 
   public NamespaceService(
       final ReleaseHistoryService releaseHistoryService,
@@ -63,7 +70,8 @@ public class NamespaceService {
       final @Lazy ClusterService clusterService,
       final @Lazy NamespaceBranchService namespaceBranchService,
       final NamespaceLockService namespaceLockService,
-      final InstanceService instanceService) {
+      final InstanceService instanceService,
+      final BizConfig bizConfig) {
     this.releaseHistoryService = releaseHistoryService;
     this.namespaceRepository = namespaceRepository;
     this.auditService = auditService;
@@ -76,6 +84,7 @@ public class NamespaceService {
     this.namespaceBranchService = namespaceBranchService;
     this.namespaceLockService = namespaceLockService;
     this.instanceService = instanceService;
+    this.namespaceCache = new MetadataCache<>(Namespace.class, bizConfig);
   }
 
 
@@ -84,8 +93,9 @@ public class NamespaceService {
   }
 
   public Namespace findOne(String appId, String clusterName, String namespaceName) {
-    return namespaceRepository.findByAppIdAndClusterNameAndNamespaceName(appId, clusterName,
-                                                                         namespaceName);
+    return namespaceCache.get(() -> namespaceRepository.findByAppIdAndClusterNameAndNamespaceName(appId, clusterName,
+                                                                                                namespaceName),
+                              appId, clusterName, namespaceName);
   }
 
   public Namespace findPublicNamespaceForAssociatedNamespace(String clusterName, String namespaceName) {
@@ -179,6 +189,13 @@ public class NamespaceService {
     return namespaceRepository.countByNamespaceNameAndAppIdNot(publicNamespaceName, publicAppNamespace.getAppId());
   }
 
+  /**
+   * @return the first 500 namespaces with id greater than the given id, in id order
+   */
+  public List<Namespace> findNamespacesAfter(long id) {
+    return namespaceRepository.findFirst500ByIdGreaterThanOrderByIdAsc(id);
+  }
+
   public List<Namespace> findNamespaces(String appId, String clusterName) {
     List<Namespace> namespaces = namespaceRepository.findByAppIdAndClusterNameOrderByIdAsc(appId, clusterName);
     if (namespaces == null) {
@@ -255,15 +272,60 @@ public class NamespaceService {
         namespaceRepository.findByAppIdAndClusterNameAndNamespaceName(appId, cluster, namespace));
   }
 
+  /**
+   * Delete the namespaces of the cluster with set based statements, only the gray branches, the audits and the release
+   * messages are handled one by one, the same as {@link #deleteNamespace(Namespace, String)} for each namespace
+   */
   @Transactional
   public void deleteByAppIdAndClusterName(String appId, String clusterName, String operator) {
 
     List<Namespace> toDeleteNamespaces = findNamespaces(appId, clusterName);
+    if (toDeleteNamespaces.isEmpty()) {
+      return;
+    }
+
+    Cluster cluster = clusterService.findOne(appId, clusterName);
+    boolean isChildCluster = cluster != null && cluster.getParentClusterId() > 0;
+
+    //delete child namespaces, each child cluster holds the branch of one namespace
+    if (cluster != null && !isChildCluster) {
+      for (Cluster childCluster : clusterService.findChildClusters(appId, clusterName)) {
+        for (Namespace childNamespace : findNamespaces(appId, childCluster.getName())) {
+          namespaceBranchService.deleteBranch(appId, clusterName, childNamespace.getNamespaceName(),
+                                              childCluster.getName(), NamespaceBranchStatus.DELETED, operator);
+          //delete child namespace's releases. Notice: delete child namespace will not delete child namespace's releases
+          releaseService.batchDelete(appId, childCluster.getName(), childNamespace.getNamespaceName(), operator);
+        }
+      }
+    }
+
+    Set<Long> namespaceIds = toDeleteNamespaces.stream().map(Namespace::getId).collect(Collectors.toSet());
+
+    itemService.batchDelete(namespaceIds, operator);
+    commitService.batchDelete(appId, clusterName, operator);
+
+    // Child namespace releases should retain as long as the parent namespace exists, because parent namespaces' release
+    // histories need them
+    if (!isChildCluster) {
+      releaseService.batchDelete(appId, clusterName, operator);
+    }
+
+    releaseHistoryService.batchDelete(appId, clusterName, operator);
+
+    instanceService.batchDeleteInstanceConfig(appId, clusterName);
+
+    namespaceLockService.unlock(namespaceIds);
+
+    namespaceRepository.batchDelete(appId, clusterName, operator);
 
     for (Namespace namespace : toDeleteNamespaces) {
+      namespaceCache.evict(appId, clusterName, namespace.getNamespaceName());
 
-      deleteNamespace(namespace, operator);
+      auditService.audit(Namespace.class.getSimpleName(), namespace.getId(), Audit.OP.DELETE, operator);
 
+      //Publish release message to do some clean up in config service, such as updating the cache
+      messageSender.sendMessage(ReleaseMessageKeyGenerator.generate(appId, clusterName, namespace.getNamespaceName()),
+          Topics.APOLLO_RELEASE_TOPIC);
     }
   }
 
@@ -303,6 +365,7 @@ public class NamespaceService {
     auditService.audit(Namespace.class.getSimpleName(), namespace.getId(), Audit.OP.DELETE, operator);
 
     Namespace deleted = namespaceRepository.save(namespace);
+    namespaceCache.evict(appId, clusterName, namespaceName);
 
     //Publish release message to do some clean up in config service, such as updating the cache
     messageSender.sendMessage(ReleaseMessageKeyGenerator.generate(appId, clusterName, namespaceName),
@@ -331,6 +394,8 @@ public class NamespaceService {
         namespace.getAppId(), namespace.getClusterName(), namespace.getNamespaceName());
     BeanUtils.copyEntityProperties(namespace, managedNamespace);
     managedNamespace = namespaceRepository.save(managedNamespace);
+    namespaceCache.evict(managedNamespace.getAppId(), managedNamespace.getClusterName(),
+                         managedNamespace.getNamespaceName());
 
     auditService.audit(Namespace.class.getSimpleName(), managedNamespace.getId(), Audit.OP.UPDATE,
                        managedNamespace.getDataChangeLastModifiedBy());
@@ -343,17 +408,56 @@ public class NamespaceService {
 
     List<AppNamespace> appNamespaces = appNamespaceService.findByAppId(appId);
 
-    for (AppNamespace appNamespace : appNamespaces) {
-      Namespace ns = new Namespace();
-      ns.setAppId(appId);
-      ns.setClusterName(clusterName);
-      ns.setNamespaceName(appNamespace.getName());
-      ns.setDataChangeCreatedBy(createBy);
-      ns.setDataChangeLastModifiedBy(createBy);
-      namespaceRepository.save(ns);
-      auditService.audit(Namespace.class.getSimpleName(), ns.getId(), Audit.OP.INSERT, createBy);
+    Set<String> namespaceNames = appNamespaces.stream().map(AppNamespace::getName)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+
+    batchCreate(appId, Collections.singleton(clusterName), namespaceNames, createBy);
+  }
+
+  /**
+   * Create the namespaces for each of the clusters in one batch, the namespaces already existing are skipped
+   */
+  @Transactional
+  public void batchCreate(String appId, Collection<String> clusterNames, Collection<String> namespaceNames,
+                          String createBy) {
+    if (clusterNames.isEmpty() || namespaceNames.isEmpty()) {
+      return;
+    }
+
+    Set<String> existingNamespaces = namespaceRepository
+        .findByAppIdAndClusterNameInAndNamespaceNameIn(appId, clusterNames, namespaceNames).stream()
+        .map(namespace -> namespaceKey(namespace.getClusterName(), namespace.getNamespaceName()))
+        .collect(Collectors.toSet());
+
+    List<Namespace> toCreate = Lists.newArrayList();
+    for (String clusterName : clusterNames) {
+      for (String namespaceName : namespaceNames) {
+        if (existingNamespaces.contains(namespaceKey(clusterName, namespaceName))) {
+          continue;
+        }
+        Namespace namespace = new Namespace(appId, clusterName, namespaceName);
+        namespace.setDataChangeCreatedBy(createBy);
+        namespace.setDataChangeLastModifiedBy(createBy);
+        toCreate.add(namespace);
+      }
+    }
+    if (toCreate.isEmpty()) {
+      return;
+    }
+
+    namespaceRepository.batchInsert(toCreate);
+
+    //load the namespaces created to audit them with ids
+    for (Namespace namespace : namespaceRepository
+        .findByAppIdAndClusterNameInAndNamespaceNameIn(appId, clusterNames, namespaceNames)) {
+      if (!existingNamespaces.contains(namespaceKey(namespace.getClusterName(), namespace.getNamespaceName()))) {
+        auditService.audit(Namespace.class.getSimpleName(), namespace.getId(), Audit.OP.INSERT, createBy);
+      }
     }
+  }
 
+  private String namespaceKey(String clusterName, String namespaceName) {
+    return clusterName + ConfigConsts.CLUSTER_NAMESPACE_SEPARATOR + namespaceName;
   }
 
   public Map<String, Boolean> namespacePublishInfo(String appId) {
@@ -364,11 +468,14 @@ public class NamespaceService {
 
     Map<String, Boolean> clusterHasNotPublishedItems = Maps.newHashMap();
 
-    for (Cluster cluster : clusters) {
-      String clusterName = cluster.getName();
-      List<Namespace> namespaces = findNamespaces(appId, clusterName);
+    //find the namespaces which might not be published in one query, and only double check those ones
+    List<String> clusterNames = clusters.stream().map(Cluster::getName).collect(Collectors.toList());
+    Multimap<String, Namespace> candidateNamespaces = Multimaps.index(
+        namespaceRepository.findNamespacesWithItemsModifiedAfterLatestRelease(appId, clusterNames),
+        Namespace::getClusterName);
 
-      for (Namespace namespace : namespaces) {
+    for (String clusterName : clusterNames) {
+      for (Namespace namespace : candidateNamespaces.get(clusterName)) {
         boolean isNamespaceNotPublished = isNamespaceNotPublished(namespace);
 
         if (isNamespaceNotPublished) {
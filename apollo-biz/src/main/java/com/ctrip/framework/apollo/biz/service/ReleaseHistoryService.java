@@ -5,11 +5,13 @@ import com.ctrip.framework.apollo.biz.entity.ReleaseHistory;
 import com.ctrip.framework.apollo.biz.repository.ReleaseHistoryRepository;
 import com.google.gson.Gson;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -38,6 +40,17 @@ public class ReleaseHistoryService {
                                                                                            namespaceName, pageable);
   }
 
+  /**
+   * Keyset pagination of the release histories, newest first
+   *
+   * @param beforeId the id of the last release history of the previous page, or 0 for the first page
+   */
+  public List<ReleaseHistory> findReleaseHistoriesByNamespaceBefore(String appId, String clusterName,
+                                                                    String namespaceName, long beforeId, int size) {
+    return releaseHistoryRepository.findByAppIdAndClusterNameAndNamespaceNameAndIdLessThanOrderByIdDesc(appId,
+        clusterName, namespaceName, beforeId > 0 ? beforeId : Long.MAX_VALUE, PageRequest.of(0, size));
+  }
+
   public Page<ReleaseHistory> findByReleaseIdAndOperation(long releaseId, int operation, Pageable page) {
     return releaseHistoryRepository.findByReleaseIdAndOperationOrderByIdDesc(releaseId, operation, page);
   }
@@ -83,4 +96,28 @@ public class ReleaseHistoryService {
   public int batchDelete(String appId, String clusterName, String namespaceName, String operator) {
     return releaseHistoryRepository.batchDelete(appId, clusterName, namespaceName, operator);
   }
+
+  @Transactional
+  public int batchDelete(String appId, String clusterName, String operator) {
+    return releaseHistoryRepository.batchDelete(appId, clusterName, operator);
+  }
+
+  /**
+   * Purge a batch of the release histories older than the latest retention size release histories of the namespace
+   *
+   * @return the number of release histories purged, less than the batch size if there are no more to purge
+   */
+  @Transactional
+  public int purgeReleaseHistories(String appId, String clusterName, String namespaceName, int retentionSize,
+                                   int batchSize) {
+    List<Long> maxIds = releaseHistoryRepository.findIdsByNamespace(appId, clusterName, namespaceName,
+                                                                    PageRequest.of(retentionSize, 1));
+    if (maxIds.isEmpty()) {
+      return 0;
+    }
+
+    List<Long> ids = releaseHistoryRepository.findIdsByNamespaceAndIdLessThanEqual(appId, clusterName,
+        namespaceName, maxIds.get(0), PageRequest.of(0, batchSize));
+    return ids.isEmpty() ? 0 : releaseHistoryRepository.deleteByIds(ids);
+  }
 }
@@ -4,12 +4,16 @@ import com.ctrip.framework.apollo.biz.entity.ReleaseMessage;
 import com.ctrip.framework.apollo.biz.repository.ReleaseMessageRepository;
 import com.ctrip.framework.apollo.tracer.Tracer;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Jason Song(song_s@ctrip.com)
@@ -47,4 +51,46 @@ public class ReleaseMessageService {
     }
     return releaseMessages;
   }
+
+  public ReleaseMessage findLatestReleaseMessageBefore(Date time) {
+    return releaseMessageRepository.findTopByDataChangeLastModifiedTimeLessThanOrderByIdDesc(time);
+  }
+
+  public List<ReleaseMessage> findReleaseMessagesAfter(long id) {
+    return releaseMessageRepository.findFirst500ByIdGreaterThanOrderByIdAsc(id);
+  }
+
+  /**
+   * Delete the superseded release messages, i.e. the ones having a newer message with the same content. Only the
+   * messages of the batch and the older messages with the same contents are deleted, so the messages not seen yet,
+   * e.g. the ones committed late with smaller ids, are never deleted before they are superseded.
+   *
+   * @param messages a batch of release messages ordered by id
+   * @return the number of messages deleted
+   */
+  @Transactional
+  public int deleteSupersededMessages(List<ReleaseMessage> messages) {
+    if (CollectionUtils.isEmpty(messages)) {
+      return 0;
+    }
+
+    Set<String> contents = Sets.newHashSet();
+    for (ReleaseMessage message : messages) {
+      contents.add(message.getMessage());
+    }
+    Set<Long> latestIds = Sets.newHashSet();
+    for (ReleaseMessage latestMessage : findLatestReleaseMessagesGroupByMessages(contents)) {
+      latestIds.add(latestMessage.getId());
+    }
+    List<Long> supersededIds = Lists.newArrayList();
+    for (ReleaseMessage message : messages) {
+      if (!latestIds.contains(message.getId())) {
+        supersededIds.add(message.getId());
+      }
+    }
+
+    int deleted = supersededIds.isEmpty() ? 0 : releaseMessageRepository.deleteByIdIn(supersededIds);
+    //every content of the batch has a message newer than the ones before the batch
+    return deleted + releaseMessageRepository.deleteByMessageInAndIdLessThan(contents, messages.get(0).getId());
+  }
 }
@@ -0,0 +1,66 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.ReleasePayload;
+import com.ctrip.framework.apollo.biz.repository.ReleasePayloadRepository;
+import com.ctrip.framework.apollo.biz.utils.ReleaseConfigurationsCodec;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.hash.Hashing;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+@Service
+public class ReleasePayloadService {
+  private final ReleasePayloadRepository releasePayloadRepository;
+  private final BizConfig bizConfig;
+
+  public ReleasePayloadService(
+      final ReleasePayloadRepository releasePayloadRepository,
+      final BizConfig bizConfig) {
+    this.releasePayloadRepository = releasePayloadRepository;
+    this.bizConfig = bizConfig;
+  }
+
+  /**
+   * @param configurations the json configurations
+   * @return the existing payload with the same content, or the newly created one
+   */
+  @Transactional
+  public ReleasePayload findOrCreate(String configurations) {
+    String hash = hash(configurations);
+    //a locking read, so the payload can't be purged as an orphan before the release referencing it is committed
+    ReleasePayload payload = releasePayloadRepository.findByHashForShare(hash);
+    if (payload != null) {
+      Tracer.logEvent("Apollo.ReleasePayload.Reuse", hash);
+      return payload;
+    }
+
+    String content = configurations;
+    int compressionThreshold = bizConfig.releaseConfigurationsCompressionThreshold();
+    if (compressionThreshold > 0 && configurations.length() >= compressionThreshold) {
+      content = ReleaseConfigurationsCodec.compress(configurations);
+    }
+    //publishing the same content concurrently must not fail on the primary key
+    releasePayloadRepository.insertIfAbsent(hash, content, new Date());
+    return releasePayloadRepository.findByHashForShare(hash);
+  }
+
+  /**
+   * Purge a batch of the payloads no release references any more, e.g. after the releases are purged
+   *
+   * @return the number of payloads purged, less than the batch size if there are no more to purge
+   */
+  @Transactional
+  public int purgeOrphanPayloads(int batchSize) {
+    List<String> hashes = releasePayloadRepository.findOrphanHashes(batchSize);
+    return hashes.isEmpty() ? 0 : releasePayloadRepository.deleteOrphansByHashIn(hashes);
+  }
+
+  static String hash(String configurations) {
+    return Hashing.sha256().hashString(configurations, StandardCharsets.UTF_8).toString();
+  }
+}
@@ -1,5 +1,6 @@
 package com.ctrip.framework.apollo.biz.service;
 
+import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.biz.entity.Audit;
 import com.ctrip.framework.apollo.biz.entity.GrayReleaseRule;
 import com.ctrip.framework.apollo.biz.entity.Item;
@@ -7,6 +8,7 @@ import com.ctrip.framework.apollo.biz.entity.Namespace;
 import com.ctrip.framework.apollo.biz.entity.NamespaceLock;
 import com.ctrip.framework.apollo.biz.entity.Release;
 import com.ctrip.framework.apollo.biz.entity.ReleaseHistory;
+import com.ctrip.framework.apollo.biz.entity.ReleaseSummary;
 import com.ctrip.framework.apollo.biz.repository.ReleaseRepository;
 import com.ctrip.framework.apollo.biz.utils.ReleaseKeyGenerator;
 import com.ctrip.framework.apollo.common.constants.GsonType;
@@ -62,6 +64,8 @@ public class ReleaseService {
   private final NamespaceBranchService namespaceBranchService;
   private final ReleaseHistoryService releaseHistoryService;
   private final ItemSetService itemSetService;
+  private final ReleasePayloadService releasePayloadService;
+  private final BizConfig bizConfig;
 
   public ReleaseService(
       final ReleaseRepository releaseRepository,
@@ -71,7 +75,9 @@ public class ReleaseService {
       final NamespaceService namespaceService,
       final NamespaceBranchService namespaceBranchService,
       final ReleaseHistoryService releaseHistoryService,
-      final ItemSetService itemSetService) {
+      final ItemSetService itemSetService,
+      final ReleasePayloadService releasePayloadService,
+      final BizConfig bizConfig) {
     this.releaseRepository = releaseRepository;
     this.itemService = itemService;
     this.auditService = auditService;
@@ -80,6 +86,8 @@ public class ReleaseService {
     this.namespaceBranchService = namespaceBranchService;
     this.releaseHistoryService = releaseHistoryService;
     this.itemSetService = itemSetService;
+    this.releasePayloadService = releasePayloadService;
+    this.bizConfig = bizConfig;
   }
 
   public Release findOne(long releaseId) {
@@ -138,6 +146,37 @@ public class ReleaseService {
     return releases;
   }
 
+  /**
+   * The summaries below carry the release metadata only, use them when the configurations are not needed
+   */
+  public ReleaseSummary findReleaseSummary(long releaseId) {
+    return releaseRepository.findSummaryById(releaseId);
+  }
+
+  public List<ReleaseSummary> findReleaseSummariesByReleaseIds(Set<Long> releaseIds) {
+    if (CollectionUtils.isEmpty(releaseIds)) {
+      return Collections.emptyList();
+    }
+    return releaseRepository.findSummariesByIdIn(releaseIds);
+  }
+
+  public List<ReleaseSummary> findReleaseSummariesByReleaseKeys(Set<String> releaseKeys) {
+    if (CollectionUtils.isEmpty(releaseKeys)) {
+      return Collections.emptyList();
+    }
+    return releaseRepository.findSummariesByReleaseKeyIn(releaseKeys);
+  }
+
+  public List<ReleaseSummary> findAllReleaseSummaries(String appId, String clusterName, String namespaceName,
+                                                      Pageable page) {
+    return releaseRepository.findSummariesByNamespace(appId, clusterName, namespaceName, page);
+  }
+
+  public List<ReleaseSummary> findActiveReleaseSummaries(String appId, String clusterName, String namespaceName,
+                                                         Pageable page) {
+    return releaseRepository.findActiveSummariesByNamespace(appId, clusterName, namespaceName, page);
+  }
+
   @Transactional
   public Release mergeBranchChangeSetsAndRelease(Namespace namespace, String branchName, String releaseName,
                                                  String releaseComment, boolean isEmergencyPublish,
@@ -413,7 +452,16 @@ public class ReleaseService {
     release.setAppId(namespace.getAppId());
     release.setClusterName(namespace.getClusterName());
     release.setNamespaceName(namespace.getNamespaceName());
-    release.setConfigurations(gson.toJson(configurations));
+    String configurationsJson = gson.toJson(configurations);
+    if (bizConfig.isReleasePayloadDeduplicationEnabled()) {
+      release.setPayload(releasePayloadService.findOrCreate(configurationsJson));
+    } else {
+      release.setConfigurations(configurationsJson);
+      int compressionThreshold = bizConfig.releaseConfigurationsCompressionThreshold();
+      if (compressionThreshold > 0 && configurationsJson.length() >= compressionThreshold) {
+        release.compressConfigurations();
+      }
+    }
     release = releaseRepository.save(release);
 
     namespaceLockService.unlock(namespace.getId());
@@ -559,4 +607,34 @@ public class ReleaseService {
     return releaseRepository.batchDelete(appId, clusterName, namespaceName, operator);
   }
 
+  @Transactional
+  public int batchDelete(String appId, String clusterName, String operator) {
+    return releaseRepository.batchDelete(appId, clusterName, operator);
+  }
+
+  /**
+   * Purge a batch of the releases older than the latest retention size releases of the namespace. The latest active
+   * release and the releases still referenced by release histories, gray release rules or instances are kept.
+   *
+   * @return the number of releases purged, less than the batch size if there are no more to purge
+   */
+  @Transactional
+  public int purgeReleases(String appId, String clusterName, String namespaceName, int retentionSize,
+                           int batchSize) {
+    //the newest release beyond the retention size
+    List<Long> maxIds = releaseRepository.findIdsByNamespace(appId, clusterName, namespaceName,
+                                                              PageRequest.of(retentionSize, 1));
+    if (maxIds.isEmpty()) {
+      return 0;
+    }
+
+    List<ReleaseSummary> activeReleases = releaseRepository.findActiveSummariesByNamespace(appId, clusterName,
+        namespaceName, PageRequest.of(0, 1));
+    long activeReleaseId = activeReleases.isEmpty() ? 0 : activeReleases.get(0).getId();
+
+    List<Long> ids = releaseRepository.findIdsToPurge(appId, clusterName, namespaceName, maxIds.get(0),
+                                                      activeReleaseId, PageRequest.of(0, batchSize));
+    return ids.isEmpty() ? 0 : releaseRepository.deleteByIds(ids);
+  }
+
 }
@@ -0,0 +1,76 @@
+package com.ctrip.framework.apollo.biz.utils;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes the commit change sets for storage.
+ *
+ * The plain format is the json string as is, which is what the old commits are stored in. The compressed format is
+ * the base64 of the gzipped json prefixed with the codec version, so that old and new formats could coexist in the
+ * same table.
+ */
+public class CommitChangeSetsCodec {
+  static final String GZIP_V1_PREFIX = "gzip:v1:";
+  private static final int BUFFER_SIZE = 8192;
+
+  private CommitChangeSetsCodec() {
+  }
+
+  /**
+   * Writes the json change sets through the compressor, so the json string is never held in memory as a whole
+   *
+   * @param estimatedLength the estimated length of the json change sets
+   * @return the compressed change sets
+   */
+  public static String compress(ChangeSetsWriter changeSets, int estimatedLength) {
+    //the json change sets usually compress to less than a tenth
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(estimatedLength / 8, 64));
+    bytes.write(GZIP_V1_PREFIX.getBytes(StandardCharsets.US_ASCII), 0, GZIP_V1_PREFIX.length());
+    //the json writer writes lots of short strings, buffer them before encoding
+    try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+        new GZIPOutputStream(Base64.getEncoder().wrap(bytes), BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+      changeSets.writeTo(writer);
+    } catch (IOException ex) {
+      throw new IllegalStateException("Compress commit change sets failed", ex);
+    }
+    return new String(bytes.toByteArray(), StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * @return the json change sets, no matter which format the stored change sets are in
+   */
+  public static String decompress(String storedChangeSets) {
+    if (storedChangeSets == null || !isCompressed(storedChangeSets)) {
+      return storedChangeSets;
+    }
+
+    byte[] bytes = Base64.getDecoder().decode(storedChangeSets.substring(GZIP_V1_PREFIX.length()));
+    try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return new String(ByteStreams.toByteArray(gzip), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      throw new IllegalStateException("Decompress commit change sets failed", ex);
+    }
+  }
+
+  public static boolean isCompressed(String storedChangeSets) {
+    //the plain json always starts with {
+    return storedChangeSets.startsWith(GZIP_V1_PREFIX);
+  }
+
+  public interface ChangeSetsWriter {
+
+    void writeTo(Writer writer) throws IOException;
+  }
+}
@@ -4,19 +4,26 @@ import com.ctrip.framework.apollo.biz.entity.Item;
 import com.ctrip.framework.apollo.core.utils.StringUtils;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.LinkedList;
 import java.util.List;
-import org.springframework.beans.BeanUtils;
 
 
 public class ConfigChangeContentBuilder {
 
   private static final Gson gson = new GsonBuilder().setDateFormat("yyyy-MM-dd HH:mm:ss").create();
+  private static final TypeAdapter<Date> dateAdapter = gson.getAdapter(Date.class);
+  //rough json size of an item besides the key and value
+  private static final int ITEM_JSON_OVERHEAD = 200;
 
-  private List<Item> createItems = new LinkedList<>();
-  private List<ItemPair> updateItems = new LinkedList<>();
-  private List<Item> deleteItems = new LinkedList<>();
+  private List<Item> createItems = new ArrayList<>();
+  private List<ItemPair> updateItems = new ArrayList<>();
+  private List<Item> deleteItems = new ArrayList<>();
 
 
   public ConfigChangeContentBuilder createItem(Item item) {
@@ -45,22 +52,97 @@ public class ConfigChangeContentBuilder {
     return !createItems.isEmpty() || !updateItems.isEmpty() || !deleteItems.isEmpty();
   }
 
+  /**
+   * Writes the changes as json straight from the item fields, in the same format {@link #convertJsonString(String)}
+   * reads
+   */
   public String build() {
+    StringWriter content = new StringWriter(estimateLength());
+    try {
+      writeTo(content);
+    } catch (IOException ex) {
+      //never happens when writing to a string
+      throw new IllegalStateException("Build config change content failed", ex);
+    }
+    return content.toString();
+  }
+
+  /**
+   * Streams the json changes into the compressor, see {@link CommitChangeSetsCodec}
+   */
+  public String buildCompressed() {
+    return CommitChangeSetsCodec.compress(this::writeTo, estimateLength());
+  }
+
+  private void writeTo(Writer content) throws IOException {
     //因为事务第一段提交并没有更新时间,所以build时统一更新
     Date now = new Date();
 
+    JsonWriter writer = new JsonWriter(content);
+    //null fields are omitted, the same as gson does by default
+    writer.setSerializeNulls(false);
+    writer.beginObject();
+    writer.name("createItems").beginArray();
     for (Item item : createItems) {
-      item.setDataChangeLastModifiedTime(now);
+      writeItem(writer, item, now);
     }
-
+    writer.endArray();
+    writer.name("updateItems").beginArray();
     for (ItemPair item : updateItems) {
-      item.newItem.setDataChangeLastModifiedTime(now);
+      writer.beginObject();
+      writer.name("oldItem");
+      writeItem(writer, item.oldItem, item.oldItem.getDataChangeLastModifiedTime());
+      writer.name("newItem");
+      writeItem(writer, item.newItem, now);
+      writer.endObject();
+    }
+    writer.endArray();
+    writer.name("deleteItems").beginArray();
+    for (Item item : deleteItems) {
+      writeItem(writer, item, now);
     }
+    writer.endArray();
+    writer.endObject();
+    writer.flush();
+  }
 
+  private void writeItem(JsonWriter writer, Item item, Date lastModifiedTime) throws IOException {
+    writer.beginObject();
+    writer.name("namespaceId").value(item.getNamespaceId());
+    writer.name("key").value(item.getKey());
+    writer.name("value").value(item.getValue());
+    writer.name("comment").value(item.getComment());
+    writer.name("lineNum").value(item.getLineNum());
+    writer.name("id").value(item.getId());
+    writer.name("isDeleted").value(item.isDeleted());
+    writer.name("dataChangeCreatedBy").value(item.getDataChangeCreatedBy());
+    writer.name("dataChangeCreatedTime");
+    dateAdapter.write(writer, item.getDataChangeCreatedTime());
+    writer.name("dataChangeLastModifiedBy").value(item.getDataChangeLastModifiedBy());
+    writer.name("dataChangeLastModifiedTime");
+    dateAdapter.write(writer, lastModifiedTime);
+    writer.endObject();
+  }
+
+  /**
+   * @return the rough length of the json changes, without building them
+   */
+  public int estimateLength() {
+    long length = 0;
+    for (Item item : createItems) {
+      length += estimateLength(item);
+    }
+    for (ItemPair item : updateItems) {
+      length += estimateLength(item.oldItem) + estimateLength(item.newItem);
+    }
     for (Item item : deleteItems) {
-      item.setDataChangeLastModifiedTime(now);
+      length += estimateLength(item);
     }
-    return gson.toJson(this);
+    return (int) Math.min(length + 64, Integer.MAX_VALUE - 8);
+  }
+
+  private long estimateLength(Item item) {
+    return ITEM_JSON_OVERHEAD + item.getKey().length() + (item.getValue() == null ? 0 : item.getValue().length());
   }
 
   static class ItemPair {
@@ -74,10 +156,23 @@ public class ConfigChangeContentBuilder {
     }
   }
 
+  /**
+   * Copies the fields written to the commit only, the items might be changed before the content is built. The strings
+   * are shared rather than copied.
+   */
   Item cloneItem(Item source) {
     Item target = new Item();
-
-    BeanUtils.copyProperties(source, target);
+    target.setId(source.getId());
+    target.setNamespaceId(source.getNamespaceId());
+    target.setKey(source.getKey());
+    target.setValue(source.getValue());
+    target.setComment(source.getComment());
+    target.setLineNum(source.getLineNum());
+    target.setDeleted(source.isDeleted());
+    target.setDataChangeCreatedBy(source.getDataChangeCreatedBy());
+    target.setDataChangeCreatedTime(source.getDataChangeCreatedTime());
+    target.setDataChangeLastModifiedBy(source.getDataChangeLastModifiedBy());
+    target.setDataChangeLastModifiedTime(source.getDataChangeLastModifiedTime());
 
     return target;
   }
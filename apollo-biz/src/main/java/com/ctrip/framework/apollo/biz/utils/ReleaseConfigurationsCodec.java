@@ -0,0 +1,66 @@
+package com.ctrip.framework.apollo.biz.utils;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes the release configurations for storage.
+ *
+ * The plain format is the json string as is, which is what the old releases are stored in. The compressed format
+ * is prefixed with the codec version, so that old and new formats could coexist in the same table.
+ */
+public class ReleaseConfigurationsCodec {
+  static final String GZIP_V1_PREFIX = "gzip:v1:";
+
+  private ReleaseConfigurationsCodec() {
+  }
+
+  /**
+   * @return the compressed configurations, or the configurations as is if compressing doesn't make it smaller
+   */
+  public static String compress(String configurations) {
+    if (configurations == null || isCompressed(configurations)) {
+      return configurations;
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(configurations.length() / 4);
+    try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+      gzip.write(configurations.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException ex) {
+      throw new IllegalStateException("Compress release configurations failed", ex);
+    }
+
+    String compressed = GZIP_V1_PREFIX + Base64.getEncoder().encodeToString(bytes.toByteArray());
+    return compressed.length() < configurations.length() ? compressed : configurations;
+  }
+
+  /**
+   * @return the json configurations, no matter which format the stored configurations are in
+   */
+  public static String decompress(String storedConfigurations) {
+    if (storedConfigurations == null || !isCompressed(storedConfigurations)) {
+      return storedConfigurations;
+    }
+
+    byte[] bytes = Base64.getDecoder().decode(storedConfigurations.substring(GZIP_V1_PREFIX.length()));
+    try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return new String(ByteStreams.toByteArray(gzip), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      throw new IllegalStateException("Decompress release configurations failed", ex);
+    }
+  }
+
+  public static boolean isCompressed(String storedConfigurations) {
+    //the plain json always starts with {
+    return storedConfigurations.startsWith(GZIP_V1_PREFIX);
+  }
+}
@@ -0,0 +1,76 @@
+package com.ctrip.framework.apollo.biz.datasource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class ReplicaRoutingDataSourceTest {
+  private ReplicaRoutingDataSource routingDataSource;
+  private ReplicaRouting replicaRouting;
+
+  @Before
+  public void setUp() throws Exception {
+    routingDataSource = new ReplicaRoutingDataSource(mock(DataSource.class), mock(DataSource.class));
+    replicaRouting = new ReplicaRouting();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+
+  @Test
+  public void testRouteReadOnlyTransactionToReplica() throws Exception {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    assertEquals(ReplicaRoutingDataSource.REPLICA,
+        replicaRouting.executeOnReplica(routingDataSource::determineCurrentLookupKey));
+  }
+
+  @Test
+  public void testRouteReadOnlyTransactionToPrimaryByDefault() throws Exception {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+  }
+
+  @Test
+  public void testRouteReadWriteTransactionToPrimary() throws Exception {
+    assertEquals(ReplicaRoutingDataSource.PRIMARY,
+        replicaRouting.executeOnReplica(routingDataSource::determineCurrentLookupKey));
+  }
+
+  @Test
+  public void testRouteToReplicaWhenReleaseMessageReplicated() throws Exception {
+    long someReplicatedReleaseMessageId = 10;
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    replicaRouting.updateReplicatedReleaseMessageId(someReplicatedReleaseMessageId);
+
+    Object lookupKey = replicaRouting.executeWithReleaseMessage(someReplicatedReleaseMessageId,
+        () -> replicaRouting.executeOnReplica(routingDataSource::determineCurrentLookupKey));
+
+    assertEquals(ReplicaRoutingDataSource.REPLICA, lookupKey);
+  }
+
+  @Test
+  public void testRouteToPrimaryWhenReleaseMessageNotReplicated() throws Exception {
+    long someReplicatedReleaseMessageId = 10;
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    replicaRouting.updateReplicatedReleaseMessageId(someReplicatedReleaseMessageId);
+
+    Object lookupKey = replicaRouting.executeWithReleaseMessage(someReplicatedReleaseMessageId + 1,
+        () -> replicaRouting.executeOnReplica(routingDataSource::determineCurrentLookupKey));
+
+    assertEquals(ReplicaRoutingDataSource.PRIMARY, lookupKey);
+    //the hints should be cleared afterwards
+    assertEquals(ReplicaRoutingDataSource.REPLICA,
+        replicaRouting.executeOnReplica(routingDataSource::determineCurrentLookupKey));
+    assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+  }
+}
@@ -4,6 +4,7 @@ import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
 import com.ctrip.framework.apollo.biz.entity.Instance;
 import com.ctrip.framework.apollo.biz.entity.InstanceConfig;
 import java.util.Date;
+import java.util.List;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -11,6 +12,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.Rollback;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
 /**
@@ -54,4 +56,28 @@ public class InstanceConfigRepositoryTest extends AbstractIntegrationTest {
     );
     assertThat(ids.getContent(), hasSize(5));
   }
+
+  @Rollback
+  @Test
+  public void shouldFindMostUsedNamespaces() {
+    for (int i = 0; i < 3; i++) {
+      saveInstanceConfig(i, "someNamespace");
+    }
+    saveInstanceConfig(3, "anotherNamespace");
+
+    List<Object[]> namespaces = instanceConfigRepository.findMostUsedNamespaces(new Date(0), PageRequest.of(0, 1));
+
+    assertThat(namespaces, hasSize(1));
+    assertEquals("someNamespace", namespaces.get(0)[2]);
+    assertEquals(3L, namespaces.get(0)[3]);
+  }
+
+  private void saveInstanceConfig(long instanceId, String namespaceName) {
+    InstanceConfig instanceConfig = new InstanceConfig();
+    instanceConfig.setConfigAppId("appId");
+    instanceConfig.setInstanceId(instanceId);
+    instanceConfig.setConfigClusterName("cluster");
+    instanceConfig.setConfigNamespaceName(namespaceName);
+    instanceConfigRepository.save(instanceConfig);
+  }
 }
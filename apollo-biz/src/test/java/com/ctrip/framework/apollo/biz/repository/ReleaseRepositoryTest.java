@@ -0,0 +1,85 @@
+package com.ctrip.framework.apollo.biz.repository;
+
+import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
+import com.ctrip.framework.apollo.biz.entity.Release;
+import com.ctrip.framework.apollo.biz.entity.ReleaseSummary;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReleaseRepositoryTest extends AbstractIntegrationTest {
+  private static final String someAppId = "someAppId";
+  private static final String someCluster = "someCluster";
+  private static final String someNamespace = "someNamespace";
+
+  @Autowired
+  private ReleaseRepository releaseRepository;
+
+  @Test
+  public void testFindSummaries() {
+    Release someRelease = releaseRepository.save(assembleRelease("someReleaseKey", false));
+    Release abandonedRelease = releaseRepository.save(assembleRelease("abandonedReleaseKey", true));
+    Release latestRelease = releaseRepository.save(assembleRelease("latestReleaseKey", false));
+
+    List<ReleaseSummary> summaries = releaseRepository.findSummariesByNamespace(someAppId, someCluster,
+        someNamespace, PageRequest.of(0, 2));
+
+    assertEquals(2, summaries.size());
+    assertEquals(latestRelease.getId(), summaries.get(0).getId());
+    assertEquals(abandonedRelease.getId(), summaries.get(1).getId());
+    assertTrue(summaries.get(1).isAbandoned());
+
+    List<ReleaseSummary> activeSummaries = releaseRepository.findActiveSummariesByNamespace(someAppId,
+        someCluster, someNamespace, PageRequest.of(0, 10));
+
+    assertEquals(2, activeSummaries.size());
+    assertEquals(latestRelease.getId(), activeSummaries.get(0).getId());
+    assertEquals(someRelease.getId(), activeSummaries.get(1).getId());
+
+    ReleaseSummary summary = releaseRepository.findSummaryById(someRelease.getId());
+
+    assertEquals(someRelease.getReleaseKey(), summary.getReleaseKey());
+    assertEquals(someRelease.getName(), summary.getName());
+    assertEquals(someRelease.getComment(), summary.getComment());
+    assertEquals(someNamespace, summary.getNamespaceName());
+    assertEquals(someRelease.getDataChangeCreatedBy(), summary.getDataChangeCreatedBy());
+    assertNotNull(summary.getDataChangeCreatedTime());
+    assertFalse(summary.isAbandoned());
+
+    assertEquals(2, releaseRepository.findSummariesByIdIn(
+        Sets.newHashSet(someRelease.getId(), latestRelease.getId())).size());
+    assertEquals(1, releaseRepository.findSummariesByReleaseKeyIn(Sets.newHashSet("abandonedReleaseKey")).size());
+  }
+
+  @Test
+  public void testFindSummaryOfDeletedRelease() {
+    Release someRelease = releaseRepository.save(assembleRelease("someReleaseKey", false));
+
+    releaseRepository.delete(someRelease);
+
+    assertNull(releaseRepository.findSummaryById(someRelease.getId()));
+  }
+
+  private Release assembleRelease(String releaseKey, boolean isAbandoned) {
+    Release release = new Release();
+    release.setReleaseKey(releaseKey);
+    release.setName(releaseKey + "-name");
+    release.setComment(releaseKey + "-comment");
+    release.setAppId(someAppId);
+    release.setClusterName(someCluster);
+    release.setNamespaceName(someNamespace);
+    release.setConfigurations("{\"k1\":\"v1\"}");
+    release.setAbandoned(isAbandoned);
+    release.setDataChangeCreatedBy("someOperator");
+    return release;
+  }
+}
@@ -0,0 +1,97 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.Audit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//the audits are written in their own transactions, so they are not rolled back with the test
+@Sql(statements = "DELETE FROM Audit WHERE EntityName = 'someEntity'",
+    executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD,
+    config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
+public class AsyncAuditWriterTest extends AbstractIntegrationTest {
+  private static final String SOME_ENTITY = "someEntity";
+  private static final String COUNT_SQL = "SELECT COUNT(*) FROM Audit WHERE EntityName = ?";
+
+  @Autowired
+  private DataSource dataSource;
+  private BizConfig bizConfig;
+  private JdbcTemplate jdbcTemplate;
+
+  @Before
+  public void setUp() {
+    bizConfig = mock(BizConfig.class);
+    when(bizConfig.auditAsyncBatchSize()).thenReturn(2);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  @Test
+  public void testWriteInBackground() throws Exception {
+    when(bizConfig.auditAsyncQueueCapacity()).thenReturn(10);
+    AsyncAuditWriter asyncAuditWriter = new AsyncAuditWriter(dataSource, bizConfig);
+    asyncAuditWriter.initialize();
+
+    for (long i = 0; i < 5; i++) {
+      assertTrue(asyncAuditWriter.offer(assembleAudit(i)));
+    }
+
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+    while (countAudits() < 5 && System.currentTimeMillis() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(50);
+    }
+    asyncAuditWriter.stop();
+
+    assertEquals(5, countAudits());
+  }
+
+  @Test
+  public void testFlushOnStop() throws Exception {
+    when(bizConfig.auditAsyncQueueCapacity()).thenReturn(3);
+    //not initialized, so nothing is written in background
+    AsyncAuditWriter asyncAuditWriter = new AsyncAuditWriter(dataSource, bizConfig);
+
+    for (long i = 0; i < 3; i++) {
+      assertTrue(asyncAuditWriter.offer(assembleAudit(i)));
+    }
+    assertFalse(asyncAuditWriter.offer(assembleAudit(3)));
+    assertEquals(0, countAudits());
+
+    asyncAuditWriter.stop();
+
+    assertEquals(3, countAudits());
+    assertFalse(asyncAuditWriter.offer(assembleAudit(4)));
+  }
+
+  private int countAudits() {
+    return jdbcTemplate.queryForObject(COUNT_SQL, Integer.class, SOME_ENTITY);
+  }
+
+  private Audit assembleAudit(long entityId) {
+    Date now = new Date();
+    Audit audit = new Audit();
+    audit.setEntityName(SOME_ENTITY);
+    audit.setEntityId(entityId);
+    audit.setOpName(Audit.OP.INSERT.name());
+    audit.setDataChangeCreatedBy("someOperator");
+    audit.setDataChangeCreatedTime(now);
+    audit.setDataChangeLastModifiedTime(now);
+    return audit;
+  }
+}
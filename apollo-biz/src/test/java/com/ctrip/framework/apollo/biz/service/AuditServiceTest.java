@@ -0,0 +1,123 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractUnitTest;
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.Audit;
+import com.ctrip.framework.apollo.biz.repository.AuditRepository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AuditServiceTest extends AbstractUnitTest {
+  private static final String SOME_ENTITY = "someEntity";
+  private static final long SOME_ENTITY_ID = 1;
+  private static final String SOME_OWNER = "someOwner";
+
+  @Mock
+  private AuditRepository auditRepository;
+  @Mock
+  private AsyncAuditWriter asyncAuditWriter;
+  @Mock
+  private BizConfig bizConfig;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private AuditService auditService;
+
+  @Before
+  public void setUp() {
+    auditService = new AuditService(auditRepository, asyncAuditWriter, bizConfig, transactionManager);
+  }
+
+  @After
+  public void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  public void testAuditSync() {
+    auditService.audit(SOME_ENTITY, SOME_ENTITY_ID, Audit.OP.INSERT, SOME_OWNER);
+
+    verify(auditRepository).save(any(Audit.class));
+    verify(asyncAuditWriter, never()).offer(any(Audit.class));
+  }
+
+  @Test
+  public void testAuditAsync() {
+    when(bizConfig.isAuditAsyncEnabled()).thenReturn(true);
+    when(asyncAuditWriter.offer(any(Audit.class))).thenReturn(true);
+
+    auditService.audit(SOME_ENTITY, SOME_ENTITY_ID, Audit.OP.INSERT, SOME_OWNER);
+
+    ArgumentCaptor<Audit> captor = ArgumentCaptor.forClass(Audit.class);
+    verify(asyncAuditWriter).offer(captor.capture());
+    verify(auditRepository, never()).save(any(Audit.class));
+    assertEquals(SOME_ENTITY, captor.getValue().getEntityName());
+    assertNotNull(captor.getValue().getDataChangeCreatedTime());
+    assertNotNull(captor.getValue().getDataChangeLastModifiedTime());
+  }
+
+  @Test
+  public void testAuditAsyncWhenBufferIsFull() {
+    when(bizConfig.isAuditAsyncEnabled()).thenReturn(true);
+    when(asyncAuditWriter.offer(any(Audit.class))).thenReturn(false);
+
+    auditService.audit(SOME_ENTITY, SOME_ENTITY_ID, Audit.OP.INSERT, SOME_OWNER);
+
+    verify(auditRepository).save(any(Audit.class));
+  }
+
+  @Test
+  public void testAuditAsyncInTransaction() {
+    when(bizConfig.isAuditAsyncEnabled()).thenReturn(true);
+    when(asyncAuditWriter.offer(any(Audit.class))).thenReturn(true);
+    TransactionSynchronizationManager.initSynchronization();
+
+    auditService.audit(SOME_ENTITY, SOME_ENTITY_ID, Audit.OP.INSERT, SOME_OWNER);
+
+    //nothing is buffered before the transaction commits
+    verify(asyncAuditWriter, never()).offer(any(Audit.class));
+
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCommit();
+    }
+
+    verify(asyncAuditWriter).offer(any(Audit.class));
+    verify(auditRepository, never()).save(any(Audit.class));
+  }
+
+  @Test
+  public void testAuditAsyncInTransactionWhenBufferIsFull() {
+    when(bizConfig.isAuditAsyncEnabled()).thenReturn(true);
+    when(asyncAuditWriter.offer(any(Audit.class))).thenReturn(false);
+    TransactionSynchronizationManager.initSynchronization();
+
+    auditService.audit(SOME_ENTITY, SOME_ENTITY_ID, Audit.OP.INSERT, SOME_OWNER);
+
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCommit();
+    }
+
+    //the caller's transaction is already committed
+    verify(transactionManager).getTransaction(argThat(definition ->
+        definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    verify(auditRepository).save(any(Audit.class));
+  }
+}
@@ -14,11 +14,14 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -64,6 +67,7 @@ public class BizDBPropertySourceTest extends AbstractUnitTest {
 
     when(propertySource.getCurrentDataCenter()).thenReturn(dc);
     when(serverConfigRepository.findAll()).thenReturn(configs);
+    when(serverConfigRepository.findVersion()).thenReturn(assembleVersion(configs.size(), 1, configs.size()));
   }
 
   @After
@@ -100,5 +104,47 @@ public class BizDBPropertySourceTest extends AbstractUnitTest {
     assertNull(propertySource.getProperty("noKey"));
   }
 
+  @Test
+  public void testRefreshOnlyWhenChanged() {
+    propertySource.refresh();
+    //loaded once more to catch the changes made right after the first load
+    propertySource.refresh();
+    propertySource.refresh();
+
+    verify(serverConfigRepository, times(2)).findAll();
+
+    List<ServerConfig> changedConfigs = Lists.newArrayList(
+        MockBeanFactory.mockServerConfig(defaultKey, "changedValue", ConfigConsts.CLUSTER_NAME_DEFAULT));
+    when(serverConfigRepository.findAll()).thenReturn(changedConfigs);
+    when(serverConfigRepository.findVersion()).thenReturn(assembleVersion(6, 2, 6));
+
+    propertySource.refresh();
+
+    verify(serverConfigRepository, times(3)).findAll();
+    assertEquals("changedValue", propertySource.getProperty(defaultKey));
+  }
+
+  @Test
+  public void testRefreshWhenDeletedAndInsertedInTheSameSecond() {
+    propertySource.refresh();
+    propertySource.refresh();
+    propertySource.refresh();
+
+    verify(serverConfigRepository, times(2)).findAll();
+
+    //one config is deleted and another is inserted, the count and the last modified time stay the same
+    when(serverConfigRepository.findVersion()).thenReturn(assembleVersion(6, 1, 7));
+
+    propertySource.refresh();
+
+    verify(serverConfigRepository, times(3)).findAll();
+  }
+
+  private List<Object[]> assembleVersion(long count, long lastModifiedTime, long maxId) {
+    List<Object[]> version = Lists.newArrayList();
+    version.add(new Object[]{count, new Date(lastModifiedTime), maxId});
+    return version;
+  }
+
 
 }
@@ -1,11 +1,14 @@
 package com.ctrip.framework.apollo.biz.service;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
 import com.ctrip.framework.apollo.biz.entity.Instance;
 import com.ctrip.framework.apollo.biz.entity.InstanceConfig;
+import com.ctrip.framework.apollo.biz.entity.InstanceConfigCount;
+import com.ctrip.framework.apollo.biz.repository.InstanceConfigCountRepository;
 
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,12 +20,16 @@ import org.springframework.test.annotation.Rollback;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Jason Song(song_s@ctrip.com)
@@ -30,6 +37,8 @@ import static org.junit.Assert.assertNull;
 public class InstanceServiceTest extends AbstractIntegrationTest {
   @Autowired
   private InstanceService instanceService;
+  @Autowired
+  private InstanceConfigCountRepository instanceConfigCountRepository;
 
   @Test
   @Rollback
@@ -250,6 +259,125 @@ public class InstanceServiceTest extends AbstractIntegrationTest {
     return instanceService.createInstanceConfig(someConfig);
   }
 
+  @Test
+  @Rollback
+  public void testFindInstancesByNamespaceAfter() throws Exception {
+    String someConfigAppId = "someConfigAppId";
+    String someConfigClusterName = "someConfigClusterName";
+    String someConfigNamespaceName = "someConfigNamespaceName";
+
+    List<Long> instanceIds = Lists.newArrayList();
+    for (int i = 0; i < 5; i++) {
+      Instance instance = instanceService.createInstance(assembleInstance("someAppId", "someClusterName",
+          "someDataCenter", "someIp" + i));
+      instanceService.createInstanceConfig(assembleInstanceConfig(instance.getId(), someConfigAppId,
+          someConfigClusterName, someConfigNamespaceName, "someReleaseKey"));
+      instanceIds.add(instance.getId());
+    }
+
+    List<Instance> firstPage = instanceService.findInstancesByNamespaceAfter(someConfigAppId,
+        someConfigClusterName, someConfigNamespaceName, 0, 2);
+    List<Instance> lastPage = instanceService.findInstancesByNamespaceAfter(someConfigAppId,
+        someConfigClusterName, someConfigNamespaceName, instanceIds.get(3), 2);
+
+    assertEquals(instanceIds.subList(0, 2), firstPage.stream().map(Instance::getId).collect(Collectors.toList()));
+    assertEquals(instanceIds.subList(4, 5), lastPage.stream().map(Instance::getId).collect(Collectors.toList()));
+  }
+
+  @Test
+  @Rollback
+  public void testPurgeInstanceConfigsNotModifiedSince() throws Exception {
+    Date now = new Date();
+    Date someValidDate = new Date(now.getTime() - TimeUnit.DAYS.toMillis(2));
+    Date someExpiredDate = new Date(now.getTime() - TimeUnit.DAYS.toMillis(40));
+    Date retentionTime = new Date(now.getTime() - TimeUnit.DAYS.toMillis(30));
+
+    Instance someInstance = instanceService.createInstance(assembleInstance("someAppId", "default", "someDC",
+        "someIp"));
+    for (int i = 0; i < 3; i++) {
+      InstanceConfig expiredConfig = assembleInstanceConfig(someInstance.getId(), "someConfigAppId", "default",
+          "expiredNamespace" + i, "someReleaseKey");
+      expiredConfig.setDataChangeCreatedTime(someExpiredDate);
+      instanceService.createInstanceConfig(expiredConfig);
+    }
+    InstanceConfig validConfig = assembleInstanceConfig(someInstance.getId(), "someConfigAppId", "default",
+        "validNamespace", "someReleaseKey");
+    validConfig.setDataChangeCreatedTime(someValidDate);
+    instanceService.createInstanceConfig(validConfig);
+
+    assertEquals(2, instanceService.purgeInstanceConfigsNotModifiedSince(retentionTime, 2));
+    assertEquals(1, instanceService.purgeInstanceConfigsNotModifiedSince(retentionTime, 2));
+    assertEquals(0, instanceService.purgeInstanceConfigsNotModifiedSince(retentionTime, 2));
+
+    assertNull(instanceService.findInstanceConfig(someInstance.getId(), "someConfigAppId", "expiredNamespace0"));
+    assertNotNull(instanceService.findInstanceConfig(someInstance.getId(), "someConfigAppId", "validNamespace"));
+  }
+
+  @Test
+  @Rollback
+  public void testPurgeInstancesNotModifiedSince() throws Exception {
+    Date now = new Date();
+    Date someExpiredDate = new Date(now.getTime() - TimeUnit.DAYS.toMillis(40));
+    Date retentionTime = new Date(now.getTime() - TimeUnit.DAYS.toMillis(30));
+
+    Instance expiredInstance = assembleInstance("someAppId", "default", "someDC", "someIp");
+    expiredInstance.setDataChangeCreatedTime(someExpiredDate);
+    expiredInstance = instanceService.createInstance(expiredInstance);
+    //still reporting, though the instance itself is old
+    Instance activeInstance = assembleInstance("someAppId", "default", "someDC", "anotherIp");
+    activeInstance.setDataChangeCreatedTime(someExpiredDate);
+    activeInstance = instanceService.createInstance(activeInstance);
+    instanceService.createInstanceConfig(assembleInstanceConfig(activeInstance.getId(), "someConfigAppId",
+        "default", "someNamespace", "someReleaseKey"));
+    Instance newInstance = instanceService.createInstance(assembleInstance("someAppId", "default", "someDC",
+        "yetAnotherIp"));
+
+    assertEquals(1, instanceService.purgeInstancesNotModifiedSince(retentionTime, 10));
+
+    assertEquals(Sets.newHashSet(activeInstance.getId(), newInstance.getId()),
+        instanceService.findInstancesByIds(Sets.newHashSet(expiredInstance.getId(), activeInstance.getId(),
+            newInstance.getId())).stream().map(Instance::getId).collect(Collectors.toSet()));
+  }
+
+  @Test
+  @Rollback
+  public void testInstanceConfigCount() throws Exception {
+    String someAppId = "someConfigAppId";
+    String someNamespace = "someNamespace";
+    Date someInactiveDate = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+
+    InstanceConfig someConfig = instanceService.createInstanceConfig(assembleInstanceConfig(1, someAppId,
+        "default", someNamespace, "someReleaseKey"));
+    instanceService.createInstanceConfig(assembleInstanceConfig(2, someAppId, "default", someNamespace,
+        "someReleaseKey"));
+    InstanceConfig inactiveConfig = assembleInstanceConfig(3, someAppId, "default", someNamespace, "someReleaseKey");
+    inactiveConfig.setDataChangeCreatedTime(someInactiveDate);
+    instanceService.createInstanceConfig(inactiveConfig);
+    InstanceConfig anotherConfig = instanceService.createInstanceConfig(assembleInstanceConfig(1, someAppId,
+        "default", "anotherNamespace", "someReleaseKey"));
+
+    assertEquals(anotherConfig.getId(), instanceService.findMaxInstanceConfigId());
+    assertEquals(ImmutableMap.of("someReleaseKey", 1L), toCounts(instanceService.countActiveInstanceConfigs(
+        someConfig.getId() - 1, someConfig.getId()), someNamespace));
+
+    Date someTime = new Date(System.currentTimeMillis() / 1000 * 1000 - 1000);
+    List<InstanceConfigCount> counts = instanceService.countActiveInstanceConfigs(0, anotherConfig.getId());
+    instanceService.saveInstanceConfigCounts(counts, someTime);
+
+    assertEquals(ImmutableMap.of("someReleaseKey", 2L), findCounts(someAppId, "default", someNamespace));
+    assertEquals(ImmutableMap.of("someReleaseKey", 1L), findCounts(someAppId, "default", "anotherNamespace"));
+    assertEquals(2, (long) instanceConfigCountRepository.sumByNamespace(someAppId, "default", someNamespace));
+
+    //the namespace has no active instances any more
+    Date anotherTime = new Date(someTime.getTime() + 1000);
+    instanceService.saveInstanceConfigCounts(counts.stream().filter(count -> someNamespace.equals(
+        count.getConfigNamespaceName())).collect(Collectors.toList()), anotherTime);
+
+    assertEquals(1, instanceService.deleteInstanceConfigCountsNotModifiedSince(anotherTime));
+    assertEquals(ImmutableMap.of("someReleaseKey", 2L), findCounts(someAppId, "default", someNamespace));
+    assertTrue(findCounts(someAppId, "default", "anotherNamespace").isEmpty());
+  }
+
   private Instance assembleInstance(String appId, String clusterName, String dataCenter, String
       ip) {
     Instance instance = new Instance();
@@ -271,4 +399,14 @@ public class InstanceServiceTest extends AbstractIntegrationTest {
     instanceConfig.setReleaseKey(releaseKey);
     return instanceConfig;
   }
+
+  private Map<String, Long> findCounts(String appId, String clusterName, String namespaceName) {
+    return toCounts(instanceConfigCountRepository.findByConfigAppIdAndConfigClusterNameAndConfigNamespaceName(appId,
+        clusterName, namespaceName), namespaceName);
+  }
+
+  private Map<String, Long> toCounts(List<InstanceConfigCount> counts, String namespaceName) {
+    return counts.stream().filter(count -> namespaceName.equals(count.getConfigNamespaceName()))
+        .collect(Collectors.toMap(InstanceConfigCount::getReleaseKey, InstanceConfigCount::getInstanceCount));
+  }
 }
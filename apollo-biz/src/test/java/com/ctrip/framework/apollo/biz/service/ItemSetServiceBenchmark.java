@@ -0,0 +1,78 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
+import com.ctrip.framework.apollo.biz.entity.Item;
+import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
+import com.ctrip.framework.apollo.common.dto.ItemDTO;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Times the text mode edit of a big namespace, run with -Dbenchmark
+ */
+public class ItemSetServiceBenchmark extends AbstractIntegrationTest {
+  private static final Logger logger = LoggerFactory.getLogger(ItemSetServiceBenchmark.class);
+  private static final int LOTS_OF_ITEMS = 10000;
+
+  @Autowired
+  private ItemSetService itemSetService;
+  @Autowired
+  private ItemService itemService;
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private String someAppId = "someAppId";
+  private String someClusterName = "someClusterName";
+  private String someNamespaceName = "someNamespaceName";
+  private long someNamespaceId = 1000;
+  private String someOperator = "someOperator";
+
+  @Test
+  public void benchmarkUpdateSetWithLotsOfItems() {
+    ItemChangeSets createChangeSets = new ItemChangeSets();
+    createChangeSets.setDataChangeLastModifiedBy(someOperator);
+    for (int i = 0; i < LOTS_OF_ITEMS; i++) {
+      createChangeSets.addCreateItem(assembleItem(0, "k" + i, "v" + i, 0));
+    }
+
+    long start = System.currentTimeMillis();
+    itemSetService.updateSet(someAppId, someClusterName, someNamespaceName, createChangeSets);
+    entityManager.flush();
+    long createTime = System.currentTimeMillis() - start;
+    entityManager.clear();
+
+    List<Item> createdItems = itemService.findItemsWithOrdered(someNamespaceId);
+    assertEquals(LOTS_OF_ITEMS, createdItems.size());
+
+    ItemChangeSets updateChangeSets = new ItemChangeSets();
+    updateChangeSets.setDataChangeLastModifiedBy(someOperator);
+    for (Item item : createdItems) {
+      updateChangeSets.addUpdateItem(
+          assembleItem(item.getId(), item.getKey(), item.getValue() + "-updated", item.getLineNum()));
+    }
+
+    start = System.currentTimeMillis();
+    itemSetService.updateSet(someAppId, someClusterName, someNamespaceName, updateChangeSets);
+    entityManager.flush();
+    long updateTime = System.currentTimeMillis() - start;
+
+    logger.info("Created {} items in {} ms, updated them in {} ms", LOTS_OF_ITEMS, createTime, updateTime);
+  }
+
+  private ItemDTO assembleItem(long id, String key, String value, int lineNum) {
+    ItemDTO item = new ItemDTO(key, value, "", lineNum);
+    item.setId(id);
+    item.setNamespaceId(someNamespaceId);
+    return item;
+  }
+}
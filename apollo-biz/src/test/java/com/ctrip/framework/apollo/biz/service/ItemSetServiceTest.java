@@ -0,0 +1,120 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
+import com.ctrip.framework.apollo.biz.entity.Commit;
+import com.ctrip.framework.apollo.biz.entity.Item;
+import com.ctrip.framework.apollo.biz.utils.ConfigChangeContentBuilder;
+import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
+import com.ctrip.framework.apollo.common.dto.ItemDTO;
+import com.ctrip.framework.apollo.common.exception.NotFoundException;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.junit.Assert.assertEquals;
+
+public class ItemSetServiceTest extends AbstractIntegrationTest {
+  @Autowired
+  private ItemSetService itemSetService;
+  @Autowired
+  private ItemService itemService;
+  @Autowired
+  private CommitService commitService;
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private String someAppId = "someAppId";
+  private String someClusterName = "someClusterName";
+  private String someNamespaceName = "someNamespaceName";
+  private long someNamespaceId = 1000;
+  private String someOperator = "someOperator";
+
+  @Test
+  public void testUpdateSetWithCreatedAndUpdatedItems() {
+    ItemChangeSets createChangeSets = new ItemChangeSets();
+    createChangeSets.setDataChangeLastModifiedBy(someOperator);
+    for (int i = 0; i < 3; i++) {
+      createChangeSets.addCreateItem(assembleItem(0, "k" + i, "v" + i, 0));
+    }
+
+    itemSetService.updateSet(someAppId, someClusterName, someNamespaceName, createChangeSets);
+    entityManager.flush();
+    entityManager.clear();
+
+    List<Item> createdItems = itemService.findItemsWithOrdered(someNamespaceId);
+    assertEquals(3, createdItems.size());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(i + 1, (int) createdItems.get(i).getLineNum());
+      assertEquals("v" + i, createdItems.get(i).getValue());
+    }
+
+    ItemChangeSets updateChangeSets = new ItemChangeSets();
+    updateChangeSets.setDataChangeLastModifiedBy(someOperator);
+    for (Item item : createdItems) {
+      updateChangeSets.addUpdateItem(
+          assembleItem(item.getId(), item.getKey(), item.getValue() + "-updated", item.getLineNum()));
+    }
+    updateChangeSets.addCreateItem(assembleItem(0, "newKey", "newValue", 0));
+
+    itemSetService.updateSet(someAppId, someClusterName, someNamespaceName, updateChangeSets);
+    entityManager.flush();
+    entityManager.clear();
+
+    List<Item> updatedItems = itemService.findItemsWithOrdered(someNamespaceId);
+    assertEquals(4, updatedItems.size());
+    for (int i = 0; i < 3; i++) {
+      assertEquals("v" + i + "-updated", updatedItems.get(i).getValue());
+    }
+    //created after the existing items
+    assertEquals("newKey", updatedItems.get(3).getKey());
+    assertEquals(4, (int) updatedItems.get(3).getLineNum());
+
+    List<Commit> commits = commitService.find(someAppId, someClusterName, someNamespaceName, PageRequest.of(0, 10));
+    assertEquals(2, commits.size());
+  }
+
+  @Test
+  public void testUpdateSetWithCreatedItems() {
+    ItemChangeSets changeSets = new ItemChangeSets();
+    changeSets.setDataChangeLastModifiedBy(someOperator);
+    //blank lines and comments share the same empty key
+    changeSets.addCreateItem(assembleItem(0, "someKey", "someValue", 0));
+    changeSets.addCreateItem(assembleItem(0, "", "", 0));
+    changeSets.addCreateItem(assembleItem(0, "", "", 0));
+
+    itemSetService.updateSet(someAppId, someClusterName, someNamespaceName, changeSets);
+
+    List<Item> createdItems = itemService.findItemsWithOrdered(someNamespaceId);
+    assertEquals(3, createdItems.size());
+    assertEquals("someKey", createdItems.get(0).getKey());
+    assertEquals(3, (int) createdItems.get(2).getLineNum());
+
+    //the commit records the created items with their ids
+    Commit commit = commitService.find(someAppId, someClusterName, someNamespaceName, PageRequest.of(0, 1)).get(0);
+    List<Item> committedItems = ConfigChangeContentBuilder.convertJsonString(commit.getChangeSets()).getCreateItems();
+    assertEquals(1, committedItems.size());
+    assertEquals(createdItems.get(0).getId(), committedItems.get(0).getId());
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testUpdateSetWithItemNotExists() {
+    ItemChangeSets changeSets = new ItemChangeSets();
+    changeSets.setDataChangeLastModifiedBy(someOperator);
+    changeSets.addUpdateItem(assembleItem(12345, "someKey", "someValue", 1));
+
+    itemSetService.updateSet(someAppId, someClusterName, someNamespaceName, changeSets);
+  }
+
+  private ItemDTO assembleItem(long id, String key, String value, int lineNum) {
+    ItemDTO item = new ItemDTO(key, value, "", lineNum);
+    item.setId(id);
+    item.setNamespaceId(someNamespaceId);
+    return item;
+  }
+}
@@ -0,0 +1,54 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+//the locks are committed in their own transactions, so they are not rolled back with the test
+@Sql(statements = "DELETE FROM JobLock", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD,
+    config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
+public class JobLockServiceTest extends AbstractIntegrationTest {
+  private static final String SOME_JOB = "someJob";
+  private static final String SOME_OWNER = "someOwner";
+  private static final String ANOTHER_OWNER = "anotherOwner";
+
+  @Autowired
+  private JobLockService jobLockService;
+
+  @Test
+  public void testTryLock() {
+    assertTrue(jobLockService.tryLock(SOME_JOB, SOME_OWNER, 1, TimeUnit.MINUTES));
+    //renew the lease
+    assertTrue(jobLockService.tryLock(SOME_JOB, SOME_OWNER, 1, TimeUnit.MINUTES));
+    assertFalse(jobLockService.tryLock(SOME_JOB, ANOTHER_OWNER, 1, TimeUnit.MINUTES));
+  }
+
+  @Test
+  public void testTryLockAfterUnlock() {
+    assertTrue(jobLockService.tryLock(SOME_JOB, SOME_OWNER, 1, TimeUnit.MINUTES));
+
+    jobLockService.unlock(SOME_JOB, ANOTHER_OWNER);
+    assertFalse(jobLockService.tryLock(SOME_JOB, ANOTHER_OWNER, 1, TimeUnit.MINUTES));
+
+    jobLockService.unlock(SOME_JOB, SOME_OWNER);
+    assertTrue(jobLockService.tryLock(SOME_JOB, ANOTHER_OWNER, 1, TimeUnit.MINUTES));
+  }
+
+  @Test
+  public void testTryLockAfterLeaseExpired() throws Exception {
+    assertTrue(jobLockService.tryLock(SOME_JOB, SOME_OWNER, 10, TimeUnit.MILLISECONDS));
+
+    TimeUnit.MILLISECONDS.sleep(50);
+
+    assertTrue(jobLockService.tryLock(SOME_JOB, ANOTHER_OWNER, 1, TimeUnit.MINUTES));
+    assertFalse(jobLockService.tryLock(SOME_JOB, SOME_OWNER, 1, TimeUnit.MINUTES));
+  }
+}
@@ -0,0 +1,136 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractUnitTest;
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.Namespace;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+
+public class MetadataCacheTest extends AbstractUnitTest {
+  private static final String SOME_APP_ID = "someAppId";
+  private static final String SOME_CLUSTER = "someCluster";
+  private static final String SOME_NAMESPACE = "someNamespace";
+
+  @Mock
+  private BizConfig bizConfig;
+
+  private MetadataCache<Namespace> namespaceCache;
+  private AtomicInteger loadCount;
+  private Supplier<Namespace> loader;
+
+  @Before
+  public void setUp() {
+    namespaceCache = new MetadataCache<>(Namespace.class, bizConfig);
+    loadCount = new AtomicInteger();
+    loader = () -> {
+      loadCount.incrementAndGet();
+      Namespace namespace = new Namespace(SOME_APP_ID, SOME_CLUSTER, SOME_NAMESPACE);
+      namespace.setId(1);
+      return namespace;
+    };
+  }
+
+  @After
+  public void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    TransactionSynchronizationManager.setActualTransactionActive(false);
+  }
+
+  @Test
+  public void testGetWithCacheDisabled() {
+    when(bizConfig.metadataCacheTtlInSecond()).thenReturn(0);
+
+    get();
+    get();
+
+    assertEquals(2, loadCount.get());
+  }
+
+  @Test
+  public void testGetFromCache() {
+    when(bizConfig.metadataCacheTtlInSecond()).thenReturn(10);
+
+    Namespace namespace = get();
+    namespace.setDeleted(true);
+    Namespace cached = get();
+    Namespace anotherCached = get();
+
+    assertEquals(1, loadCount.get());
+    assertEquals(1, cached.getId());
+    assertEquals(SOME_NAMESPACE, cached.getNamespaceName());
+    //changes made by callers are not seen by others
+    assertFalse(cached.isDeleted());
+    assertNotSame(cached, anotherCached);
+  }
+
+  @Test
+  public void testNotFoundNotCached() {
+    when(bizConfig.metadataCacheTtlInSecond()).thenReturn(10);
+
+    assertNull(namespaceCache.get(() -> {
+      loadCount.incrementAndGet();
+      return null;
+    }, SOME_APP_ID, SOME_CLUSTER, SOME_NAMESPACE));
+    get();
+
+    assertEquals(2, loadCount.get());
+  }
+
+  @Test
+  public void testEvict() {
+    when(bizConfig.metadataCacheTtlInSecond()).thenReturn(10);
+
+    get();
+    namespaceCache.evict(SOME_APP_ID, SOME_CLUSTER, SOME_NAMESPACE);
+    get();
+
+    assertEquals(2, loadCount.get());
+  }
+
+  @Test
+  public void testEvictAgainWhenTransactionCompletes() {
+    when(bizConfig.metadataCacheTtlInSecond()).thenReturn(10);
+    TransactionSynchronizationManager.initSynchronization();
+
+    namespaceCache.evict(SOME_APP_ID, SOME_CLUSTER, SOME_NAMESPACE);
+    //cached by another thread before the change is committed
+    get();
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+    }
+    get();
+
+    assertEquals(2, loadCount.get());
+  }
+
+  @Test
+  public void testBypassedInTransaction() {
+    when(bizConfig.metadataCacheTtlInSecond()).thenReturn(10);
+
+    get();
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    get();
+
+    assertEquals(2, loadCount.get());
+  }
+
+  private Namespace get() {
+    return namespaceCache.get(loader, SOME_APP_ID, SOME_CLUSTER, SOME_NAMESPACE);
+  }
+}
@@ -44,8 +44,8 @@ public class NamespacePublishInfoTest extends AbstractUnitTest {
     Item item = createItem(namespace.getId(), "a", "b");
 
     when(clusterService.findParentClusters(testApp)).thenReturn(Collections.singletonList(cluster));
-    when(namespaceRepository.findByAppIdAndClusterNameOrderByIdAsc(testApp, ConfigConsts.CLUSTER_NAME_DEFAULT))
-        .thenReturn(Collections.singletonList(namespace));
+    when(namespaceRepository.findNamespacesWithItemsModifiedAfterLatestRelease(testApp,
+        Collections.singletonList(ConfigConsts.CLUSTER_NAME_DEFAULT))).thenReturn(Collections.singletonList(namespace));
     when(itemService.findLastOne(anyLong())).thenReturn(item);
 
     Map<String, Boolean> result = namespaceService.namespacePublishInfo(testApp);
@@ -62,8 +62,8 @@ public class NamespacePublishInfoTest extends AbstractUnitTest {
     Release release = createRelease("{\"a\":\"b\"}");
 
     when(clusterService.findParentClusters(testApp)).thenReturn(Collections.singletonList(cluster));
-    when(namespaceRepository.findByAppIdAndClusterNameOrderByIdAsc(testApp, ConfigConsts.CLUSTER_NAME_DEFAULT))
-        .thenReturn(Collections.singletonList(namespace));
+    when(namespaceRepository.findNamespacesWithItemsModifiedAfterLatestRelease(testApp,
+        Collections.singletonList(ConfigConsts.CLUSTER_NAME_DEFAULT))).thenReturn(Collections.singletonList(namespace));
     when(releaseService.findLatestActiveRelease(namespace)).thenReturn(release);
     when(itemService.findItemsModifiedAfterDate(anyLong(), any())).thenReturn(Collections.singletonList(item));
 
@@ -82,8 +82,8 @@ public class NamespacePublishInfoTest extends AbstractUnitTest {
     Release release = createRelease("{\"a\":\"c\"}");
 
     when(clusterService.findParentClusters(testApp)).thenReturn(Collections.singletonList(cluster));
-    when(namespaceRepository.findByAppIdAndClusterNameOrderByIdAsc(testApp, ConfigConsts.CLUSTER_NAME_DEFAULT))
-        .thenReturn(Collections.singletonList(namespace));
+    when(namespaceRepository.findNamespacesWithItemsModifiedAfterLatestRelease(testApp,
+        Collections.singletonList(ConfigConsts.CLUSTER_NAME_DEFAULT))).thenReturn(Collections.singletonList(namespace));
     when(releaseService.findLatestActiveRelease(namespace)).thenReturn(release);
     when(itemService.findItemsModifiedAfterDate(anyLong(), any())).thenReturn(Collections.singletonList(item));
 
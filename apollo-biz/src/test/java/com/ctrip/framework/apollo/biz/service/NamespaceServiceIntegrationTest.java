@@ -8,8 +8,14 @@ import com.ctrip.framework.apollo.biz.entity.Item;
 import com.ctrip.framework.apollo.biz.entity.Namespace;
 import com.ctrip.framework.apollo.biz.entity.Release;
 import com.ctrip.framework.apollo.biz.entity.ReleaseHistory;
+import com.ctrip.framework.apollo.biz.repository.ClusterRepository;
 import com.ctrip.framework.apollo.biz.repository.InstanceConfigRepository;
+import com.ctrip.framework.apollo.biz.repository.ItemRepository;
+import com.ctrip.framework.apollo.biz.repository.NamespaceRepository;
+import com.ctrip.framework.apollo.biz.repository.ReleaseRepository;
 import com.ctrip.framework.apollo.common.entity.AppNamespace;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,9 +23,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -43,6 +53,16 @@ public class NamespaceServiceIntegrationTest extends AbstractIntegrationTest {
   private ReleaseHistoryService releaseHistoryService;
   @Autowired
   private InstanceConfigRepository instanceConfigRepository;
+  @Autowired
+  private ClusterRepository clusterRepository;
+  @Autowired
+  private NamespaceRepository namespaceRepository;
+  @Autowired
+  private ItemRepository itemRepository;
+  @Autowired
+  private ReleaseRepository releaseRepository;
+  @Autowired
+  private NamespaceLockService namespaceLockService;
 
   private String testApp = "testApp";
   private String testCluster = "default";
@@ -88,4 +108,165 @@ public class NamespaceServiceIntegrationTest extends AbstractIntegrationTest {
     assertNull(instanceConfig);
   }
 
+  @Test
+  @Sql(scripts = "/sql/namespace-test.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/sql/clean.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+  public void testDeleteByAppIdAndClusterName() {
+    String anotherNamespace = "anotherNamespace";
+    Namespace namespace = new Namespace(testApp, testCluster, anotherNamespace);
+    namespace.setDataChangeCreatedBy(testUser);
+    namespaceRepository.save(namespace);
+    releaseRepository.save(assembleRelease(testApp, testCluster, testPrivateNamespace));
+    releaseRepository.save(assembleRelease(testApp, testCluster, anotherNamespace));
+    releaseRepository.save(assembleRelease(testApp, testChildCluster, testPrivateNamespace));
+
+    namespaceService.deleteByAppIdAndClusterName(testApp, testCluster, testUser);
+
+    assertTrue(namespaceService.findNamespaces(testApp, testCluster).isEmpty());
+    assertTrue(namespaceService.findNamespaces(testApp, testChildCluster).isEmpty());
+    assertEquals(0, clusterService.findChildClusters(testApp, testCluster).size());
+    assertEquals(0, itemRepository.findByNamespaceId(1L).size());
+    assertEquals(0, commitService.find(testApp, testCluster, testPrivateNamespace, PageRequest.of(0, 10)).size());
+    assertEquals(0, releaseService.findAllReleases(testApp, testCluster, testPrivateNamespace,
+                                                   PageRequest.of(0, 10)).size());
+    assertEquals(0, releaseService.findAllReleases(testApp, testCluster, anotherNamespace,
+                                                   PageRequest.of(0, 10)).size());
+    assertEquals(0, releaseService.findAllReleases(testApp, testChildCluster, testPrivateNamespace,
+                                                   PageRequest.of(0, 10)).size());
+    assertFalse(releaseHistoryService.findReleaseHistoriesByNamespace(testApp, testCluster, testPrivateNamespace,
+                                                                      PageRequest.of(0, 10)).hasContent());
+    assertNull(instanceConfigRepository.findById(1L).orElse(null));
+    assertNull(namespaceLockService.findLock(1L));
+    assertNotNull(appNamespaceService.findOne(testApp, testPrivateNamespace));
+  }
+
+  @Test
+  @Sql(scripts = "/sql/namespace-test.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/sql/clean.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+  public void testBatchCreate() {
+    String anotherCluster = "anotherCluster";
+    String anotherNamespace = "anotherNamespace";
+
+    namespaceService.batchCreate(testApp, Lists.newArrayList(testCluster, anotherCluster),
+                                 Lists.newArrayList(testPrivateNamespace, anotherNamespace), testUser);
+
+    Namespace existingNamespace = namespaceService.findOne(testApp, testCluster, testPrivateNamespace);
+    assertEquals(1, existingNamespace.getId());
+    assertNotNull(namespaceService.findOne(testApp, testCluster, anotherNamespace));
+    Namespace createdNamespace = namespaceService.findOne(testApp, anotherCluster, testPrivateNamespace);
+    assertNotNull(createdNamespace);
+    assertEquals(testUser, createdNamespace.getDataChangeCreatedBy());
+    assertNotNull(createdNamespace.getDataChangeCreatedTime());
+    assertNotNull(namespaceService.findOne(testApp, anotherCluster, anotherNamespace));
+    assertEquals(2, namespaceService.findNamespaces(testApp, testCluster).size());
+    assertEquals(2, namespaceService.findNamespaces(testApp, anotherCluster).size());
+
+    //create again, nothing changes
+    namespaceService.batchCreate(testApp, Lists.newArrayList(testCluster, anotherCluster),
+                                 Lists.newArrayList(testPrivateNamespace, anotherNamespace), testUser);
+
+    assertEquals(2, namespaceService.findNamespaces(testApp, testCluster).size());
+    assertEquals(2, namespaceService.findNamespaces(testApp, anotherCluster).size());
+  }
+
+  @Test
+  @Sql(scripts = "/sql/clean.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+  public void testNamespacePublishInfo() {
+    String someAppId = "someAppId";
+    Date itemTime = new Date(System.currentTimeMillis() - 2000);
+    Date releaseTime = new Date(System.currentTimeMillis() - 1000);
+    Date modifiedTime = new Date();
+    Date abandonedTime = new Date(System.currentTimeMillis() + 1000);
+
+    savePublishInfoFixture(someAppId, "published", "someValue", itemTime, releaseTime);
+    savePublishInfoFixture(someAppId, "modified", "anotherValue", modifiedTime, releaseTime);
+    savePublishInfoFixture(someAppId, "modifiedBack", "someValue", modifiedTime, releaseTime);
+    savePublishInfoFixture(someAppId, "neverPublished", "someValue", itemTime, null);
+    //the abandoned release is newer than the item, but the item is compared with the latest active release
+    savePublishInfoFixture(someAppId, "abandoned", "anotherValue", modifiedTime, releaseTime);
+    Release abandonedRelease = assemblePublishInfoRelease(someAppId, "abandoned", abandonedTime);
+    abandonedRelease.setAbandoned(true);
+    releaseRepository.save(abandonedRelease);
+    //no items at all
+    saveCluster(someAppId, "empty");
+    namespaceRepository.save(assemblePublishInfoNamespace(someAppId, "empty"));
+    //the deleted items don't count
+    Item deletedItem = savePublishInfoFixture(someAppId, "deleted", "anotherValue", modifiedTime, releaseTime);
+    itemRepository.delete(deletedItem);
+
+    List<Namespace> candidates = namespaceRepository.findNamespacesWithItemsModifiedAfterLatestRelease(someAppId,
+        Lists.newArrayList("published", "modified", "modifiedBack", "neverPublished", "abandoned", "empty",
+            "deleted"));
+    assertEquals(Sets.newHashSet("modified", "modifiedBack", "neverPublished", "abandoned"),
+        candidates.stream().map(Namespace::getClusterName).collect(Collectors.toSet()));
+
+    Map<String, Boolean> result = namespaceService.namespacePublishInfo(someAppId);
+
+    assertEquals(7, result.size());
+    assertFalse(result.get("published"));
+    assertTrue(result.get("modified"));
+    assertFalse(result.get("modifiedBack"));
+    assertTrue(result.get("neverPublished"));
+    assertTrue(result.get("abandoned"));
+    assertFalse(result.get("empty"));
+    assertFalse(result.get("deleted"));
+  }
+
+  /**
+   * Saves a cluster with one namespace holding one item, and an active release of someKey=someValue unless the release
+   * time is null
+   */
+  private Item savePublishInfoFixture(String appId, String clusterName, String value, Date itemTime,
+                                      Date releaseTime) {
+    saveCluster(appId, clusterName);
+    Namespace namespace = namespaceRepository.save(assemblePublishInfoNamespace(appId, clusterName));
+
+    Item item = new Item();
+    item.setNamespaceId(namespace.getId());
+    item.setKey("someKey");
+    item.setValue(value);
+    item.setDataChangeCreatedBy(testUser);
+    item.setDataChangeLastModifiedTime(itemTime);
+    item = itemRepository.save(item);
+
+    if (releaseTime != null) {
+      releaseRepository.save(assemblePublishInfoRelease(appId, clusterName, releaseTime));
+    }
+    return item;
+  }
+
+  private void saveCluster(String appId, String clusterName) {
+    Cluster cluster = new Cluster();
+    cluster.setAppId(appId);
+    cluster.setName(clusterName);
+    cluster.setDataChangeCreatedBy(testUser);
+    clusterRepository.save(cluster);
+  }
+
+  private Namespace assemblePublishInfoNamespace(String appId, String clusterName) {
+    Namespace namespace = new Namespace(appId, clusterName, testPrivateNamespace);
+    namespace.setDataChangeCreatedBy(testUser);
+    return namespace;
+  }
+
+  private Release assemblePublishInfoRelease(String appId, String clusterName, Date releaseTime) {
+    Release release = assembleRelease(appId, clusterName, testPrivateNamespace);
+    release.setReleaseKey(clusterName + releaseTime.getTime());
+    release.setConfigurations("{\"someKey\":\"someValue\"}");
+    release.setDataChangeLastModifiedTime(releaseTime);
+    return release;
+  }
+
+  private Release assembleRelease(String appId, String clusterName, String namespaceName) {
+    Release release = new Release();
+    release.setReleaseKey(clusterName + namespaceName);
+    release.setName("someRelease");
+    release.setComment("");
+    release.setAppId(appId);
+    release.setClusterName(clusterName);
+    release.setNamespaceName(namespaceName);
+    release.setConfigurations("{}");
+    release.setDataChangeCreatedBy(testUser);
+    return release;
+  }
 }
@@ -0,0 +1,53 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
+import com.ctrip.framework.apollo.biz.entity.ReleaseHistory;
+import com.ctrip.framework.apollo.common.constants.ReleaseOperation;
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReleaseHistoryServiceTest extends AbstractIntegrationTest {
+  @Autowired
+  private ReleaseHistoryService releaseHistoryService;
+
+  @Test
+  public void testFindReleaseHistoriesByNamespaceBefore() {
+    String someAppId = "someAppId";
+    String someClusterName = "someClusterName";
+    String someNamespaceName = "someNamespaceName";
+
+    List<Long> ids = Lists.newArrayList();
+    for (int i = 0; i < 5; i++) {
+      ids.add(releaseHistoryService.createReleaseHistory(someAppId, someClusterName, someNamespaceName,
+          someClusterName, i + 1, i, ReleaseOperation.NORMAL_RELEASE, Collections.emptyMap(), "someOperator")
+          .getId());
+    }
+    //another namespace
+    releaseHistoryService.createReleaseHistory(someAppId, someClusterName, "anotherNamespaceName", someClusterName,
+        10, 0, ReleaseOperation.NORMAL_RELEASE, Collections.emptyMap(), "someOperator");
+
+    List<ReleaseHistory> firstPage = releaseHistoryService.findReleaseHistoriesByNamespaceBefore(someAppId,
+        someClusterName, someNamespaceName, 0, 2);
+    List<ReleaseHistory> secondPage = releaseHistoryService.findReleaseHistoriesByNamespaceBefore(someAppId,
+        someClusterName, someNamespaceName, firstPage.get(1).getId(), 2);
+    List<ReleaseHistory> lastPage = releaseHistoryService.findReleaseHistoriesByNamespaceBefore(someAppId,
+        someClusterName, someNamespaceName, ids.get(0), 2);
+
+    assertEquals(Lists.newArrayList(ids.get(4), ids.get(3)), idsOf(firstPage));
+    assertEquals(Lists.newArrayList(ids.get(2), ids.get(1)), idsOf(secondPage));
+    assertTrue(lastPage.isEmpty());
+  }
+
+  private List<Long> idsOf(List<ReleaseHistory> releaseHistories) {
+    return releaseHistories.stream().map(ReleaseHistory::getId).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,76 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
+import com.ctrip.framework.apollo.biz.entity.ReleaseMessage;
+import com.ctrip.framework.apollo.biz.repository.ReleaseMessageRepository;
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReleaseMessageServiceTest extends AbstractIntegrationTest {
+  @Autowired
+  private ReleaseMessageService releaseMessageService;
+  @Autowired
+  private ReleaseMessageRepository releaseMessageRepository;
+
+  @Test
+  public void testDeleteSupersededMessages() {
+    String someMessage = "someAppId+default+application";
+    String anotherMessage = "someAppId+default+anotherNamespace";
+    String yetAnotherMessage = "someAppId+default+yetAnotherNamespace";
+
+    ReleaseMessage first = save(someMessage);
+    ReleaseMessage second = save(anotherMessage);
+    ReleaseMessage third = save(someMessage);
+    ReleaseMessage fourth = save(yetAnotherMessage);
+    ReleaseMessage fifth = save(yetAnotherMessage);
+    //out of the batch, but supersedes the fifth
+    ReleaseMessage sixth = save(yetAnotherMessage);
+
+    int deleted = releaseMessageService.deleteSupersededMessages(Lists.newArrayList(first, second, third, fourth,
+        fifth));
+
+    assertEquals(3, deleted);
+    List<ReleaseMessage> remaining = releaseMessageService.findReleaseMessagesAfter(0);
+    assertEquals(3, remaining.size());
+    assertEquals(second.getId(), remaining.get(0).getId());
+    assertEquals(third.getId(), remaining.get(1).getId());
+    assertEquals(sixth.getId(), remaining.get(2).getId());
+  }
+
+  @Test
+  public void testDeleteSupersededMessagesWithNothingSuperseded() {
+    ReleaseMessage first = save("someAppId+default+application");
+    ReleaseMessage second = save("someAppId+default+anotherNamespace");
+
+    assertEquals(0, releaseMessageService.deleteSupersededMessages(Lists.newArrayList(first, second)));
+    assertEquals(2, releaseMessageRepository.count());
+  }
+
+  @Test
+  public void testDeleteSupersededMessagesBeforeTheBatch() {
+    String someMessage = "someAppId+default+application";
+    String anotherMessage = "someAppId+default+anotherNamespace";
+
+    save(someMessage);
+    ReleaseMessage anotherOld = save(anotherMessage);
+    save(someMessage);
+    ReleaseMessage latest = save(someMessage);
+
+    assertEquals(2, releaseMessageService.deleteSupersededMessages(Lists.newArrayList(latest)));
+
+    List<ReleaseMessage> remaining = releaseMessageService.findReleaseMessagesAfter(0);
+    assertEquals(2, remaining.size());
+    assertEquals(anotherOld.getId(), remaining.get(0).getId());
+    assertEquals(latest.getId(), remaining.get(1).getId());
+  }
+
+  private ReleaseMessage save(String message) {
+    return releaseMessageRepository.save(new ReleaseMessage(message));
+  }
+}
@@ -0,0 +1,148 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
+import com.ctrip.framework.apollo.biz.entity.Release;
+import com.ctrip.framework.apollo.biz.entity.ReleasePayload;
+import com.ctrip.framework.apollo.biz.repository.ReleasePayloadRepository;
+import com.ctrip.framework.apollo.biz.repository.ReleaseRepository;
+
+import com.google.common.collect.Sets;
+
+import org.hibernate.Hibernate;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collections;
+import java.util.Date;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReleasePayloadServiceTest extends AbstractIntegrationTest {
+  @Autowired
+  private ReleasePayloadService releasePayloadService;
+  @Autowired
+  private ReleasePayloadRepository releasePayloadRepository;
+  @Autowired
+  private ReleaseRepository releaseRepository;
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Test
+  public void testFindOrCreateWithIdenticalConfigurations() {
+    String someConfigurations = "{\"k1\":\"v1\",\"k2\":\"v2\"}";
+    String anotherConfigurations = "{\"k1\":\"v1\"}";
+
+    ReleasePayload somePayload = releasePayloadService.findOrCreate(someConfigurations);
+    ReleasePayload samePayload = releasePayloadService.findOrCreate(someConfigurations);
+    ReleasePayload anotherPayload = releasePayloadService.findOrCreate(anotherConfigurations);
+
+    assertEquals(ReleasePayloadService.hash(someConfigurations), somePayload.getHash());
+    assertEquals(somePayload.getHash(), samePayload.getHash());
+    assertNotEquals(somePayload.getHash(), anotherPayload.getHash());
+    assertEquals(2, releasePayloadRepository.count());
+  }
+
+  @Test
+  public void testFindOrCreateWhenInsertedByOthers() {
+    String someConfigurations = "{\"k1\":\"v1\"}";
+    String someHash = ReleasePayloadService.hash(someConfigurations);
+
+    //inserted by another admin service after the check
+    releasePayloadRepository.insertIfAbsent(someHash, someConfigurations, new Date());
+    releasePayloadRepository.insertIfAbsent(someHash, someConfigurations, new Date());
+
+    ReleasePayload payload = releasePayloadService.findOrCreate(someConfigurations);
+
+    assertEquals(someHash, payload.getHash());
+    assertEquals(someConfigurations, payload.getDecompressedContent());
+    assertEquals(1, releasePayloadRepository.count());
+  }
+
+  @Test
+  public void testReleaseWithPayload() {
+    String someConfigurations = "{\"k1\":\"v1\",\"k2\":\"v2\"}";
+
+    Release someRelease = assembleRelease("someReleaseKey");
+    someRelease.setPayload(releasePayloadService.findOrCreate(someConfigurations));
+    Release anotherRelease = assembleRelease("anotherReleaseKey");
+    anotherRelease.setPayload(releasePayloadService.findOrCreate(someConfigurations));
+    long someReleaseId = releaseRepository.save(someRelease).getId();
+    long anotherReleaseId = releaseRepository.save(anotherRelease).getId();
+
+    entityManager.flush();
+    entityManager.clear();
+
+    Release loadedRelease = releaseRepository.findById(someReleaseId).orElse(null);
+    Release anotherLoadedRelease = releaseRepository.findById(anotherReleaseId).orElse(null);
+    assertTrue(Hibernate.isInitialized(loadedRelease.getPayload()));
+
+    assertEquals(someConfigurations, loadedRelease.getConfigurations());
+    assertEquals(someConfigurations, anotherLoadedRelease.getConfigurations());
+    assertEquals(loadedRelease.getPayloadHash(), anotherLoadedRelease.getPayloadHash());
+    assertEquals(1, releasePayloadRepository.count());
+
+    entityManager.clear();
+
+    //fetched along with the releases, so the configurations can be read after the session is closed
+    for (Release release : releaseRepository.findByReleaseKeyIn(Sets.newHashSet("someReleaseKey",
+        "anotherReleaseKey"))) {
+      assertTrue(Hibernate.isInitialized(release.getPayload()));
+    }
+
+    entityManager.clear();
+
+    Release lazyRelease = entityManager.createQuery("from Release where id = :id", Release.class)
+        .setParameter("id", someReleaseId).getSingleResult();
+    assertEquals(ReleasePayloadService.hash(someConfigurations), lazyRelease.getPayloadHash());
+    assertFalse(Hibernate.isInitialized(lazyRelease.getPayload()));
+
+    //unset configurations as the admin service does to save space
+    loadedRelease.setConfigurations(null);
+    assertNull(loadedRelease.getConfigurations());
+    assertNull(loadedRelease.getPayloadHash());
+  }
+
+  @Test
+  public void testPurgeOrphanPayloads() {
+    Release someRelease = assembleRelease("someReleaseKey");
+    someRelease.setPayload(releasePayloadService.findOrCreate("{\"k1\":\"v1\"}"));
+    releaseRepository.save(someRelease);
+    Release deletedRelease = assembleRelease("deletedReleaseKey");
+    deletedRelease.setPayload(releasePayloadService.findOrCreate("{\"k2\":\"v2\"}"));
+    releaseRepository.delete(releaseRepository.save(deletedRelease));
+    Release purgedRelease = assembleRelease("purgedReleaseKey");
+    purgedRelease.setPayload(releasePayloadService.findOrCreate("{\"k3\":\"v3\"}"));
+    releaseRepository.deleteByIds(Collections.singleton(releaseRepository.save(purgedRelease).getId()));
+    releasePayloadService.findOrCreate("{\"k4\":\"v4\"}");
+    entityManager.flush();
+
+    assertEquals(1, releasePayloadService.purgeOrphanPayloads(1));
+    assertEquals(1, releasePayloadService.purgeOrphanPayloads(10));
+    assertEquals(0, releasePayloadService.purgeOrphanPayloads(10));
+
+    //the payloads of the releases not purged yet are kept, even if the releases are deleted
+    entityManager.clear();
+    assertEquals(2, releasePayloadRepository.count());
+    assertNotNull(releasePayloadRepository.findById(ReleasePayloadService.hash("{\"k2\":\"v2\"}")).orElse(null));
+  }
+
+  private Release assembleRelease(String releaseKey) {
+    Release release = new Release();
+    release.setReleaseKey(releaseKey);
+    release.setName("someName");
+    release.setComment("someComment");
+    release.setAppId("someAppId");
+    release.setClusterName("someCluster");
+    release.setNamespaceName("someNamespace");
+    release.setDataChangeCreatedBy("someOperator");
+    return release;
+  }
+}
@@ -0,0 +1,152 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
+import com.ctrip.framework.apollo.biz.entity.Commit;
+import com.ctrip.framework.apollo.biz.entity.GrayReleaseRule;
+import com.ctrip.framework.apollo.biz.entity.InstanceConfig;
+import com.ctrip.framework.apollo.biz.entity.Release;
+import com.ctrip.framework.apollo.biz.entity.ReleaseHistory;
+import com.ctrip.framework.apollo.biz.repository.GrayReleaseRuleRepository;
+import com.ctrip.framework.apollo.biz.repository.InstanceConfigRepository;
+import com.ctrip.framework.apollo.biz.repository.ReleaseRepository;
+import com.ctrip.framework.apollo.common.constants.NamespaceBranchStatus;
+import com.ctrip.framework.apollo.common.constants.ReleaseOperation;
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReleasePurgeTest extends AbstractIntegrationTest {
+  private static final String someAppId = "someAppId";
+  private static final String someCluster = "someCluster";
+  private static final String someNamespace = "someNamespace";
+  private static final String someOperator = "someOperator";
+
+  @Autowired
+  private ReleaseService releaseService;
+  @Autowired
+  private ReleaseHistoryService releaseHistoryService;
+  @Autowired
+  private CommitService commitService;
+  @Autowired
+  private ReleaseRepository releaseRepository;
+  @Autowired
+  private GrayReleaseRuleRepository grayReleaseRuleRepository;
+  @Autowired
+  private InstanceConfigRepository instanceConfigRepository;
+
+  @Test
+  public void testPurgeReleases() {
+    List<Release> releases = Lists.newArrayList();
+    for (int i = 0; i < 8; i++) {
+      //the latest 2 releases are rolled back
+      releases.add(releaseRepository.save(assembleRelease("releaseKey" + i, i >= 6)));
+    }
+    //another namespace
+    Release anotherRelease = assembleRelease("anotherReleaseKey", false);
+    anotherRelease.setNamespaceName("anotherNamespace");
+    releaseRepository.save(anotherRelease);
+
+    releaseHistoryService.createReleaseHistory(someAppId, someCluster, someNamespace, someCluster,
+        releases.get(1).getId(), releases.get(0).getId(), ReleaseOperation.NORMAL_RELEASE, Collections.emptyMap(),
+        someOperator);
+    grayReleaseRuleRepository.save(assembleGrayReleaseRule(releases.get(2).getId()));
+    instanceConfigRepository.save(assembleInstanceConfig(releases.get(3).getReleaseKey()));
+
+    assertEquals(1, releaseService.purgeReleases(someAppId, someCluster, someNamespace, 2, 10));
+    assertEquals(0, releaseService.purgeReleases(someAppId, someCluster, someNamespace, 2, 10));
+
+    //the latest 2, the active one and the ones referenced are kept
+    List<Long> expected = Lists.newArrayList(releases.get(7).getId(), releases.get(6).getId(),
+        releases.get(5).getId(), releases.get(3).getId(), releases.get(2).getId(), releases.get(1).getId(),
+        releases.get(0).getId());
+    assertEquals(expected, releaseService.findAllReleases(someAppId, someCluster, someNamespace,
+        PageRequest.of(0, 10)).stream().map(Release::getId).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testPurgeReleaseHistories() {
+    List<Long> ids = Lists.newArrayList();
+    for (int i = 0; i < 5; i++) {
+      ids.add(releaseHistoryService.createReleaseHistory(someAppId, someCluster, someNamespace, someCluster, i + 1,
+          i, ReleaseOperation.NORMAL_RELEASE, Collections.emptyMap(), someOperator).getId());
+    }
+
+    assertEquals(2, releaseHistoryService.purgeReleaseHistories(someAppId, someCluster, someNamespace, 2, 2));
+    assertEquals(1, releaseHistoryService.purgeReleaseHistories(someAppId, someCluster, someNamespace, 2, 2));
+    assertEquals(0, releaseHistoryService.purgeReleaseHistories(someAppId, someCluster, someNamespace, 2, 2));
+
+    assertEquals(Lists.newArrayList(ids.get(4), ids.get(3)), releaseHistoryService
+        .findReleaseHistoriesByNamespace(someAppId, someCluster, someNamespace, PageRequest.of(0, 10)).getContent()
+        .stream().map(ReleaseHistory::getId).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testPurgeCommits() {
+    List<Long> ids = Lists.newArrayList();
+    for (int i = 0; i < 4; i++) {
+      ids.add(commitService.save(assembleCommit()).getId());
+    }
+
+    assertEquals(2, commitService.purgeCommits(someAppId, someCluster, someNamespace, 2, 10));
+    assertEquals(0, commitService.purgeCommits(someAppId, someCluster, someNamespace, 2, 10));
+
+    assertEquals(Lists.newArrayList(ids.get(3), ids.get(2)), commitService.find(someAppId, someCluster,
+        someNamespace, PageRequest.of(0, 10)).stream().map(Commit::getId).collect(Collectors.toList()));
+  }
+
+  private Release assembleRelease(String releaseKey, boolean isAbandoned) {
+    Release release = new Release();
+    release.setReleaseKey(releaseKey);
+    release.setName(releaseKey);
+    release.setAppId(someAppId);
+    release.setClusterName(someCluster);
+    release.setNamespaceName(someNamespace);
+    release.setConfigurations("{}");
+    release.setAbandoned(isAbandoned);
+    release.setDataChangeCreatedBy(someOperator);
+    return release;
+  }
+
+  private GrayReleaseRule assembleGrayReleaseRule(long releaseId) {
+    GrayReleaseRule rule = new GrayReleaseRule();
+    rule.setAppId(someAppId);
+    rule.setClusterName("parentCluster");
+    rule.setNamespaceName(someNamespace);
+    rule.setBranchName(someCluster);
+    rule.setRules("[]");
+    rule.setReleaseId(releaseId);
+    rule.setBranchStatus(NamespaceBranchStatus.ACTIVE);
+    rule.setDataChangeCreatedBy(someOperator);
+    return rule;
+  }
+
+  private InstanceConfig assembleInstanceConfig(String releaseKey) {
+    InstanceConfig instanceConfig = new InstanceConfig();
+    instanceConfig.setInstanceId(1);
+    instanceConfig.setConfigAppId(someAppId);
+    instanceConfig.setConfigClusterName(someCluster);
+    instanceConfig.setConfigNamespaceName(someNamespace);
+    instanceConfig.setReleaseKey(releaseKey);
+    instanceConfig.setReleaseDeliveryTime(new Date());
+    return instanceConfig;
+  }
+
+  private Commit assembleCommit() {
+    Commit commit = new Commit();
+    commit.setAppId(someAppId);
+    commit.setClusterName(someCluster);
+    commit.setNamespaceName(someNamespace);
+    commit.setChangeSets("{}");
+    commit.setDataChangeCreatedBy(someOperator);
+    return commit;
+  }
+}
@@ -1,10 +1,16 @@
 package com.ctrip.framework.apollo.biz.utils;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import com.ctrip.framework.apollo.biz.MockBeanFactory;
+import com.ctrip.framework.apollo.biz.entity.Commit;
 import com.ctrip.framework.apollo.biz.entity.Item;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -46,4 +52,72 @@ public class ConfigChangeContentBuilderTest {
     assertNotNull(contentBuilder.getDeleteItems());
   }
 
+  @Test
+  public void testBuildFields() {
+    Item oldItem = MockBeanFactory.mockItem(1, 1, "timeout", "100", 1);
+    oldItem.setComment("some comment");
+    oldItem.setDataChangeCreatedBy("someOperator");
+    Item newItem = MockBeanFactory.mockItem(1, 1, "timeout", "1001", 1);
+    newItem.setDataChangeLastModifiedBy("anotherOperator");
+
+    String content = new ConfigChangeContentBuilder().updateItem(oldItem, newItem).build();
+    //the items changed after being added are not affected
+    oldItem.setValue("200");
+
+    JsonObject json = new JsonParser().parse(content).getAsJsonObject();
+    assertEquals(0, json.getAsJsonArray("createItems").size());
+    assertEquals(0, json.getAsJsonArray("deleteItems").size());
+    JsonObject oldItemJson = json.getAsJsonArray("updateItems").get(0).getAsJsonObject().getAsJsonObject("oldItem");
+    JsonObject newItemJson = json.getAsJsonArray("updateItems").get(0).getAsJsonObject().getAsJsonObject("newItem");
+    assertEquals("100", oldItemJson.get("value").getAsString());
+    assertEquals("some comment", oldItemJson.get("comment").getAsString());
+    assertFalse(oldItemJson.has("dataChangeLastModifiedTime"));
+    assertFalse(newItemJson.has("comment"));
+    assertFalse(newItemJson.get("isDeleted").getAsBoolean());
+    assertEquals("anotherOperator", newItemJson.get("dataChangeLastModifiedBy").getAsString());
+    assertTrue(newItemJson.get("dataChangeLastModifiedTime").getAsString()
+        .matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}"));
+
+    Item parsed = ConfigChangeContentBuilder.convertJsonString(content).getUpdateItems().get(0).newItem;
+    assertEquals(1, parsed.getId());
+    assertEquals(1, parsed.getNamespaceId());
+    assertEquals("timeout", parsed.getKey());
+    assertEquals("1001", parsed.getValue());
+    assertEquals(1, (int) parsed.getLineNum());
+    assertNull(parsed.getComment());
+    assertNotNull(parsed.getDataChangeLastModifiedTime());
+  }
+
+  @Test
+  public void testBuildDeletedItem() {
+    Item deletedItem = MockBeanFactory.mockItem(1, 1, "timeout", "100", 1);
+    deletedItem.setDeleted(true);
+
+    String content = new ConfigChangeContentBuilder().deleteItem(deletedItem).build();
+
+    assertTrue(ConfigChangeContentBuilder.convertJsonString(content).getDeleteItems().get(0).isDeleted());
+  }
+
+  @Test
+  public void testCommitWithCompressedChangeSets() {
+    ConfigChangeContentBuilder builder = new ConfigChangeContentBuilder();
+    for (int i = 0; i < 10000; i++) {
+      builder.createItem(MockBeanFactory.mockItem(i, 1, "some.config.key." + i,
+          "jdbc:mysql://someHost:3306/someDatabase?someParam=" + i, i));
+    }
+    String compressed = builder.buildCompressed();
+    Commit commit = new Commit();
+    commit.setChangeSets(compressed);
+
+    assertTrue(CommitChangeSetsCodec.isCompressed(compressed));
+    assertTrue(compressed.length() < builder.estimateLength() / 4);
+    assertEquals(10000, ConfigChangeContentBuilder.convertJsonString(commit.getChangeSets()).getCreateItems().size());
+    assertEquals("jdbc:mysql://someHost:3306/someDatabase?someParam=9999", ConfigChangeContentBuilder
+        .convertJsonString(commit.getChangeSets()).getCreateItems().get(9999).getValue());
+
+    String plain = builder.build();
+    commit.setChangeSets(plain);
+
+    assertEquals(plain, commit.getChangeSets());
+  }
 }
@@ -0,0 +1,92 @@
+package com.ctrip.framework.apollo.biz.utils;
+
+import com.ctrip.framework.apollo.biz.entity.Release;
+import com.google.common.collect.Maps;
+import com.google.gson.Gson;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReleaseConfigurationsCodecTest {
+  private static final Logger logger = LoggerFactory.getLogger(ReleaseConfigurationsCodecTest.class);
+  private static final Gson GSON = new Gson();
+
+  @Test
+  public void testCompressAndDecompress() throws Exception {
+    String someConfigurations = assembleConfigurations(100);
+
+    String compressed = ReleaseConfigurationsCodec.compress(someConfigurations);
+
+    assertTrue(ReleaseConfigurationsCodec.isCompressed(compressed));
+    assertTrue(compressed.length() < someConfigurations.length());
+    assertEquals(someConfigurations, ReleaseConfigurationsCodec.decompress(compressed));
+  }
+
+  @Test
+  public void testDecompressPlainConfigurations() throws Exception {
+    String someConfigurations = assembleConfigurations(1);
+
+    assertEquals(someConfigurations, ReleaseConfigurationsCodec.decompress(someConfigurations));
+    assertNull(ReleaseConfigurationsCodec.decompress(null));
+  }
+
+  @Test
+  public void testCompressSmallConfigurations() throws Exception {
+    String someConfigurations = "{\"k\":\"v\"}";
+
+    //not worth compressing
+    assertEquals(someConfigurations, ReleaseConfigurationsCodec.compress(someConfigurations));
+  }
+
+  @Test
+  public void testReleaseWithCompressedConfigurations() throws Exception {
+    String someConfigurations = assembleConfigurations(100);
+    Release release = new Release();
+    release.setConfigurations(someConfigurations);
+
+    release.compressConfigurations();
+
+    assertTrue(release.isConfigurationsCompressed());
+    assertEquals(someConfigurations, release.getConfigurations());
+
+    release.setConfigurations(ReleaseConfigurationsCodec.compress(someConfigurations));
+
+    assertEquals(someConfigurations, release.getConfigurations());
+  }
+
+  @Test
+  public void testCompressionRatioAndDecompressTime() throws Exception {
+    String someConfigurations = assembleConfigurations(10000);
+
+    String compressed = ReleaseConfigurationsCodec.compress(someConfigurations);
+
+    int times = 20;
+    long start = System.nanoTime();
+    for (int i = 0; i < times; i++) {
+      ReleaseConfigurationsCodec.decompress(compressed);
+    }
+    long decompressTime = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / times;
+
+    logger.info("Release configurations of {} chars compressed to {} chars, decompress takes {} us",
+        someConfigurations.length(), compressed.length(), decompressTime);
+
+    assertTrue(compressed.length() * 3 < someConfigurations.length());
+    assertFalse(ReleaseConfigurationsCodec.isCompressed(someConfigurations));
+  }
+
+  private String assembleConfigurations(int size) {
+    Map<String, String> configurations = Maps.newLinkedHashMap();
+    for (int i = 0; i < size; i++) {
+      configurations.put("some.config.key." + i, "jdbc:mysql://someHost:3306/someDatabase?someParam=" + i);
+    }
+    return GSON.toJson(configurations);
+  }
+}
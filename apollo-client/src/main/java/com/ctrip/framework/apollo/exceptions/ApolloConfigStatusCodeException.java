@@ -5,18 +5,32 @@ package com.ctrip.framework.apollo.exceptions;
  */
 public class ApolloConfigStatusCodeException extends RuntimeException{
   private final int m_statusCode;
+  private final int m_retryAfterInSeconds;
 
   public ApolloConfigStatusCodeException(int statusCode, String message) {
     super(String.format("[status code: %d] %s", statusCode, message));
     this.m_statusCode = statusCode;
+    this.m_retryAfterInSeconds = -1;
   }
 
   public ApolloConfigStatusCodeException(int statusCode, Throwable cause) {
+    this(statusCode, -1, cause);
+  }
+
+  public ApolloConfigStatusCodeException(int statusCode, int retryAfterInSeconds, Throwable cause) {
     super(cause);
     this.m_statusCode = statusCode;
+    this.m_retryAfterInSeconds = retryAfterInSeconds;
   }
 
   public int getStatusCode() {
     return m_statusCode;
   }
+
+  /**
+   * @return the Retry-After hint from the server in seconds, or -1 if not present
+   */
+  public int getRetryAfterInSeconds() {
+    return m_retryAfterInSeconds;
+  }
 }
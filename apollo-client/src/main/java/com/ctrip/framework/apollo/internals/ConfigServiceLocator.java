@@ -1,5 +1,6 @@
 package com.ctrip.framework.apollo.internals;
 
+import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.core.ServiceNameConsts;
 import com.ctrip.framework.foundation.Foundation;
 import java.lang.reflect.Type;
@@ -7,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
@@ -28,6 +30,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.escape.Escaper;
+import com.google.common.net.HttpHeaders;
 import com.google.common.net.UrlEscapers;
 import com.google.gson.reflect.TypeToken;
 
@@ -36,6 +39,8 @@ public class ConfigServiceLocator {
   private HttpUtil m_httpUtil;
   private ConfigUtil m_configUtil;
   private AtomicReference<List<ServiceDTO>> m_configServices;
+  private AtomicBoolean m_configServicesOrdered;
+  private String m_configServicesETag;
   private Type m_responseType;
   private ScheduledExecutorService m_executorService;
   private static final Joiner.MapJoiner MAP_JOINER = Joiner.on("&").withKeyValueSeparator("=");
@@ -47,6 +52,7 @@ public class ConfigServiceLocator {
   public ConfigServiceLocator() {
     List<ServiceDTO> initial = Lists.newArrayList();
     m_configServices = new AtomicReference<>(initial);
+    m_configServicesOrdered = new AtomicBoolean(false);
     m_responseType = new TypeToken<List<ServiceDTO>>() {
     }.getType();
     m_httpUtil = ApolloInjector.getInstance(HttpUtil.class);
@@ -117,7 +123,15 @@ public class ConfigServiceLocator {
     return m_configServices.get();
   }
 
-  private boolean tryUpdateConfigServices() {
+  /**
+   * Whether the config services are ordered by preference, e.g. placed by consistent hash in meta service,
+   * if not, the config services should be picked randomly to balance the load.
+   */
+  public boolean isConfigServicesOrdered() {
+    return m_configServicesOrdered.get();
+  }
+
+  boolean tryUpdateConfigServices() {
     try {
       updateConfigServices();
       return true;
@@ -144,6 +158,9 @@ public class ConfigServiceLocator {
     String url = assembleMetaServiceUrl();
 
     HttpRequest request = new HttpRequest(url);
+    if (m_configServicesETag != null && !m_configServices.get().isEmpty()) {
+      request.setHeader(HttpHeaders.IF_NONE_MATCH, m_configServicesETag);
+    }
     int maxRetries = 2;
     Throwable exception = null;
 
@@ -153,11 +170,19 @@ public class ConfigServiceLocator {
       try {
         HttpResponse<List<ServiceDTO>> response = m_httpUtil.doGet(request, m_responseType);
         transaction.setStatus(Transaction.SUCCESS);
+        boolean ordered = Boolean.parseBoolean(response.getHeader(ConfigConsts.CONFIG_SERVICES_ORDERED_HEADER));
+        if (response.getStatusCode() == 304) {
+          //config services not changed
+          m_configServicesOrdered.set(ordered);
+          return;
+        }
         List<ServiceDTO> services = response.getBody();
         if (services == null || services.isEmpty()) {
           logConfigService("Empty response!");
           continue;
         }
+        m_configServicesETag = response.getHeader(HttpHeaders.ETAG);
+        m_configServicesOrdered.set(ordered);
         setConfigServices(services);
         return;
       } catch (Throwable ex) {
@@ -188,12 +213,16 @@ public class ConfigServiceLocator {
     String domainName = m_configUtil.getMetaServerDomainName();
     String appId = m_configUtil.getAppId();
     String localIp = m_configUtil.getLocalIp();
+    String dataCenter = m_configUtil.getDataCenter();
 
     Map<String, String> queryParams = Maps.newHashMap();
     queryParams.put("appId", queryParamEscaper.escape(appId));
     if (!Strings.isNullOrEmpty(localIp)) {
       queryParams.put("ip", queryParamEscaper.escape(localIp));
     }
+    if (!Strings.isNullOrEmpty(dataCenter)) {
+      queryParams.put("dataCenter", queryParamEscaper.escape(dataCenter));
+    }
 
     return domainName + "/services/config?" + MAP_JOINER.join(queryParams);
   }
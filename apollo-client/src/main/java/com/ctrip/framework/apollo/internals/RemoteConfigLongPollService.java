@@ -16,6 +16,7 @@ import com.google.gson.Gson;
 import com.ctrip.framework.apollo.build.ApolloInjector;
 import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.core.dto.ApolloConfigNotification;
+import com.ctrip.framework.apollo.core.dto.ApolloConfigNotificationRequest;
 import com.ctrip.framework.apollo.core.dto.ApolloNotificationMessages;
 import com.ctrip.framework.apollo.core.dto.ServiceDTO;
 import com.ctrip.framework.apollo.core.enums.ConfigFileFormat;
@@ -23,6 +24,7 @@ import com.ctrip.framework.apollo.core.schedule.ExponentialSchedulePolicy;
 import com.ctrip.framework.apollo.core.schedule.SchedulePolicy;
 import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
 import com.ctrip.framework.apollo.exceptions.ApolloConfigException;
+import com.ctrip.framework.apollo.exceptions.ApolloConfigStatusCodeException;
 import com.ctrip.framework.apollo.tracer.Tracer;
 import com.ctrip.framework.apollo.tracer.spi.Transaction;
 import com.ctrip.framework.apollo.util.ConfigUtil;
@@ -55,11 +57,13 @@ public class RemoteConfigLongPollService {
   private static final long INIT_NOTIFICATION_ID = ConfigConsts.NOTIFICATION_ID_PLACEHOLDER;
   //90 seconds, should be longer than server side's long polling timeout, which is now 60 seconds
   private static final int LONG_POLLING_READ_TIMEOUT = 90 * 1000;
+  private static final int REQUEST_BODY_NAMESPACE_THRESHOLD = 10;
   private final ExecutorService m_longPollingService;
   private final AtomicBoolean m_longPollingStopped;
   private SchedulePolicy m_longPollFailSchedulePolicyInSecond;
   private RateLimiter m_longPollRateLimiter;
   private final AtomicBoolean m_longPollStarted;
+  private final AtomicBoolean m_requestBodyEnabled;
   private final Multimap<String, RemoteConfigRepository> m_longPollNamespaces;
   private final ConcurrentMap<String, Long> m_notifications;
   private final Map<String, ApolloNotificationMessages> m_remoteNotificationMessages;//namespaceName -> watchedKey -> notificationId
@@ -78,6 +82,7 @@ public class RemoteConfigLongPollService {
     m_longPollingService = Executors.newSingleThreadExecutor(
         ApolloThreadFactory.create("RemoteConfigLongPollService", true));
     m_longPollStarted = new AtomicBoolean(false);
+    m_requestBodyEnabled = new AtomicBoolean(true);
     m_longPollNamespaces =
         Multimaps.synchronizedSetMultimap(HashMultimap.<String, RemoteConfigRepository>create());
     m_notifications = Maps.newConcurrentMap();
@@ -140,6 +145,8 @@ public class RemoteConfigLongPollService {
   private void doLongPollingRefresh(String appId, String cluster, String dataCenter) {
     final Random random = new Random();
     ServiceDTO lastServiceDto = null;
+    //the index of the config service to poll when the config services are ordered by preference
+    int preferredIndex = 0;
     while (!m_longPollingStopped.get() && !Thread.currentThread().isInterrupted()) {
       if (!m_longPollRateLimiter.tryAcquire(5, TimeUnit.SECONDS)) {
         //wait at most 5 seconds
@@ -153,12 +160,20 @@ public class RemoteConfigLongPollService {
       try {
         if (lastServiceDto == null) {
           List<ServiceDTO> configServices = getConfigServices();
-          lastServiceDto = configServices.get(random.nextInt(configServices.size()));
+          if (m_serviceLocator.isConfigServicesOrdered()) {
+            lastServiceDto = configServices.get(preferredIndex % configServices.size());
+          } else {
+            lastServiceDto = configServices.get(random.nextInt(configServices.size()));
+          }
         }
 
+        //send the notifications in request body when there are lots of namespaces to keep the url short
+        boolean useRequestBody =
+            m_requestBodyEnabled.get() && m_notifications.size() >= REQUEST_BODY_NAMESPACE_THRESHOLD;
+
         url =
             assembleLongPollRefreshUrl(lastServiceDto.getHomepageUrl(), appId, cluster, dataCenter,
-                m_notifications);
+                useRequestBody ? null : m_notifications);
 
         logger.debug("Long polling from {}", url);
         HttpRequest request = new HttpRequest(url);
@@ -166,8 +181,10 @@ public class RemoteConfigLongPollService {
 
         transaction.addData("Url", url);
 
-        final HttpResponse<List<ApolloConfigNotification>> response =
-            m_httpUtil.doGet(request, m_responseType);
+        final HttpResponse<List<ApolloConfigNotification>> response = useRequestBody ?
+            m_httpUtil.<List<ApolloConfigNotification>>doPost(request, assembleNotificationRequest(m_notifications),
+                m_responseType) :
+            m_httpUtil.<List<ApolloConfigNotification>>doGet(request, m_responseType);
 
         logger.debug("Long polling response: {}, url: {}", response.getStatusCode(), url);
         if (response.getStatusCode() == 200 && response.getBody() != null) {
@@ -177,9 +194,17 @@ public class RemoteConfigLongPollService {
           notify(lastServiceDto, response.getBody());
         }
 
-        //try to load balance
-        if (response.getStatusCode() == 304 && random.nextBoolean()) {
-          lastServiceDto = null;
+        if (response.getStatusCode() == 304) {
+          if (m_serviceLocator.isConfigServicesOrdered()) {
+            //switch back to the preferred config service once it is available again
+            if (preferredIndex != 0) {
+              preferredIndex = 0;
+              lastServiceDto = null;
+            }
+          } else if (random.nextBoolean()) {
+            //try to load balance
+            lastServiceDto = null;
+          }
         }
 
         m_longPollFailSchedulePolicyInSecond.success();
@@ -187,9 +212,22 @@ public class RemoteConfigLongPollService {
         transaction.setStatus(Transaction.SUCCESS);
       } catch (Throwable ex) {
         lastServiceDto = null;
+        //fail over to the next config service
+        preferredIndex++;
         Tracer.logEvent("ApolloConfigException", ExceptionUtil.getDetailMessage(ex));
         transaction.setStatus(ex);
         long sleepTimeInSecond = m_longPollFailSchedulePolicyInSecond.fail();
+        //old config services only support GET
+        if (ex instanceof ApolloConfigStatusCodeException
+            && ((ApolloConfigStatusCodeException) ex).getStatusCode() == 405
+            && m_requestBodyEnabled.compareAndSet(true, false)) {
+          logger.info("Config service doesn't support long polling with request body, fall back to query string");
+        }
+        //honor the server's retry hint when it is shedding load
+        if (ex instanceof ApolloConfigStatusCodeException) {
+          sleepTimeInSecond = Math.max(sleepTimeInSecond,
+              ((ApolloConfigStatusCodeException) ex).getRetryAfterInSeconds());
+        }
         logger.warn(
             "Long polling failed, will retry in {} seconds. appId: {}, cluster: {}, namespaces: {}, long polling url: {}, reason: {}",
             sleepTimeInSecond, appId, cluster, assembleNamespaces(), url, ExceptionUtil.getDetailMessage(ex));
@@ -276,8 +314,11 @@ public class RemoteConfigLongPollService {
     Map<String, String> queryParams = Maps.newHashMap();
     queryParams.put("appId", queryParamEscaper.escape(appId));
     queryParams.put("cluster", queryParamEscaper.escape(cluster));
-    queryParams
-        .put("notifications", queryParamEscaper.escape(assembleNotifications(notificationsMap)));
+    //null means the notifications are sent in request body
+    if (notificationsMap != null) {
+      queryParams
+          .put("notifications", queryParamEscaper.escape(assembleNotifications(notificationsMap)));
+    }
 
     if (!Strings.isNullOrEmpty(dataCenter)) {
       queryParams.put("dataCenter", queryParamEscaper.escape(dataCenter));
@@ -304,6 +345,14 @@ public class RemoteConfigLongPollService {
     return gson.toJson(notifications);
   }
 
+  ApolloConfigNotificationRequest assembleNotificationRequest(Map<String, Long> notificationsMap) {
+    List<ApolloConfigNotification> notifications = Lists.newArrayList();
+    for (Map.Entry<String, Long> entry : notificationsMap.entrySet()) {
+      notifications.add(new ApolloConfigNotification(entry.getKey(), entry.getValue()));
+    }
+    return new ApolloConfigNotificationRequest(notifications);
+  }
+
   private List<ServiceDTO> getConfigServices() {
     List<ServiceDTO> services = m_serviceLocator.getConfigServices();
     if (services.size() == 0) {
@@ -183,7 +183,9 @@ public class RemoteConfigRepository extends AbstractConfigRepository {
     String url = null;
     for (int i = 0; i < maxRetries; i++) {
       List<ServiceDTO> randomConfigServices = Lists.newLinkedList(configServices);
-      Collections.shuffle(randomConfigServices);
+      if (!m_serviceLocator.isConfigServicesOrdered()) {
+        Collections.shuffle(randomConfigServices);
+      }
       //Access the server which notifies the client first
       if (m_longPollServiceDto.get() != null) {
         randomConfigServices.add(0, m_longPollServiceDto.getAndSet(null));
@@ -254,6 +256,13 @@ public class RemoteConfigRepository extends AbstractConfigRepository {
         // if force refresh, do normal sleep, if normal config load, do exponential sleep
         onErrorSleepTime = m_configNeedForceRefresh.get() ? m_configUtil.getOnErrorRetryInterval() :
             m_loadConfigFailSchedulePolicy.fail();
+
+        //honor the server's retry hint when it is shedding load
+        if (exception instanceof ApolloConfigStatusCodeException
+            && ((ApolloConfigStatusCodeException) exception).getRetryAfterInSeconds() > 0) {
+          onErrorSleepTime = Math.max(onErrorSleepTime, m_configUtil.getOnErrorRetryIntervalTimeUnit()
+              .convert(((ApolloConfigStatusCodeException) exception).getRetryAfterInSeconds(), TimeUnit.SECONDS));
+        }
       }
 
     }
@@ -1,5 +1,8 @@
 package com.ctrip.framework.apollo.util.http;
 
+import com.google.common.collect.Maps;
+import java.util.Map;
+
 /**
  * @author Jason Song(song_s@ctrip.com)
  */
@@ -7,6 +10,7 @@ public class HttpRequest {
   private String m_url;
   private int m_connectTimeout;
   private int m_readTimeout;
+  private Map<String, String> m_headers;
 
   /**
    * Create the request for the url.
@@ -16,6 +20,7 @@ public class HttpRequest {
     this.m_url = url;
     m_connectTimeout = -1;
     m_readTimeout = -1;
+    m_headers = Maps.newHashMap();
   }
 
   public String getUrl() {
@@ -37,4 +42,12 @@ public class HttpRequest {
   public void setReadTimeout(int readTimeout) {
     this.m_readTimeout = readTimeout;
   }
+
+  public Map<String, String> getHeaders() {
+    return m_headers;
+  }
+
+  public void setHeader(String name, String value) {
+    m_headers.put(name, value);
+  }
 }
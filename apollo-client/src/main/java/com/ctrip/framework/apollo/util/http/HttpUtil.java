@@ -10,10 +10,13 @@ import com.google.gson.Gson;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * @author Jason Song(song_s@ctrip.com)
@@ -68,15 +71,45 @@ public class HttpUtil {
     return doGetWithSerializeFunction(httpRequest, convertResponse);
   }
 
+  /**
+   * Do post operation for the http request, the request body is sent as json.
+   *
+   * @param httpRequest  the request
+   * @param requestBody  the request body
+   * @param responseType the response type
+   * @return the response
+   * @throws ApolloConfigException if any error happened or response code is neither 200 nor 304
+   */
+  public <T> HttpResponse<T> doPost(HttpRequest httpRequest, Object requestBody, final Type responseType) {
+    Function<String, T> convertResponse = new Function<String, T>() {
+      @Override
+      public T apply(String input) {
+        return gson.fromJson(input, responseType);
+      }
+    };
+
+    return doRequestWithSerializeFunction("POST", httpRequest, gson.toJson(requestBody), convertResponse);
+  }
+
   private <T> HttpResponse<T> doGetWithSerializeFunction(HttpRequest httpRequest,
                                                          Function<String, T> serializeFunction) {
+    return doRequestWithSerializeFunction("GET", httpRequest, null, serializeFunction);
+  }
+
+  private <T> HttpResponse<T> doRequestWithSerializeFunction(String method, HttpRequest httpRequest,
+                                                             String requestBody,
+                                                             Function<String, T> serializeFunction) {
     InputStreamReader isr = null;
     InputStreamReader esr = null;
     int statusCode;
     try {
       HttpURLConnection conn = (HttpURLConnection) new URL(httpRequest.getUrl()).openConnection();
 
-      conn.setRequestMethod("GET");
+      conn.setRequestMethod(method);
+
+      for (Map.Entry<String, String> header : httpRequest.getHeaders().entrySet()) {
+        conn.setRequestProperty(header.getKey(), header.getValue());
+      }
 
       int connectTimeout = httpRequest.getConnectTimeout();
       if (connectTimeout < 0) {
@@ -91,7 +124,15 @@ public class HttpUtil {
       conn.setConnectTimeout(connectTimeout);
       conn.setReadTimeout(readTimeout);
 
-      conn.connect();
+      if (requestBody != null) {
+        conn.setDoOutput(true);
+        conn.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
+        try (OutputStream os = conn.getOutputStream()) {
+          os.write(requestBody.getBytes(StandardCharsets.UTF_8));
+        }
+      } else {
+        conn.connect();
+      }
 
       statusCode = conn.getResponseCode();
       String response;
@@ -121,21 +162,23 @@ public class HttpUtil {
           throw ex;
         } else {
           // for status codes like 404, IOException is expected when calling conn.getInputStream()
-          throw new ApolloConfigStatusCodeException(statusCode, ex);
+          throw new ApolloConfigStatusCodeException(statusCode,
+              parseRetryAfter(conn.getHeaderField("Retry-After")), ex);
         }
       }
 
       if (statusCode == 200) {
-        return new HttpResponse<>(statusCode, serializeFunction.apply(response));
+        return new HttpResponse<>(statusCode, serializeFunction.apply(response), extractHeaders(conn));
       }
 
       if (statusCode == 304) {
-        return new HttpResponse<>(statusCode, null);
+        return new HttpResponse<>(statusCode, null, extractHeaders(conn));
       }
     } catch (ApolloConfigStatusCodeException ex) {
       throw ex;
     } catch (Throwable ex) {
-      throw new ApolloConfigException("Could not complete get operation", ex);
+      throw new ApolloConfigException(
+          String.format("Could not complete %s operation", method.toLowerCase()), ex);
     } finally {
       if (isr != null) {
         try {
@@ -155,7 +198,33 @@ public class HttpUtil {
     }
 
     throw new ApolloConfigStatusCodeException(statusCode,
-        String.format("Get operation failed for %s", httpRequest.getUrl()));
+        String.format("%s operation failed for %s", method.charAt(0) + method.substring(1).toLowerCase(),
+            httpRequest.getUrl()));
+  }
+
+  private Map<String, String> extractHeaders(HttpURLConnection conn) {
+    Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (String name : conn.getHeaderFields().keySet()) {
+      //the status line is keyed by null
+      if (name != null) {
+        headers.put(name, conn.getHeaderField(name));
+      }
+    }
+    return headers;
+  }
+
+  /**
+   * Only the delay-seconds form of Retry-After is supported, which is what the config service responds with
+   */
+  int parseRetryAfter(String retryAfter) {
+    if (retryAfter == null) {
+      return -1;
+    }
+    try {
+      return Integer.parseInt(retryAfter.trim());
+    } catch (NumberFormatException ex) {
+      return -1;
+    }
   }
 
 }
@@ -1,17 +1,39 @@
 package com.ctrip.framework.apollo.internals;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.ctrip.framework.apollo.build.MockInjector;
+import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.ctrip.framework.apollo.util.ConfigUtil;
+import com.ctrip.framework.apollo.util.http.HttpRequest;
+import com.ctrip.framework.apollo.util.http.HttpResponse;
+import com.ctrip.framework.apollo.util.http.HttpUtil;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.net.HttpHeaders;
+import java.lang.reflect.Type;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class ConfigServiceLocatorTest {
 
   @After
   public void tearDown() throws Exception {
     System.clearProperty("apollo.configService");
+    MockInjector.reset();
   }
 
   @Test
@@ -29,5 +51,45 @@ public class ConfigServiceLocatorTest {
 
     assertEquals(someConfigServiceUrl.trim(), result.get(0).getHomepageUrl());
     assertEquals(anotherConfigServiceUrl.trim(), result.get(1).getHomepageUrl());
+    assertFalse(configServiceLocator.isConfigServicesOrdered());
+  }
+
+  @Test
+  public void testGetConfigServicesWithNotModifiedResponse() throws Exception {
+    String someETag = "someETag";
+    String someDataCenter = "someDataCenter";
+    ConfigUtil configUtil = mock(ConfigUtil.class);
+    HttpUtil httpUtil = mock(HttpUtil.class);
+    when(configUtil.getAppId()).thenReturn("someAppId");
+    when(configUtil.getDataCenter()).thenReturn(someDataCenter);
+    when(configUtil.getRefreshInterval()).thenReturn(1);
+    when(configUtil.getRefreshIntervalTimeUnit()).thenReturn(TimeUnit.HOURS);
+    MockInjector.setInstance(ConfigUtil.class, configUtil);
+    MockInjector.setInstance(HttpUtil.class, httpUtil);
+
+    List<ServiceDTO> someServices = Lists.newArrayList(new ServiceDTO());
+    HttpResponse<List<ServiceDTO>> someResponse = new HttpResponse<>(200, someServices,
+        ImmutableMap.of(HttpHeaders.ETAG, someETag, ConfigConsts.CONFIG_SERVICES_ORDERED_HEADER, "true"));
+    HttpResponse<List<ServiceDTO>> notModifiedResponse = new HttpResponse<>(304, null,
+        ImmutableMap.of(HttpHeaders.ETAG, someETag, ConfigConsts.CONFIG_SERVICES_ORDERED_HEADER, "true"));
+    when(httpUtil.<List<ServiceDTO>>doGet(any(HttpRequest.class), any(Type.class)))
+        .thenReturn(someResponse, notModifiedResponse);
+
+    ConfigServiceLocator configServiceLocator = new ConfigServiceLocator();
+
+    assertSame(someServices, configServiceLocator.getConfigServices());
+    assertTrue(configServiceLocator.isConfigServicesOrdered());
+
+    configServiceLocator.tryUpdateConfigServices();
+
+    ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+    verify(httpUtil, times(2)).doGet(requestCaptor.capture(), any(Type.class));
+    HttpRequest firstRequest = requestCaptor.getAllValues().get(0);
+    HttpRequest secondRequest = requestCaptor.getAllValues().get(1);
+
+    assertTrue(firstRequest.getUrl().contains("dataCenter=" + someDataCenter));
+    assertNull(firstRequest.getHeaders().get(HttpHeaders.IF_NONE_MATCH));
+    assertEquals(someETag, secondRequest.getHeaders().get(HttpHeaders.IF_NONE_MATCH));
+    assertSame(someServices, configServiceLocator.getConfigServices());
   }
 }
@@ -1,6 +1,7 @@
 package com.ctrip.framework.apollo.internals;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
@@ -30,15 +31,19 @@ import org.mockito.stubbing.Answer;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.ctrip.framework.apollo.build.MockInjector;
+import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.core.dto.ApolloConfigNotification;
+import com.ctrip.framework.apollo.core.dto.ApolloConfigNotificationRequest;
 import com.ctrip.framework.apollo.core.dto.ApolloNotificationMessages;
 import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.ctrip.framework.apollo.exceptions.ApolloConfigStatusCodeException;
 import com.ctrip.framework.apollo.util.ConfigUtil;
 import com.ctrip.framework.apollo.util.http.HttpRequest;
 import com.ctrip.framework.apollo.util.http.HttpResponse;
 import com.ctrip.framework.apollo.util.http.HttpUtil;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.SettableFuture;
 
 /**
@@ -120,6 +125,131 @@ public class RemoteConfigLongPollServiceTest {
     verify(someRepository, never()).onLongPollNotified(any(ServiceDTO.class), any(ApolloNotificationMessages.class));
   }
 
+  @Test
+  public void testSubmitLongPollNamespaceWithOrderedConfigServices() throws Exception {
+    RemoteConfigRepository someRepository = mock(RemoteConfigRepository.class);
+    final String someNamespace = "someNamespace";
+    final String anotherServerUrl = "http://anotherServer";
+
+    ServiceDTO anotherServiceDTO = mock(ServiceDTO.class);
+    when(anotherServiceDTO.getHomepageUrl()).thenReturn(anotherServerUrl);
+    List<ServiceDTO> configServices = Lists.newArrayList(configServiceLocator.getConfigServices());
+    configServices.add(anotherServiceDTO);
+    when(configServiceLocator.getConfigServices()).thenReturn(configServices);
+    when(configServiceLocator.isConfigServicesOrdered()).thenReturn(true);
+
+    when(pollResponse.getStatusCode()).thenReturn(HttpServletResponse.SC_NOT_MODIFIED);
+    final SettableFuture<Boolean> longPollFinished = SettableFuture.create();
+    final AtomicInteger pollCount = new AtomicInteger();
+    final List<String> polledUrls = Lists.newCopyOnWriteArrayList();
+
+    doAnswer(new Answer<HttpResponse<List<ApolloConfigNotification>>>() {
+      @Override
+      public HttpResponse<List<ApolloConfigNotification>> answer(InvocationOnMock invocation)
+          throws Throwable {
+        try {
+          TimeUnit.MILLISECONDS.sleep(50);
+        } catch (InterruptedException e) {
+        }
+        HttpRequest request = invocation.getArgumentAt(0, HttpRequest.class);
+        polledUrls.add(request.getUrl());
+
+        if (pollCount.incrementAndGet() >= 3) {
+          longPollFinished.set(true);
+        }
+        return pollResponse;
+      }
+    }).when(httpUtil).doGet(any(HttpRequest.class), eq(responseType));
+
+    remoteConfigLongPollService.submit(someNamespace, someRepository);
+
+    longPollFinished.get(5000, TimeUnit.MILLISECONDS);
+
+    remoteConfigLongPollService.stopLongPollingRefresh();
+
+    //always poll the preferred config service
+    for (String polledUrl : polledUrls) {
+      assertTrue(polledUrl.startsWith(someServerUrl));
+    }
+  }
+
+  @Test
+  public void testSubmitLongPollLotsOfNamespacesWithRequestBody() throws Exception {
+    RemoteConfigRepository someRepository = mock(RemoteConfigRepository.class);
+    final List<String> someNamespaces = Lists.newArrayList();
+    for (int i = 0; i < 10; i++) {
+      someNamespaces.add("someNamespace" + i);
+    }
+
+    when(pollResponse.getStatusCode()).thenReturn(HttpServletResponse.SC_NOT_MODIFIED);
+    final SettableFuture<ApolloConfigNotificationRequest> longPollFinished = SettableFuture.create();
+
+    doAnswer(new Answer<HttpResponse<List<ApolloConfigNotification>>>() {
+      @Override
+      public HttpResponse<List<ApolloConfigNotification>> answer(InvocationOnMock invocation)
+          throws Throwable {
+        try {
+          TimeUnit.MILLISECONDS.sleep(50);
+        } catch (InterruptedException e) {
+        }
+        HttpRequest request = invocation.getArgumentAt(0, HttpRequest.class);
+
+        assertTrue(request.getUrl().contains(someServerUrl + "/notifications/v2?"));
+        assertTrue(request.getUrl().contains("appId=" + someAppId));
+        assertFalse(request.getUrl().contains("notifications="));
+
+        longPollFinished.set(invocation.getArgumentAt(1, ApolloConfigNotificationRequest.class));
+        return pollResponse;
+      }
+    }).when(httpUtil).doPost(any(HttpRequest.class), any(ApolloConfigNotificationRequest.class), eq(responseType));
+
+    submitNamespacesBeforeLongPollStarted(someNamespaces, someRepository);
+
+    ApolloConfigNotificationRequest notificationRequest = longPollFinished.get(5000, TimeUnit.MILLISECONDS);
+
+    remoteConfigLongPollService.stopLongPollingRefresh();
+
+    assertEquals(Sets.newHashSet(someNamespaces), Sets.newHashSet(notificationRequest.getNamespaceNames()));
+    assertEquals(someNamespaces.size(), notificationRequest.getNotificationIds().size());
+    verify(httpUtil, never()).doGet(any(HttpRequest.class), eq(responseType));
+  }
+
+  @Test
+  public void testSubmitLongPollLotsOfNamespacesWithOldConfigService() throws Exception {
+    RemoteConfigRepository someRepository = mock(RemoteConfigRepository.class);
+
+    when(httpUtil.doPost(any(HttpRequest.class), any(ApolloConfigNotificationRequest.class), eq(responseType)))
+        .thenThrow(new ApolloConfigStatusCodeException(405, "Method Not Allowed"));
+    when(pollResponse.getStatusCode()).thenReturn(HttpServletResponse.SC_NOT_MODIFIED);
+    final SettableFuture<Boolean> longPollFinished = SettableFuture.create();
+
+    doAnswer(new Answer<HttpResponse<List<ApolloConfigNotification>>>() {
+      @Override
+      public HttpResponse<List<ApolloConfigNotification>> answer(InvocationOnMock invocation)
+          throws Throwable {
+        HttpRequest request = invocation.getArgumentAt(0, HttpRequest.class);
+
+        assertTrue(request.getUrl().contains("notifications="));
+
+        longPollFinished.set(true);
+        return pollResponse;
+      }
+    }).when(httpUtil).doGet(any(HttpRequest.class), eq(responseType));
+
+    List<String> someNamespaces = Lists.newArrayList();
+    for (int i = 0; i < 10; i++) {
+      someNamespaces.add("someNamespace" + i);
+    }
+    submitNamespacesBeforeLongPollStarted(someNamespaces, someRepository);
+
+    longPollFinished.get(5000, TimeUnit.MILLISECONDS);
+
+    remoteConfigLongPollService.stopLongPollingRefresh();
+
+    verify(httpUtil, times(1))
+        .doPost(any(HttpRequest.class), any(ApolloConfigNotificationRequest.class), eq(responseType));
+  }
+
   @Test
   public void testSubmitLongPollNamespaceWith200Response() throws Exception {
     RemoteConfigRepository someRepository = mock(RemoteConfigRepository.class);
@@ -465,6 +595,17 @@ public class RemoteConfigLongPollServiceTest {
             + "%22%2C%22notificationId%22%3A" + anotherNotificationId + "%7D%5D"));
   }
 
+  private void submitNamespacesBeforeLongPollStarted(List<String> namespaces,
+                                                     RemoteConfigRepository repository) {
+    //long polling starts on the first submit, so the other namespaces need to be registered in advance
+    Map<String, Long> notifications =
+        (Map<String, Long>) ReflectionTestUtils.getField(remoteConfigLongPollService, "m_notifications");
+    for (String namespace : namespaces.subList(1, namespaces.size())) {
+      notifications.put(namespace, ConfigConsts.NOTIFICATION_ID_PLACEHOLDER);
+    }
+    remoteConfigLongPollService.submit(namespaces.get(0), repository);
+  }
+
   public static class MockConfigUtil extends ConfigUtil {
     @Override
     public String getAppId() {
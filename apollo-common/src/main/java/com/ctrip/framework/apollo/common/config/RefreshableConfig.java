@@ -55,6 +55,9 @@ public abstract class RefreshableConfig {
       environment.getPropertySources().addLast(propertySource);
     }
 
+    //the configs are probed for changes before being loaded, so the interval could be short
+    int refreshInterval = Math.max(getIntProperty("server-config.refresh.interval", CONFIG_REFRESH_INTERVAL), 1);
+
     //task to update configs
     ScheduledExecutorService
         executorService =
@@ -68,7 +71,7 @@ public abstract class RefreshableConfig {
             logger.error("Refresh configs failed.", t);
             Tracer.logError("Refresh configs failed.", t);
           }
-        }, CONFIG_REFRESH_INTERVAL, CONFIG_REFRESH_INTERVAL, TimeUnit.SECONDS);
+        }, refreshInterval, refreshInterval, TimeUnit.SECONDS);
   }
 
   public int getIntProperty(String key, int defaultValue) {
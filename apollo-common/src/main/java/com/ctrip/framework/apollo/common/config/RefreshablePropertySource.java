@@ -3,9 +3,16 @@ package com.ctrip.framework.apollo.common.config;
 import org.springframework.core.env.MapPropertySource;
 
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 public abstract class RefreshablePropertySource extends MapPropertySource {
+  //reload anyway once in a while, in case some change is not reflected in the version
+  private static final long MAX_RELOAD_INTERVAL_IN_MILLIS = TimeUnit.MINUTES.toMillis(10);
 
+  private Object lastVersion;
+  private boolean reloadedLastTime;
+  private long lastReloadTime;
 
   public RefreshablePropertySource(String name, Map<String, Object> source) {
     super(name, source);
@@ -21,4 +28,26 @@ public abstract class RefreshablePropertySource extends MapPropertySource {
    */
   protected abstract void refresh();
 
+  /**
+   * Compare the version of the source, e.g. the row count, the max last modified time and the max id, with the last one
+   * checked.
+   *
+   * The source is reloaded once more after a change, as the version might not tell the changes made right after the
+   * last reload apart, e.g. changes made within the same second.
+   *
+   * @return whether the source should be reloaded
+   */
+  protected boolean shouldReload(Object version) {
+    long now = System.currentTimeMillis();
+    boolean changed = !Objects.equals(version, lastVersion);
+    boolean shouldReload = changed || reloadedLastTime || version == null
+        || now - lastReloadTime >= MAX_RELOAD_INTERVAL_IN_MILLIS;
+
+    lastVersion = version;
+    reloadedLastTime = changed;
+    if (shouldReload) {
+      lastReloadTime = now;
+    }
+    return shouldReload;
+  }
 }
@@ -0,0 +1,57 @@
+package com.ctrip.framework.apollo.common.dto;
+
+/**
+ * One namespace to release in a batch publish
+ */
+public class NamespaceReleaseDTO {
+
+  private String clusterName;
+
+  private String namespaceName;
+
+  private String releaseName;
+
+  private String releaseComment;
+
+  public NamespaceReleaseDTO() {
+  }
+
+  public NamespaceReleaseDTO(String clusterName, String namespaceName, String releaseName, String releaseComment) {
+    this.clusterName = clusterName;
+    this.namespaceName = namespaceName;
+    this.releaseName = releaseName;
+    this.releaseComment = releaseComment;
+  }
+
+  public String getClusterName() {
+    return clusterName;
+  }
+
+  public void setClusterName(String clusterName) {
+    this.clusterName = clusterName;
+  }
+
+  public String getNamespaceName() {
+    return namespaceName;
+  }
+
+  public void setNamespaceName(String namespaceName) {
+    this.namespaceName = namespaceName;
+  }
+
+  public String getReleaseName() {
+    return releaseName;
+  }
+
+  public void setReleaseName(String releaseName) {
+    this.releaseName = releaseName;
+  }
+
+  public String getReleaseComment() {
+    return releaseComment;
+  }
+
+  public void setReleaseComment(String releaseComment) {
+    this.releaseComment = releaseComment;
+  }
+}
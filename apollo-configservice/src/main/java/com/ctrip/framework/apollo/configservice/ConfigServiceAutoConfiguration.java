@@ -6,13 +6,19 @@ import com.ctrip.framework.apollo.biz.message.ReleaseMessageScanner;
 import com.ctrip.framework.apollo.configservice.controller.ConfigFileController;
 import com.ctrip.framework.apollo.configservice.controller.NotificationController;
 import com.ctrip.framework.apollo.configservice.controller.NotificationControllerV2;
+import com.ctrip.framework.apollo.configservice.limiter.AdaptiveConcurrencyLimiter;
+import com.ctrip.framework.apollo.configservice.limiter.ConcurrencyLimitInterceptor;
 import com.ctrip.framework.apollo.configservice.service.ReleaseMessageServiceWithCache;
 import com.ctrip.framework.apollo.configservice.service.config.ConfigService;
 import com.ctrip.framework.apollo.configservice.service.config.ConfigServiceWithCache;
 import com.ctrip.framework.apollo.configservice.service.config.DefaultConfigService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * @author Jason Song(song_s@ctrip.com)
@@ -44,6 +50,34 @@ public class ConfigServiceAutoConfiguration {
     return (NoOpPasswordEncoder) NoOpPasswordEncoder.getInstance();
   }
 
+  @Configuration
+  static class ConcurrencyLimitConfiguration implements WebMvcConfigurer {
+    private final BizConfig bizConfig;
+    private final AdaptiveConcurrencyLimiter configConcurrencyLimiter;
+    private final AdaptiveConcurrencyLimiter notificationConcurrencyLimiter;
+
+    public ConcurrencyLimitConfiguration(
+        final BizConfig bizConfig,
+        final ObjectProvider<MeterRegistry> meterRegistry) {
+      this.bizConfig = bizConfig;
+      // the limiters are not exposed as beans, otherwise the meter registry would depend on the db backed BizConfig
+      this.configConcurrencyLimiter = new AdaptiveConcurrencyLimiter("config", bizConfig);
+      this.notificationConcurrencyLimiter = new AdaptiveConcurrencyLimiter("notification", bizConfig);
+      meterRegistry.ifAvailable(registry -> {
+        configConcurrencyLimiter.bindTo(registry);
+        notificationConcurrencyLimiter.bindTo(registry);
+      });
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+      registry.addInterceptor(new ConcurrencyLimitInterceptor(configConcurrencyLimiter, bizConfig))
+          .addPathPatterns("/configs/**", "/configfiles/**");
+      registry.addInterceptor(new ConcurrencyLimitInterceptor(notificationConcurrencyLimiter, bizConfig))
+          .addPathPatterns("/notifications/**");
+    }
+  }
+
   @Configuration
   static class MessageScannerConfiguration {
     private final NotificationController notificationController;
@@ -12,8 +12,10 @@ import com.ctrip.framework.apollo.configservice.util.WatchKeysUtil;
 import com.ctrip.framework.apollo.configservice.wrapper.DeferredResultWrapper;
 import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.core.dto.ApolloConfigNotification;
+import com.ctrip.framework.apollo.core.dto.ApolloConfigNotificationRequest;
 import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
 import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.HashMultimap;
@@ -32,6 +34,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -110,6 +114,33 @@ public class NotificationControllerV2 implements ReleaseMessageListener {
       throw new BadRequestException("Invalid format of notifications: " + notificationsAsString);
     }
 
+    return doPollNotification(appId, cluster, notifications, dataCenter, clientIp);
+  }
+
+  /**
+   * The same as {@link #pollNotification(String, String, String, String, String)}, but the notifications are sent
+   * in the request body in a compact format, so that clients with lots of namespaces don't need to send and the
+   * server doesn't need to decode a huge query string.
+   */
+  @PostMapping
+  public DeferredResult<ResponseEntity<List<ApolloConfigNotification>>> pollNotificationWithRequestBody(
+      @RequestParam(value = "appId") String appId,
+      @RequestParam(value = "cluster") String cluster,
+      @RequestBody ApolloConfigNotificationRequest notificationRequest,
+      @RequestParam(value = "dataCenter", required = false) String dataCenter,
+      @RequestParam(value = "ip", required = false) String clientIp) {
+    List<ApolloConfigNotification> notifications = notificationRequest.toNotifications();
+
+    if (CollectionUtils.isEmpty(notifications)) {
+      throw new BadRequestException("Invalid format of notifications: " + notificationRequest);
+    }
+
+    return doPollNotification(appId, cluster, notifications, dataCenter, clientIp);
+  }
+
+  private DeferredResult<ResponseEntity<List<ApolloConfigNotification>>> doPollNotification(
+      String appId, String cluster, List<ApolloConfigNotification> notifications, String dataCenter,
+      String clientIp) {
     DeferredResultWrapper deferredResultWrapper = new DeferredResultWrapper(bizConfig.longPollingTimeoutInMilli());
     Set<String> namespaces = Sets.newHashSet();
     Map<String, Long> clientSideNotifications = Maps.newHashMap();
@@ -126,7 +157,7 @@ public class NotificationControllerV2 implements ReleaseMessageListener {
     }
 
     if (CollectionUtils.isEmpty(namespaces)) {
-      throw new BadRequestException("Invalid format of notifications: " + notificationsAsString);
+      throw new BadRequestException("Invalid format of notifications: " + notifications);
     }
 
     Multimap<String, String> watchedKeysMap =
@@ -140,14 +171,14 @@ public class NotificationControllerV2 implements ReleaseMessageListener {
      * when method handleMessage is executed between check and set deferredResult.
      */
     deferredResultWrapper
-          .onTimeout(() -> logWatchedKeys(watchedKeys, "Apollo.LongPoll.TimeOutKeys"));
+          .onTimeout(() -> logWatchedKeys(appId, watchedKeys, "Apollo.LongPoll.TimeOutKeys"));
 
     deferredResultWrapper.onCompletion(() -> {
       //unregister all keys
       for (String key : watchedKeys) {
         deferredResults.remove(key, deferredResultWrapper);
       }
-      logWatchedKeys(watchedKeys, "Apollo.LongPoll.CompletedKeys");
+      logWatchedKeys(appId, watchedKeys, "Apollo.LongPoll.CompletedKeys");
     });
 
     //register all keys
@@ -155,7 +186,7 @@ public class NotificationControllerV2 implements ReleaseMessageListener {
       this.deferredResults.put(key, deferredResultWrapper);
     }
 
-    logWatchedKeys(watchedKeys, "Apollo.LongPoll.RegisteredKeys");
+    logWatchedKeys(appId, watchedKeys, "Apollo.LongPoll.RegisteredKeys");
     logger.debug("Listening {} from appId: {}, cluster: {}, namespace: {}, datacenter: {}",
         watchedKeys, appId, cluster, namespaces, dataCenter);
 
@@ -312,7 +343,11 @@ public class NotificationControllerV2 implements ReleaseMessageListener {
         return keys.get(2);
       };
 
-  private void logWatchedKeys(Set<String> watchedKeys, String eventName) {
+  private void logWatchedKeys(String appId, Set<String> watchedKeys, String eventName) {
+    if (bizConfig.isTracerEventAggregated()) {
+      Tracer.logEvent(eventName, appId, Transaction.SUCCESS, "keyCount=" + watchedKeys.size());
+      return;
+    }
     for (String watchedKey : watchedKeys) {
       Tracer.logEvent(eventName, watchedKey);
     }
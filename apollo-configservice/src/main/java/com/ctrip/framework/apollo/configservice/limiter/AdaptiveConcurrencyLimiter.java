@@ -0,0 +1,97 @@
+package com.ctrip.framework.apollo.configservice.limiter;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AIMD(additive increase, multiplicative decrease) concurrency limiter
+ *
+ * <ul>
+ *   <li>the limit grows by one when a request completes within the latency threshold and the limiter is well utilized</li>
+ *   <li>the limit shrinks by a fixed ratio when a request completes slower than the latency threshold</li>
+ *   <li>requests exceeding the current limit are rejected immediately</li>
+ * </ul>
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private final String name;
+  private final BizConfig bizConfig;
+  private final AtomicInteger inFlight;
+  private final AtomicLong rejected;
+  private volatile int limit;
+
+  public AdaptiveConcurrencyLimiter(final String name, final BizConfig bizConfig) {
+    this.name = name;
+    this.bizConfig = bizConfig;
+    this.inFlight = new AtomicInteger();
+    this.rejected = new AtomicLong();
+    this.limit = bizConfig.concurrencyLimitInitial();
+  }
+
+  /**
+   * @return true if the request is admitted, in which case {@link #release(long)} must be called once it is done
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        rejected.incrementAndGet();
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  public void release(long latencyInMilli) {
+    int current = inFlight.getAndDecrement();
+    int minLimit = bizConfig.concurrencyLimitMin();
+    int maxLimit = Math.max(minLimit, bizConfig.concurrencyLimitMax());
+
+    synchronized (this) {
+      int newLimit = limit;
+      if (latencyInMilli > bizConfig.concurrencyLimitLatencyThresholdInMilli()) {
+        newLimit = (int) (newLimit * BACKOFF_RATIO);
+      } else if (current * 2 >= newLimit) {
+        // only probe for more capacity when the current limit is actually being used
+        newLimit = newLimit + 1;
+      }
+      limit = Math.min(maxLimit, Math.max(minLimit, newLimit));
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public long getRejected() {
+    return rejected.get();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("apollo.concurrency-limit.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+        .tag("endpoint", name).register(registry);
+    Gauge.builder("apollo.concurrency-limit.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+        .tag("endpoint", name).register(registry);
+    FunctionCounter.builder("apollo.concurrency-limit.rejected", this, AdaptiveConcurrencyLimiter::getRejected)
+        .tag("endpoint", name).register(registry);
+  }
+}
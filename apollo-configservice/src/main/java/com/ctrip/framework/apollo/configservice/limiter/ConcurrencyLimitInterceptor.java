@@ -0,0 +1,75 @@
+package com.ctrip.framework.apollo.configservice.limiter;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.tracer.Tracer;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds load with 429 and a Retry-After hint when the {@link AdaptiveConcurrencyLimiter} is saturated.
+ *
+ * For long polling requests, the permit is held only until the request is registered and turns async,
+ * so the limiter protects the registration and db check phase instead of the idle waiting phase.
+ */
+public class ConcurrencyLimitInterceptor extends HandlerInterceptorAdapter {
+  private static final String ACQUIRED_TIME_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".ACQUIRED_TIME";
+
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final BizConfig bizConfig;
+
+  public ConcurrencyLimitInterceptor(final AdaptiveConcurrencyLimiter limiter, final BizConfig bizConfig) {
+    this.limiter = limiter;
+    this.bizConfig = bizConfig;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    //async dispatch of an admitted request
+    if (request.getDispatcherType() == DispatcherType.ASYNC || !bizConfig.isConcurrencyLimitEnabled()) {
+      return true;
+    }
+
+    if (!limiter.tryAcquire()) {
+      int retryAfter = bizConfig.concurrencyLimitRetryAfterInSecond();
+      //add some jitter so that the rejected clients won't come back all at once
+      retryAfter += ThreadLocalRandom.current().nextInt(retryAfter + 1);
+      response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      Tracer.logEvent("Apollo.ConcurrencyLimit.Rejected", limiter.getName());
+      return false;
+    }
+
+    request.setAttribute(ACQUIRED_TIME_ATTRIBUTE, System.nanoTime());
+    return true;
+  }
+
+  @Override
+  public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                             Object handler) {
+    release(request);
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                              Exception ex) {
+    release(request);
+  }
+
+  private void release(HttpServletRequest request) {
+    Object acquiredTime = request.getAttribute(ACQUIRED_TIME_ATTRIBUTE);
+    if (acquiredTime == null) {
+      return;
+    }
+    request.removeAttribute(ACQUIRED_TIME_ATTRIBUTE);
+    limiter.release(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - (long) acquiredTime));
+  }
+}
@@ -2,19 +2,25 @@ package com.ctrip.framework.apollo.configservice.service.config;
 
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
 
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.datasource.ReplicaRouting;
 import com.ctrip.framework.apollo.biz.entity.Release;
 import com.ctrip.framework.apollo.biz.entity.ReleaseMessage;
+import com.ctrip.framework.apollo.biz.entity.ReleasePayload;
 import com.ctrip.framework.apollo.biz.message.Topics;
+import com.ctrip.framework.apollo.biz.service.InstanceService;
 import com.ctrip.framework.apollo.biz.service.ReleaseMessageService;
 import com.ctrip.framework.apollo.biz.service.ReleaseService;
 import com.ctrip.framework.apollo.biz.utils.ReleaseMessageKeyGenerator;
 import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.core.dto.ApolloNotificationMessages;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
 import com.ctrip.framework.apollo.tracer.Tracer;
 import com.ctrip.framework.apollo.tracer.spi.Transaction;
 
@@ -25,6 +31,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
@@ -42,6 +50,7 @@ public class ConfigServiceWithCache extends AbstractConfigService {
   private static final String TRACER_EVENT_CACHE_LOAD_ID = "ConfigCache.LoadFromDBById";
   private static final String TRACER_EVENT_CACHE_GET = "ConfigCache.Get";
   private static final String TRACER_EVENT_CACHE_GET_ID = "ConfigCache.GetById";
+  private static final String TRACER_EVENT_CACHE_WARM_UP = "ConfigCache.WarmUp";
   private static final Splitter STRING_SPLITTER =
       Splitter.on(ConfigConsts.CLUSTER_NAMESPACE_SEPARATOR).omitEmptyStrings();
 
@@ -51,14 +60,27 @@ public class ConfigServiceWithCache extends AbstractConfigService {
   @Autowired
   private ReleaseMessageService releaseMessageService;
 
+  @Autowired
+  private BizConfig bizConfig;
+
+  @Autowired
+  private ReplicaRouting replicaRouting;
+
+  @Autowired
+  private InstanceService instanceService;
+
   private LoadingCache<String, ConfigCacheEntry> configCache;
 
   private LoadingCache<Long, Optional<Release>> configIdCache;
 
+  //releases with identical content share one payload instance while any of them is cached
+  private Cache<String, ReleasePayload> payloadCache;
+
   private ConfigCacheEntry nullConfigCacheEntry;
 
   public ConfigServiceWithCache() {
     nullConfigCacheEntry = new ConfigCacheEntry(ConfigConsts.NOTIFICATION_ID_PLACEHOLDER, null);
+    payloadCache = CacheBuilder.newBuilder().weakValues().build();
   }
 
   @PostConstruct
@@ -77,10 +99,11 @@ public class ConfigServiceWithCache extends AbstractConfigService {
 
             Transaction transaction = Tracer.newTransaction(TRACER_EVENT_CACHE_LOAD, key);
             try {
-              ReleaseMessage latestReleaseMessage = releaseMessageService.findLatestReleaseMessageForMessages(Lists
-                  .newArrayList(key));
-              Release latestRelease = releaseService.findLatestActiveRelease(namespaceInfo.get(0), namespaceInfo.get(1),
-                  namespaceInfo.get(2));
+              ReleaseMessage latestReleaseMessage = replicaRouting.executeOnReplica(() -> releaseMessageService
+                  .findLatestReleaseMessageForMessages(Lists.newArrayList(key)));
+              Release latestRelease = replicaRouting.executeOnReplica(() -> releaseService.findLatestActiveRelease(
+                  namespaceInfo.get(0), namespaceInfo.get(1), namespaceInfo.get(2)));
+              prepareConfigurations(latestRelease, transaction);
 
               transaction.setStatus(Transaction.SUCCESS);
 
@@ -107,7 +130,8 @@ public class ConfigServiceWithCache extends AbstractConfigService {
           public Optional<Release> load(Long key) throws Exception {
             Transaction transaction = Tracer.newTransaction(TRACER_EVENT_CACHE_LOAD_ID, String.valueOf(key));
             try {
-              Release release = releaseService.findActiveOne(key);
+              Release release = replicaRouting.executeOnReplica(() -> releaseService.findActiveOne(key));
+              prepareConfigurations(release, transaction);
 
               transaction.setStatus(Transaction.SUCCESS);
 
@@ -120,11 +144,73 @@ public class ConfigServiceWithCache extends AbstractConfigService {
             }
           }
         });
+
+    warmUp();
+  }
+
+  /**
+   * Share the payload with the cached releases of identical content, and decompress the configurations once when
+   * loading, so that the cached release is served without decompressing
+   */
+  private void prepareConfigurations(Release release, Transaction transaction) {
+    if (release == null) {
+      return;
+    }
+    if (release.getPayload() != null) {
+      ReleasePayload sharedPayload = payloadCache.asMap().putIfAbsent(release.getPayloadHash(), release.getPayload());
+      if (sharedPayload != null) {
+        release.setPayload(sharedPayload);
+        transaction.addData("PayloadShared", release.getPayloadHash());
+      }
+    }
+    if (!release.isConfigurationsCompressed()) {
+      return;
+    }
+    long start = System.nanoTime();
+    release.getConfigurations();
+    transaction.addData("DecompressTimeInMicros", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+  }
+
+  /**
+   * Preload the most used namespaces before serving, so that the reconnecting clients won't hit the db all at once
+   */
+  void warmUp() {
+    int size = bizConfig.configCacheWarmUpSize();
+    if (size <= 0) {
+      return;
+    }
+
+    Transaction transaction = Tracer.newTransaction(TRACER_EVENT_CACHE_WARM_UP, String.valueOf(size));
+    ExecutorService warmUpExecutorService = Executors.newFixedThreadPool(bizConfig.configCacheWarmUpConcurrency(),
+        ApolloThreadFactory.create("ConfigCacheWarmUp", true));
+    try {
+      List<String> keys = instanceService.findMostUsedNamespaceKeys(size);
+      for (String key : keys) {
+        warmUpExecutorService.submit(() -> configCache.getUnchecked(key));
+      }
+      warmUpExecutorService.shutdown();
+
+      if (!warmUpExecutorService.awaitTermination(bizConfig.configCacheWarmUpTimeoutInSecond(), TimeUnit.SECONDS)) {
+        logger.warn("Config cache warm up timed out, {} of {} namespaces loaded", configCache.size(), keys.size());
+      } else {
+        logger.info("Config cache warm up completed, {} namespaces loaded", configCache.size());
+      }
+      transaction.setStatus(Transaction.SUCCESS);
+    } catch (Throwable ex) {
+      //warm up is best effort, the cache will be loaded on demand anyway
+      transaction.setStatus(ex);
+      logger.error("Config cache warm up failed", ex);
+    } finally {
+      warmUpExecutorService.shutdownNow();
+      transaction.complete();
+    }
   }
 
   @Override
   protected Release findActiveOne(long id, ApolloNotificationMessages clientMessages) {
-    Tracer.logEvent(TRACER_EVENT_CACHE_GET_ID, String.valueOf(id));
+    if (!bizConfig.isTracerEventAggregated()) {
+      Tracer.logEvent(TRACER_EVENT_CACHE_GET_ID, String.valueOf(id));
+    }
     return configIdCache.getUnchecked(id).orElse(null);
   }
 
@@ -133,7 +219,10 @@ public class ConfigServiceWithCache extends AbstractConfigService {
                                             ApolloNotificationMessages clientMessages) {
     String key = ReleaseMessageKeyGenerator.generate(appId, clusterName, namespaceName);
 
-    Tracer.logEvent(TRACER_EVENT_CACHE_GET, key);
+    //cache gets are logged per release lookup, which is skipped in aggregated mode since db loads are traced anyway
+    if (!bizConfig.isTracerEventAggregated()) {
+      Tracer.logEvent(TRACER_EVENT_CACHE_GET, key);
+    }
 
     ConfigCacheEntry cacheEntry = configCache.getUnchecked(key);
 
@@ -142,7 +231,9 @@ public class ConfigServiceWithCache extends AbstractConfigService {
         clientMessages.get(key) > cacheEntry.getNotificationId()) {
       //invalidate the cache and try to load from db again
       invalidate(key);
-      cacheEntry = configCache.getUnchecked(key);
+      //the read replica might not have caught up with the client side notification yet
+      cacheEntry = replicaRouting.executeWithReleaseMessage(clientMessages.get(key),
+          () -> configCache.getUnchecked(key));
     }
 
     return cacheEntry.getRelease();
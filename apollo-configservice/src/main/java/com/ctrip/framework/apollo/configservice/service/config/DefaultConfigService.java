@@ -1,8 +1,10 @@
 package com.ctrip.framework.apollo.configservice.service.config;
 
+import com.ctrip.framework.apollo.biz.datasource.ReplicaRouting;
 import com.ctrip.framework.apollo.biz.entity.Release;
 import com.ctrip.framework.apollo.biz.entity.ReleaseMessage;
 import com.ctrip.framework.apollo.biz.service.ReleaseService;
+import com.ctrip.framework.apollo.biz.utils.ReleaseMessageKeyGenerator;
 import com.ctrip.framework.apollo.core.dto.ApolloNotificationMessages;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,16 +19,26 @@ public class DefaultConfigService extends AbstractConfigService {
   @Autowired
   private ReleaseService releaseService;
 
+  @Autowired
+  private ReplicaRouting replicaRouting;
+
   @Override
   protected Release findActiveOne(long id, ApolloNotificationMessages clientMessages) {
-    return releaseService.findActiveOne(id);
+    return replicaRouting.executeOnReplica(() -> releaseService.findActiveOne(id));
   }
 
   @Override
   protected Release findLatestActiveRelease(String configAppId, String configClusterName, String configNamespace,
                                             ApolloNotificationMessages clientMessages) {
-    return releaseService.findLatestActiveRelease(configAppId, configClusterName,
-        configNamespace);
+    String key = ReleaseMessageKeyGenerator.generate(configAppId, configClusterName, configNamespace);
+    if (clientMessages != null && clientMessages.has(key)) {
+      //the read replica might not have caught up with the client side notification yet
+      return replicaRouting.executeWithReleaseMessage(clientMessages.get(key), () -> replicaRouting.executeOnReplica(
+          () -> releaseService.findLatestActiveRelease(configAppId, configClusterName, configNamespace)));
+    }
+
+    return replicaRouting.executeOnReplica(() -> releaseService.findLatestActiveRelease(configAppId,
+        configClusterName, configNamespace));
   }
 
   @Override
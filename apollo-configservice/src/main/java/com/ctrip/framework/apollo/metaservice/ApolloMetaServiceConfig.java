@@ -1,11 +1,13 @@
 package com.ctrip.framework.apollo.metaservice;
 
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.web.firewall.DefaultHttpFirewall;
 import org.springframework.security.web.firewall.HttpFirewall;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 @EnableAutoConfiguration
 @Configuration
@@ -15,4 +17,16 @@ public class ApolloMetaServiceConfig {
     public HttpFirewall allowUrlEncodedSlashHttpFirewall() {
         return new DefaultHttpFirewall();
     }
+
+    /**
+     * so that clients could revalidate the discovery responses with If-None-Match and get 304 if nothing changed
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> servicesEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> bean = new FilterRegistrationBean<>();
+        bean.setFilter(new ShallowEtagHeaderFilter());
+        bean.setName("servicesEtagFilter");
+        bean.addUrlPatterns("/services/*");
+        return bean;
+    }
 }
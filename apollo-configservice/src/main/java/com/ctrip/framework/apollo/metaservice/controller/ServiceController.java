@@ -1,7 +1,11 @@
 package com.ctrip.framework.apollo.metaservice.controller;
 
+import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.ctrip.framework.apollo.metaservice.service.ConsistentHashPlacementService;
 import com.ctrip.framework.apollo.metaservice.service.DiscoveryService;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
 import com.netflix.appinfo.InstanceInfo;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -11,11 +15,14 @@ import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import javax.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/services")
 public class ServiceController {
 
   private final DiscoveryService discoveryService;
+  private final ConsistentHashPlacementService consistentHashPlacementService;
 
   private static Function<InstanceInfo, ServiceDTO> instanceInfoToServiceDTOFunc = instance -> {
     ServiceDTO service = new ServiceDTO();
@@ -25,8 +32,10 @@ public class ServiceController {
     return service;
   };
 
-  public ServiceController(final DiscoveryService discoveryService) {
+  public ServiceController(final DiscoveryService discoveryService,
+      final ConsistentHashPlacementService consistentHashPlacementService) {
     this.discoveryService = discoveryService;
+    this.consistentHashPlacementService = consistentHashPlacementService;
   }
 
 
@@ -40,8 +49,28 @@ public class ServiceController {
   @RequestMapping("/config")
   public List<ServiceDTO> getConfigService(
       @RequestParam(value = "appId", defaultValue = "") String appId,
-      @RequestParam(value = "ip", required = false) String clientIp) {
+      @RequestParam(value = "ip", required = false) String clientIp,
+      @RequestParam(value = "dataCenter", required = false) String dataCenter,
+      HttpServletResponse response) {
     List<InstanceInfo> instances = discoveryService.getConfigServiceInstances();
+    List<InstanceInfo> localInstances = discoveryService.getLocalInstances(instances, dataCenter);
+    boolean consistentHashEnabled = !Strings.isNullOrEmpty(appId) && consistentHashPlacementService.isEnabled();
+
+    if (consistentHashEnabled || !localInstances.isEmpty()) {
+      List<InstanceInfo> preferredInstances = localInstances.isEmpty() ? instances : localInstances;
+      List<InstanceInfo> orderedInstances = Lists.newArrayList(consistentHashEnabled ?
+          consistentHashPlacementService.place(appId, preferredInstances) :
+          discoveryService.spread(preferredInstances, Strings.isNullOrEmpty(clientIp) ? appId : clientIp));
+      //instances in other data centers are kept as fallback
+      for (InstanceInfo instance : instances) {
+        if (!preferredInstances.contains(instance)) {
+          orderedInstances.add(instance);
+        }
+      }
+      instances = orderedInstances;
+      //tell the client to honor the order instead of picking randomly
+      response.setHeader(ConfigConsts.CONFIG_SERVICES_ORDERED_HEADER, Boolean.TRUE.toString());
+    }
     List<ServiceDTO> result = instances.stream().map(instanceInfoToServiceDTOFunc).collect(Collectors.toList());
     return result;
   }
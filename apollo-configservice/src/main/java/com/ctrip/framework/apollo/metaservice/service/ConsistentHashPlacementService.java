@@ -0,0 +1,147 @@
+package com.ctrip.framework.apollo.metaservice.service;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.netflix.appinfo.InstanceInfo;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Orders config service instances by the consistent hash of the client's appId, so that the clients of
+ * the same app stick to the same config service and each config service only caches a part of the namespaces.
+ *
+ * The expected load of each config service is bounded by the load factor: an instance owning a larger part of the
+ * ring than the load factor allows keeps only a share of its apps, and the rest spill over to the next instances on
+ * the ring. Whether an app spills over is decided by the hash of the appId only, so all the meta service nodes place
+ * the same app on the same instance without sharing any state.
+ */
+@Service
+public class ConsistentHashPlacementService {
+  private static final int VIRTUAL_NODES_PER_INSTANCE = 100;
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
+  private static final double HASH_SPACE = 1L << 32;
+
+  private final BizConfig bizConfig;
+  //the ring of the last instance set, which rarely changes
+  private volatile Ring lastRing;
+
+  public ConsistentHashPlacementService(final BizConfig bizConfig) {
+    this.bizConfig = bizConfig;
+  }
+
+  public boolean isEnabled() {
+    return bizConfig.isConfigServiceConsistentHashEnabled();
+  }
+
+  /**
+   * @return the instances ordered by preference for the app, the first one is the assigned instance
+   */
+  public List<InstanceInfo> place(String appId, List<InstanceInfo> instances) {
+    if (instances.size() <= 1) {
+      return instances;
+    }
+
+    Map<String, InstanceInfo> instanceMap = Maps.newHashMapWithExpectedSize(instances.size());
+    for (InstanceInfo instance : instances) {
+      instanceMap.put(instance.getInstanceId(), instance);
+    }
+
+    Set<String> instanceIds = ImmutableSet.copyOf(instanceMap.keySet());
+    Ring ring = lastRing;
+    if (ring == null || !ring.instanceIds.equals(instanceIds)) {
+      ring = new Ring(instanceIds);
+      lastRing = ring;
+    }
+
+    List<String> candidates = Lists.newArrayList(ring.walk(hash(appId)));
+    String assignedId = spillOver(appId, candidates, ring);
+
+    List<InstanceInfo> result = Lists.newArrayListWithCapacity(candidates.size());
+    result.add(instanceMap.get(assignedId));
+    for (String candidate : candidates) {
+      if (!candidate.equals(assignedId)) {
+        result.add(instanceMap.get(candidate));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Each candidate keeps the app with the probability of its capacity over its share of the ring, decided by the hash
+   * of the app and the candidate.
+   *
+   * @return the id of the assigned instance
+   */
+  private String spillOver(String appId, List<String> candidates, Ring ring) {
+    double capacity = bizConfig.configServiceConsistentHashLoadFactorInPercent() / 100.0 / candidates.size();
+    for (String candidate : candidates) {
+      double keepRatio = capacity / ring.getShare(candidate);
+      if (keepRatio >= 1 || (hash(appId + "#" + candidate) & 0xffffffffL) / HASH_SPACE < keepRatio) {
+        return candidate;
+      }
+    }
+    return candidates.get(0);
+  }
+
+  private static int hash(String key) {
+    return HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asInt();
+  }
+
+  private static class Ring {
+    private final Set<String> instanceIds;
+    private final NavigableMap<Integer, String> nodes;
+    //the part of the hash space owned by each instance
+    private final Map<String, Double> shares;
+
+    Ring(Set<String> instanceIds) {
+      this.instanceIds = instanceIds;
+      this.nodes = new TreeMap<>();
+      for (String instanceId : instanceIds) {
+        for (int i = 0; i < VIRTUAL_NODES_PER_INSTANCE; i++) {
+          nodes.put(hash(instanceId + "#" + i), instanceId);
+        }
+      }
+
+      this.shares = Maps.newHashMapWithExpectedSize(instanceIds.size());
+      //a node owns the hashes after the previous node, the first node also owns the hashes after the last one
+      long previous = (long) nodes.lastKey() - (1L << 32);
+      for (Map.Entry<Integer, String> node : nodes.entrySet()) {
+        shares.merge(node.getValue(), (node.getKey() - previous) / HASH_SPACE, Double::sum);
+        previous = node.getKey();
+      }
+    }
+
+    double getShare(String instanceId) {
+      return shares.get(instanceId);
+    }
+
+    /**
+     * @return the distinct instances met when walking clockwise from the hash
+     */
+    Set<String> walk(int hash) {
+      Set<String> result = Sets.newLinkedHashSet();
+      for (String instanceId : nodes.tailMap(hash, true).values()) {
+        if (result.add(instanceId) && result.size() == instanceIds.size()) {
+          return result;
+        }
+      }
+      for (String instanceId : nodes.headMap(hash, false).values()) {
+        if (result.add(instanceId) && result.size() == instanceIds.size()) {
+          break;
+        }
+      }
+      return result;
+    }
+  }
+}
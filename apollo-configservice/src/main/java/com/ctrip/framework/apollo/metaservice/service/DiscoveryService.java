@@ -1,45 +1,107 @@
 package com.ctrip.framework.apollo.metaservice.service;
 
+import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.core.ServiceNameConsts;
 import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
 import com.netflix.appinfo.InstanceInfo;
 import com.netflix.discovery.EurekaClient;
 import com.netflix.discovery.shared.Application;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class DiscoveryService {
+  /**
+   * the metadata key of the data center an instance is deployed in, e.g. eureka.instance.metadata-map.zone=SHAJQ
+   */
+  static final String DATA_CENTER_METADATA_KEY = "zone";
 
   private final EurekaClient eurekaClient;
+  private final BizConfig bizConfig;
+  private final ConcurrentMap<String, CachedInstances> instancesCache;
 
-  public DiscoveryService(final EurekaClient eurekaClient) {
+  public DiscoveryService(final EurekaClient eurekaClient, final BizConfig bizConfig) {
     this.eurekaClient = eurekaClient;
+    this.bizConfig = bizConfig;
+    this.instancesCache = Maps.newConcurrentMap();
   }
 
   public List<InstanceInfo> getConfigServiceInstances() {
-    Application application = eurekaClient.getApplication(ServiceNameConsts.APOLLO_CONFIGSERVICE);
-    if (application == null) {
-      Tracer.logEvent("Apollo.EurekaDiscovery.NotFound", ServiceNameConsts.APOLLO_CONFIGSERVICE);
-    }
-    return application != null ? application.getInstances() : Collections.emptyList();
+    return getInstances(ServiceNameConsts.APOLLO_CONFIGSERVICE);
   }
 
   public List<InstanceInfo> getMetaServiceInstances() {
-    Application application = eurekaClient.getApplication(ServiceNameConsts.APOLLO_METASERVICE);
-    if (application == null) {
-      Tracer.logEvent("Apollo.EurekaDiscovery.NotFound", ServiceNameConsts.APOLLO_METASERVICE);
-    }
-    return application != null ? application.getInstances() : Collections.emptyList();
+    return getInstances(ServiceNameConsts.APOLLO_METASERVICE);
   }
 
   public List<InstanceInfo> getAdminServiceInstances() {
-    Application application = eurekaClient.getApplication(ServiceNameConsts.APOLLO_ADMINSERVICE);
+    return getInstances(ServiceNameConsts.APOLLO_ADMINSERVICE);
+  }
+
+  /**
+   * @return the instances deployed in the data center, or empty list if locality is disabled
+   */
+  public List<InstanceInfo> getLocalInstances(List<InstanceInfo> instances, String dataCenter) {
+    if (Strings.isNullOrEmpty(dataCenter) || !bizConfig.isDiscoveryLocalityEnabled()) {
+      return Collections.emptyList();
+    }
+
+    List<InstanceInfo> localInstances = Lists.newArrayList();
+    for (InstanceInfo instance : instances) {
+      if (instance.getMetadata() != null
+          && dataCenter.equalsIgnoreCase(instance.getMetadata().get(DATA_CENTER_METADATA_KEY))) {
+        localInstances.add(instance);
+      }
+    }
+    return localInstances;
+  }
+
+  /**
+   * Spread clients over the instances, each client always gets the same order as long as the instances don't change
+   */
+  public List<InstanceInfo> spread(List<InstanceInfo> instances, String clientKey) {
+    List<InstanceInfo> result = Lists.newArrayList(instances);
+    //the registry order is not stable
+    result.sort(Comparator.comparing(InstanceInfo::getInstanceId));
+    int distance = Hashing.consistentHash(
+        Hashing.murmur3_32().hashString(Strings.nullToEmpty(clientKey), StandardCharsets.UTF_8), result.size());
+    Collections.rotate(result, -distance);
+    return result;
+  }
+
+  private List<InstanceInfo> getInstances(String serviceName) {
+    long now = System.currentTimeMillis();
+    CachedInstances cached = instancesCache.get(serviceName);
+    if (cached != null && now - cached.loadedTime < TimeUnit.SECONDS.toMillis(bizConfig.discoveryCacheTtlInSecond())) {
+      return cached.instances;
+    }
+
+    Application application = eurekaClient.getApplication(serviceName);
     if (application == null) {
-      Tracer.logEvent("Apollo.EurekaDiscovery.NotFound", ServiceNameConsts.APOLLO_ADMINSERVICE);
+      Tracer.logEvent("Apollo.EurekaDiscovery.NotFound", serviceName);
+    }
+    List<InstanceInfo> instances = application != null ? application.getInstances() : Collections.emptyList();
+    instancesCache.put(serviceName, new CachedInstances(instances, now));
+    return instances;
+  }
+
+  private static class CachedInstances {
+    private final List<InstanceInfo> instances;
+    private final long loadedTime;
+
+    CachedInstances(List<InstanceInfo> instances, long loadedTime) {
+      this.instances = instances;
+      this.loadedTime = loadedTime;
     }
-    return application != null ? application.getInstances() : Collections.emptyList();
   }
 }
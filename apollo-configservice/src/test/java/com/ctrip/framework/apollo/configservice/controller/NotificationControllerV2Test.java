@@ -4,12 +4,14 @@ import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.biz.entity.ReleaseMessage;
 import com.ctrip.framework.apollo.biz.message.Topics;
 import com.ctrip.framework.apollo.biz.utils.EntityManagerUtil;
+import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.configservice.service.ReleaseMessageServiceWithCache;
 import com.ctrip.framework.apollo.configservice.util.NamespaceUtil;
 import com.ctrip.framework.apollo.configservice.util.WatchKeysUtil;
 import com.ctrip.framework.apollo.configservice.wrapper.DeferredResultWrapper;
 import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.core.dto.ApolloConfigNotification;
+import com.ctrip.framework.apollo.core.dto.ApolloConfigNotificationRequest;
 import com.ctrip.framework.apollo.core.dto.ApolloNotificationMessages;
 import com.google.common.base.Joiner;
 import com.google.common.collect.HashMultimap;
@@ -118,6 +120,42 @@ public class NotificationControllerV2Test {
     assertWatchKeys(watchKeysMap, deferredResult);
   }
 
+  @Test
+  public void testPollNotificationWithRequestBody() throws Exception {
+    String someWatchKey = "someKey";
+    String anotherWatchKey = "anotherKey";
+
+    Multimap<String, String> watchKeysMap =
+        assembleMultiMap(defaultNamespace, Lists.newArrayList(someWatchKey, anotherWatchKey));
+
+    ApolloConfigNotificationRequest notificationRequest = new ApolloConfigNotificationRequest(
+        Lists.newArrayList(assembleApolloConfigNotification(defaultNamespace, someNotificationId)));
+
+    when(watchKeysUtil
+        .assembleAllWatchKeys(someAppId, someCluster, Sets.newHashSet(defaultNamespace),
+            someDataCenter)).thenReturn(
+        watchKeysMap);
+
+    DeferredResult<ResponseEntity<List<ApolloConfigNotification>>>
+        deferredResult = controller
+        .pollNotificationWithRequestBody(someAppId, someCluster, notificationRequest, someDataCenter,
+            someClientIp);
+
+    assertEquals(watchKeysMap.size(), deferredResults.size());
+
+    assertWatchKeys(watchKeysMap, deferredResult);
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void testPollNotificationWithMismatchedRequestBody() throws Exception {
+    ApolloConfigNotificationRequest notificationRequest = new ApolloConfigNotificationRequest();
+    notificationRequest.setNamespaceNames(Lists.newArrayList(defaultNamespace, somePublicNamespace));
+    notificationRequest.setNotificationIds(Lists.newArrayList(someNotificationId));
+
+    controller.pollNotificationWithRequestBody(someAppId, someCluster, notificationRequest, someDataCenter,
+        someClientIp);
+  }
+
   @Test
   public void testPollNotificationWithDefaultNamespaceAsFile() throws Exception {
     String namespace = String.format("%s.%s", defaultNamespace, "properties");
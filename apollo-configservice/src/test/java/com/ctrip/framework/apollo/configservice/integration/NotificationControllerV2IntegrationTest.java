@@ -9,14 +9,18 @@ import com.google.gson.Gson;
 import com.ctrip.framework.apollo.configservice.service.ReleaseMessageServiceWithCache;
 import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.core.dto.ApolloConfigNotification;
+import com.ctrip.framework.apollo.core.dto.ApolloConfigNotificationRequest;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -87,6 +91,36 @@ public class NotificationControllerV2IntegrationTest extends AbstractBaseIntegra
     assertNotEquals(ConfigConsts.NOTIFICATION_ID_PLACEHOLDER, messages.get(key).longValue());
   }
 
+  @Test(timeout = 5000L)
+  @Sql(scripts = "/integration-test/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+  public void testPollNotificationWithRequestBody() throws Exception {
+    AtomicBoolean stop = new AtomicBoolean();
+    String key = assembleKey(someAppId, someCluster, defaultNamespace);
+    periodicSendMessage(executorService, key, stop);
+
+    ApolloConfigNotificationRequest notificationRequest = new ApolloConfigNotificationRequest(Lists.newArrayList(
+        new ApolloConfigNotification(defaultNamespace, ConfigConsts.NOTIFICATION_ID_PLACEHOLDER)));
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+
+    ResponseEntity<List<ApolloConfigNotification>> result = restTemplate.exchange(
+        "http://{baseurl}/notifications/v2?appId={appId}&cluster={clusterName}",
+        HttpMethod.POST, new HttpEntity<>(notificationRequest, headers), typeReference,
+        getHostUrl(), someAppId, someCluster);
+
+    stop.set(true);
+
+    List<ApolloConfigNotification> notifications = result.getBody();
+    assertEquals(HttpStatus.OK, result.getStatusCode());
+    assertEquals(1, notifications.size());
+    assertEquals(defaultNamespace, notifications.get(0).getNamespaceName());
+    assertNotEquals(0, notifications.get(0).getNotificationId());
+
+    ApolloNotificationMessages messages = result.getBody().get(0).getMessages();
+    assertEquals(1, messages.getDetails().size());
+    assertTrue(messages.has(key));
+  }
+
   @Test(timeout = 5000L)
   @Sql(scripts = "/integration-test/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
   public void testPollNotificationWithDefaultNamespaceAsFile() throws Exception {
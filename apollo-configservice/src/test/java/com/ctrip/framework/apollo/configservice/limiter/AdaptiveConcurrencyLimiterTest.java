@@ -0,0 +1,94 @@
+package com.ctrip.framework.apollo.configservice.limiter;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptiveConcurrencyLimiterTest {
+  private AdaptiveConcurrencyLimiter limiter;
+
+  @Mock
+  private BizConfig bizConfig;
+
+  private int someInitialLimit;
+  private int someMinLimit;
+  private int someMaxLimit;
+  private int someLatencyThreshold;
+
+  @Before
+  public void setUp() throws Exception {
+    someInitialLimit = 10;
+    someMinLimit = 5;
+    someMaxLimit = 11;
+    someLatencyThreshold = 100;
+
+    when(bizConfig.concurrencyLimitInitial()).thenReturn(someInitialLimit);
+    when(bizConfig.concurrencyLimitMin()).thenReturn(someMinLimit);
+    when(bizConfig.concurrencyLimitMax()).thenReturn(someMaxLimit);
+    when(bizConfig.concurrencyLimitLatencyThresholdInMilli()).thenReturn(someLatencyThreshold);
+
+    limiter = new AdaptiveConcurrencyLimiter("someName", bizConfig);
+  }
+
+  @Test
+  public void testRejectWhenLimitExceeded() throws Exception {
+    for (int i = 0; i < someInitialLimit; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+
+    assertFalse(limiter.tryAcquire());
+    assertEquals(someInitialLimit, limiter.getInFlight());
+    assertEquals(1, limiter.getRejected());
+
+    limiter.release(someLatencyThreshold);
+
+    assertTrue(limiter.tryAcquire());
+  }
+
+  @Test
+  public void testIncreaseLimitWhenFastAndUtilized() throws Exception {
+    for (int i = 0; i < someInitialLimit; i++) {
+      limiter.tryAcquire();
+    }
+
+    limiter.release(someLatencyThreshold - 1);
+    assertEquals(someInitialLimit + 1, limiter.getLimit());
+
+    //capped by max limit
+    limiter.release(someLatencyThreshold - 1);
+    assertEquals(someMaxLimit, limiter.getLimit());
+  }
+
+  @Test
+  public void testKeepLimitWhenFastButNotUtilized() throws Exception {
+    limiter.tryAcquire();
+
+    limiter.release(someLatencyThreshold - 1);
+
+    assertEquals(someInitialLimit, limiter.getLimit());
+  }
+
+  @Test
+  public void testDecreaseLimitWhenSlow() throws Exception {
+    limiter.tryAcquire();
+    limiter.release(someLatencyThreshold + 1);
+    assertEquals(9, limiter.getLimit());
+
+    for (int i = 0; i < 10; i++) {
+      limiter.tryAcquire();
+      limiter.release(someLatencyThreshold + 1);
+    }
+
+    //capped by min limit
+    assertEquals(someMinLimit, limiter.getLimit());
+  }
+}
@@ -3,9 +3,12 @@ package com.ctrip.framework.apollo.configservice.service.config;
 import com.ctrip.framework.apollo.core.dto.ApolloNotificationMessages;
 import com.google.common.collect.Lists;
 
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.datasource.ReplicaRouting;
 import com.ctrip.framework.apollo.biz.entity.Release;
 import com.ctrip.framework.apollo.biz.entity.ReleaseMessage;
 import com.ctrip.framework.apollo.biz.message.Topics;
+import com.ctrip.framework.apollo.biz.service.InstanceService;
 import com.ctrip.framework.apollo.biz.service.ReleaseMessageService;
 import com.ctrip.framework.apollo.biz.service.ReleaseService;
 import com.ctrip.framework.apollo.biz.utils.ReleaseMessageKeyGenerator;
@@ -36,6 +39,10 @@ public class ConfigServiceWithCacheTest {
   @Mock
   private ReleaseMessageService releaseMessageService;
   @Mock
+  private BizConfig bizConfig;
+  @Mock
+  private InstanceService instanceService;
+  @Mock
   private Release someRelease;
   @Mock
   private ReleaseMessage someReleaseMessage;
@@ -51,7 +58,10 @@ public class ConfigServiceWithCacheTest {
   public void setUp() throws Exception {
     configServiceWithCache = new ConfigServiceWithCache();
     ReflectionTestUtils.setField(configServiceWithCache, "releaseService", releaseService);
+    ReflectionTestUtils.setField(configServiceWithCache, "replicaRouting", new ReplicaRouting());
     ReflectionTestUtils.setField(configServiceWithCache, "releaseMessageService", releaseMessageService);
+    ReflectionTestUtils.setField(configServiceWithCache, "bizConfig", bizConfig);
+    ReflectionTestUtils.setField(configServiceWithCache, "instanceService", instanceService);
 
     configServiceWithCache.initialize();
 
@@ -276,4 +286,30 @@ public class ConfigServiceWithCacheTest {
     verify(releaseMessageService, times(1)).findLatestReleaseMessageForMessages(Lists.newArrayList(someKey));
     verify(releaseService, times(1)).findLatestActiveRelease(someAppId, someClusterName, someNamespaceName);
   }
+
+  @Test
+  public void testWarmUp() throws Exception {
+    int someWarmUpSize = 10;
+    String anotherNamespaceName = "anotherNamespaceName";
+    String anotherKey = ReleaseMessageKeyGenerator.generate(someAppId, someClusterName, anotherNamespaceName);
+
+    when(bizConfig.configCacheWarmUpSize()).thenReturn(someWarmUpSize);
+    when(bizConfig.configCacheWarmUpConcurrency()).thenReturn(2);
+    when(bizConfig.configCacheWarmUpTimeoutInSecond()).thenReturn(10);
+    when(instanceService.findMostUsedNamespaceKeys(someWarmUpSize)).thenReturn(Lists.newArrayList(someKey, anotherKey));
+    when(releaseService.findLatestActiveRelease(someAppId, someClusterName, someNamespaceName)).thenReturn
+        (someRelease);
+
+    configServiceWithCache.warmUp();
+
+    verify(releaseService, times(1)).findLatestActiveRelease(someAppId, someClusterName, someNamespaceName);
+    verify(releaseService, times(1)).findLatestActiveRelease(someAppId, someClusterName, anotherNamespaceName);
+
+    Release release = configServiceWithCache.findLatestActiveRelease(someAppId, someClusterName, someNamespaceName,
+        someNotificationMessages);
+
+    assertEquals(someRelease, release);
+    //should be loaded from cache
+    verify(releaseService, times(1)).findLatestActiveRelease(someAppId, someClusterName, someNamespaceName);
+  }
 }
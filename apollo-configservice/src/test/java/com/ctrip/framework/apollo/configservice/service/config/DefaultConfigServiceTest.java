@@ -8,6 +8,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.ctrip.framework.apollo.biz.datasource.ReplicaRouting;
 import com.ctrip.framework.apollo.biz.entity.Release;
 import com.ctrip.framework.apollo.biz.grayReleaseRule.GrayReleaseRulesHolder;
 import com.ctrip.framework.apollo.biz.service.ReleaseService;
@@ -47,6 +48,7 @@ public class DefaultConfigServiceTest {
   public void setUp() throws Exception {
     configService = new DefaultConfigService();
     ReflectionTestUtils.setField(configService, "releaseService", releaseService);
+    ReflectionTestUtils.setField(configService, "replicaRouting", new ReplicaRouting());
     ReflectionTestUtils.setField(configService, "grayReleaseRulesHolder", grayReleaseRulesHolder);
 
     someClientAppId = "1234";
@@ -0,0 +1,145 @@
+package com.ctrip.framework.apollo.metaservice.service;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.netflix.appinfo.InstanceInfo;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConsistentHashPlacementServiceTest {
+  private ConsistentHashPlacementService consistentHashPlacementService;
+
+  @Mock
+  private BizConfig bizConfig;
+
+  private List<InstanceInfo> someInstances;
+
+  @Before
+  public void setUp() throws Exception {
+    when(bizConfig.configServiceConsistentHashLoadFactorInPercent()).thenReturn(125);
+
+    consistentHashPlacementService = new ConsistentHashPlacementService(bizConfig);
+
+    someInstances = Lists.newArrayList();
+    for (int i = 0; i < 4; i++) {
+      someInstances.add(assembleInstance("someInstance" + i));
+    }
+  }
+
+  @Test
+  public void testPlaceWithSameAppId() throws Exception {
+    String someAppId = "someAppId";
+
+    List<InstanceInfo> result = consistentHashPlacementService.place(someAppId, someInstances);
+    List<InstanceInfo> anotherResult =
+        consistentHashPlacementService.place(someAppId, Lists.reverse(someInstances));
+
+    assertEquals(someInstances.size(), result.size());
+    assertTrue(result.containsAll(someInstances));
+    assertEquals(result, anotherResult);
+  }
+
+  @Test
+  public void testPlaceWithBoundedLoad() throws Exception {
+    int someAppCount = 1000;
+    Map<String, Integer> assignedCounts = Maps.newHashMap();
+
+    for (int i = 0; i < someAppCount; i++) {
+      InstanceInfo assigned = consistentHashPlacementService.place("someAppId" + i, someInstances).get(0);
+      assignedCounts.merge(assigned.getInstanceId(), 1, Integer::sum);
+    }
+
+    int maxLoad = (int) Math.ceil(1.25 * someAppCount / someInstances.size());
+    for (InstanceInfo instance : someInstances) {
+      assertTrue(assignedCounts.get(instance.getInstanceId()) <= maxLoad);
+    }
+  }
+
+  @Test
+  public void testPlaceKeepsAssignment() throws Exception {
+    String someAppId = "someAppId";
+
+    InstanceInfo assigned = consistentHashPlacementService.place(someAppId, someInstances).get(0);
+    for (int i = 0; i < 100; i++) {
+      consistentHashPlacementService.place("anotherAppId" + i, someInstances);
+    }
+
+    assertEquals(assigned, consistentHashPlacementService.place(someAppId, someInstances).get(0));
+    assertEquals(assigned, consistentHashPlacementService.place(someAppId, Lists.reverse(someInstances)).get(0));
+  }
+
+  @Test
+  public void testPlaceWithDifferentInstanceSets() throws Exception {
+    String someAppId = "someAppId";
+    List<InstanceInfo> someDataCenterInstances = someInstances.subList(0, 2);
+    List<InstanceInfo> anotherDataCenterInstances = someInstances.subList(2, 4);
+
+    InstanceInfo assigned = consistentHashPlacementService.place(someAppId, someDataCenterInstances).get(0);
+    InstanceInfo anotherAssigned = consistentHashPlacementService.place(someAppId, anotherDataCenterInstances).get(0);
+
+    assertTrue(someDataCenterInstances.contains(assigned));
+    assertTrue(anotherDataCenterInstances.contains(anotherAssigned));
+    assertEquals(assigned, consistentHashPlacementService.place(someAppId, someDataCenterInstances).get(0));
+    assertEquals(anotherAssigned, consistentHashPlacementService.place(someAppId, anotherDataCenterInstances).get(0));
+  }
+
+  @Test
+  public void testPlaceOnDifferentNodes() throws Exception {
+    ConsistentHashPlacementService anotherNodePlacementService = new ConsistentHashPlacementService(bizConfig);
+
+    for (int i = 0; i < 100; i++) {
+      String someAppId = "someAppId" + i;
+      consistentHashPlacementService.place(someAppId, someInstances);
+    }
+
+    for (int i = 0; i < 100; i++) {
+      String someAppId = "anotherAppId" + i;
+      assertEquals(consistentHashPlacementService.place(someAppId, someInstances),
+          anotherNodePlacementService.place(someAppId, Lists.reverse(someInstances)));
+    }
+  }
+
+  @Test
+  public void testPlaceWhenInstanceLeaves() throws Exception {
+    int someAppCount = 100;
+    Map<String, InstanceInfo> assignments = Maps.newHashMap();
+    for (int i = 0; i < someAppCount; i++) {
+      String someAppId = "someAppId" + i;
+      assignments.put(someAppId, consistentHashPlacementService.place(someAppId, someInstances).get(0));
+    }
+
+    InstanceInfo leavingInstance = someInstances.remove(0);
+
+    int moved = 0;
+    for (int i = 0; i < someAppCount; i++) {
+      String someAppId = "someAppId" + i;
+      InstanceInfo assigned = consistentHashPlacementService.place(someAppId, someInstances).get(0);
+
+      assertNotEquals(leavingInstance, assigned);
+      if (assignments.get(someAppId) != leavingInstance && assignments.get(someAppId) != assigned) {
+        moved++;
+      }
+    }
+
+    //only a small part of the apps on the remaining instances should move
+    assertTrue(moved < someAppCount / 4);
+  }
+
+  private InstanceInfo assembleInstance(String instanceId) {
+    return InstanceInfo.Builder.newBuilder().setAppName("someAppName").setInstanceId(instanceId)
+        .setHostName(instanceId).build();
+  }
+}
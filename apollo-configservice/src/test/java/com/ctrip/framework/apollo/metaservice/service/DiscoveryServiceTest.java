@@ -0,0 +1,105 @@
+package com.ctrip.framework.apollo.metaservice.service;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.core.ServiceNameConsts;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DiscoveryServiceTest {
+  private DiscoveryService discoveryService;
+
+  @Mock
+  private EurekaClient eurekaClient;
+  @Mock
+  private BizConfig bizConfig;
+
+  private String someDataCenter;
+  private InstanceInfo someLocalInstance;
+  private InstanceInfo anotherLocalInstance;
+  private InstanceInfo someRemoteInstance;
+  private List<InstanceInfo> someInstances;
+
+  @Before
+  public void setUp() throws Exception {
+    discoveryService = new DiscoveryService(eurekaClient, bizConfig);
+
+    someDataCenter = "someDataCenter";
+    someLocalInstance = assembleInstance("someLocalInstance", someDataCenter);
+    anotherLocalInstance = assembleInstance("anotherLocalInstance", someDataCenter);
+    someRemoteInstance = assembleInstance("someRemoteInstance", "anotherDataCenter");
+    someInstances = Lists.newArrayList(someRemoteInstance, someLocalInstance, anotherLocalInstance);
+  }
+
+  @Test
+  public void testGetConfigServiceInstancesWithCache() throws Exception {
+    Application someApplication = new Application(ServiceNameConsts.APOLLO_CONFIGSERVICE, someInstances);
+    when(eurekaClient.getApplication(ServiceNameConsts.APOLLO_CONFIGSERVICE)).thenReturn(someApplication);
+    when(bizConfig.discoveryCacheTtlInSecond()).thenReturn(60);
+
+    assertEquals(someInstances.size(), discoveryService.getConfigServiceInstances().size());
+    assertEquals(someInstances.size(), discoveryService.getConfigServiceInstances().size());
+
+    verify(eurekaClient, times(1)).getApplication(ServiceNameConsts.APOLLO_CONFIGSERVICE);
+  }
+
+  @Test
+  public void testGetConfigServiceInstancesWithoutCache() throws Exception {
+    when(bizConfig.discoveryCacheTtlInSecond()).thenReturn(0);
+
+    assertTrue(discoveryService.getConfigServiceInstances().isEmpty());
+    assertTrue(discoveryService.getConfigServiceInstances().isEmpty());
+
+    verify(eurekaClient, times(2)).getApplication(ServiceNameConsts.APOLLO_CONFIGSERVICE);
+  }
+
+  @Test
+  public void testGetLocalInstances() throws Exception {
+    when(bizConfig.isDiscoveryLocalityEnabled()).thenReturn(true);
+
+    List<InstanceInfo> result = discoveryService.getLocalInstances(someInstances, someDataCenter);
+
+    assertEquals(Lists.newArrayList(someLocalInstance, anotherLocalInstance), result);
+    assertTrue(discoveryService.getLocalInstances(someInstances, null).isEmpty());
+  }
+
+  @Test
+  public void testGetLocalInstancesWithLocalityDisabled() throws Exception {
+    when(bizConfig.isDiscoveryLocalityEnabled()).thenReturn(false);
+
+    assertTrue(discoveryService.getLocalInstances(someInstances, someDataCenter).isEmpty());
+  }
+
+  @Test
+  public void testSpread() throws Exception {
+    String someClientKey = "someClientKey";
+
+    List<InstanceInfo> result = discoveryService.spread(someInstances, someClientKey);
+
+    assertEquals(someInstances.size(), result.size());
+    assertTrue(result.containsAll(someInstances));
+    assertEquals(result, discoveryService.spread(Lists.reverse(someInstances), someClientKey));
+  }
+
+  private InstanceInfo assembleInstance(String instanceId, String dataCenter) {
+    return InstanceInfo.Builder.newBuilder().setAppName(ServiceNameConsts.APOLLO_CONFIGSERVICE)
+        .setInstanceId(instanceId).setHostName(instanceId)
+        .setMetadata(ImmutableMap.of(DiscoveryService.DATA_CENTER_METADATA_KEY, dataCenter)).build();
+  }
+}
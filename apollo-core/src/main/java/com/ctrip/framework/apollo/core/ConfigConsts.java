@@ -9,4 +9,5 @@ public interface ConfigConsts {
   String CONFIG_FILE_CONTENT_KEY = "content";
   String NO_APPID_PLACEHOLDER = "ApolloNoAppIdPlaceHolder";
   long NOTIFICATION_ID_PLACEHOLDER = -1;
+  String CONFIG_SERVICES_ORDERED_HEADER = "Apollo-Config-Services-Ordered";
 }
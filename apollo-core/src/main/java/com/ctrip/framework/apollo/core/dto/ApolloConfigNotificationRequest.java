@@ -0,0 +1,67 @@
+package com.ctrip.framework.apollo.core.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The compact long polling request body, the notification id of namespaceNames[i] is notificationIds[i]
+ */
+public class ApolloConfigNotificationRequest {
+  private List<String> namespaceNames;
+  private List<Long> notificationIds;
+
+  //for json converter
+  public ApolloConfigNotificationRequest() {
+  }
+
+  public ApolloConfigNotificationRequest(List<ApolloConfigNotification> notifications) {
+    this.namespaceNames = new ArrayList<>(notifications.size());
+    this.notificationIds = new ArrayList<>(notifications.size());
+    for (ApolloConfigNotification notification : notifications) {
+      namespaceNames.add(notification.getNamespaceName());
+      notificationIds.add(notification.getNotificationId());
+    }
+  }
+
+  public List<String> getNamespaceNames() {
+    return namespaceNames;
+  }
+
+  public void setNamespaceNames(List<String> namespaceNames) {
+    this.namespaceNames = namespaceNames;
+  }
+
+  public List<Long> getNotificationIds() {
+    return notificationIds;
+  }
+
+  public void setNotificationIds(List<Long> notificationIds) {
+    this.notificationIds = notificationIds;
+  }
+
+  /**
+   * @return the notifications, or null if the namespace names and notification ids don't match
+   */
+  public List<ApolloConfigNotification> toNotifications() {
+    if (namespaceNames == null || notificationIds == null || namespaceNames.size() != notificationIds.size()) {
+      return null;
+    }
+    List<ApolloConfigNotification> notifications = new ArrayList<>(namespaceNames.size());
+    for (int i = 0; i < namespaceNames.size(); i++) {
+      Long notificationId = notificationIds.get(i);
+      if (notificationId == null) {
+        return null;
+      }
+      notifications.add(new ApolloConfigNotification(namespaceNames.get(i), notificationId));
+    }
+    return notifications;
+  }
+
+  @Override
+  public String toString() {
+    return "ApolloConfigNotificationRequest{" +
+        "namespaceNames=" + namespaceNames +
+        ", notificationIds=" + notificationIds +
+        '}';
+  }
+}
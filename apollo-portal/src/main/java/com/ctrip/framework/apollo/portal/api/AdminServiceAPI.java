@@ -11,6 +11,7 @@ import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
 import com.ctrip.framework.apollo.common.dto.ItemDTO;
 import com.ctrip.framework.apollo.common.dto.NamespaceDTO;
 import com.ctrip.framework.apollo.common.dto.NamespaceLockDTO;
+import com.ctrip.framework.apollo.common.dto.NamespaceReleaseDTO;
 import com.ctrip.framework.apollo.common.dto.PageDTO;
 import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
 import com.ctrip.framework.apollo.common.dto.ReleaseHistoryDTO;
@@ -260,11 +261,15 @@ public class AdminServiceAPI {
       return Arrays.asList(releaseDTOs);
     }
 
+    /**
+     * @return the active releases without configurations
+     */
     public List<ReleaseDTO> findActiveReleases(String appId, Env env, String clusterName, String namespaceName,
         int page,
         int size) {
       ReleaseDTO[] releaseDTOs = restTemplate.get(
-          env, "apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/active?page={page}&size={size}",
+          env, "apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/active?page={page}&size={size}"
+              + "&withConfigurations=false",
           ReleaseDTO[].class,
           appId, clusterName, namespaceName, page, size);
       return Arrays.asList(releaseDTOs);
@@ -296,6 +301,14 @@ public class AdminServiceAPI {
       return response;
     }
 
+    public List<ReleaseDTO> createReleases(String appId, Env env, List<NamespaceReleaseDTO> namespaceReleases,
+        String operator, boolean isEmergencyPublish) {
+      ReleaseDTO[] releaseDTOs = restTemplate.post(
+          env, "apps/{appId}/releases/batch?operator={operator}&isEmergencyPublish={isEmergencyPublish}",
+          namespaceReleases, ReleaseDTO[].class, appId, operator, isEmergencyPublish);
+      return Arrays.asList(releaseDTOs);
+    }
+
     public ReleaseDTO createGrayDeletionRelease(String appId, Env env, String clusterName, String namespace,
                                     String releaseName, String releaseComment, String operator,
                                     boolean isEmergencyPublish, Set<String> grayDelKeys) {
@@ -347,6 +360,17 @@ public class AdminServiceAPI {
 
       return Arrays.asList(commitDTOs);
     }
+
+    public List<CommitDTO> findBefore(String appId, Env env, String clusterName, String namespaceName, long beforeId,
+        int size) {
+
+      CommitDTO[] commitDTOs = restTemplate.get(env,
+          "apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/commit?beforeId={beforeId}&size={size}",
+          CommitDTO[].class,
+          appId, clusterName, namespaceName, beforeId, size);
+
+      return Arrays.asList(commitDTOs);
+    }
   }
 
   @Service
@@ -379,6 +403,13 @@ public class AdminServiceAPI {
 
     }
 
+    public List<InstanceDTO> getByReleaseAfter(Env env, long releaseId, long afterId, int size) {
+      InstanceDTO[] instanceDTOs = restTemplate.get(env,
+          "/instances/by-release?releaseId={releaseId}&afterId={afterId}&size={size}", InstanceDTO[].class,
+          releaseId, afterId, size);
+      return Arrays.asList(instanceDTOs);
+    }
+
     public List<InstanceDTO> getByReleasesNotIn(String appId, Env env, String clusterName, String namespaceName,
         Set<Long> releaseIds) {
 
@@ -404,6 +435,16 @@ public class AdminServiceAPI {
       return entity.getBody();
     }
 
+    public List<InstanceDTO> getByNamespaceAfter(String appId, Env env, String clusterName, String namespaceName,
+        String instanceAppId, long afterId, int size) {
+      InstanceDTO[] instanceDTOs = restTemplate.get(env,
+          "/instances/by-namespace?appId={appId}"
+              + "&clusterName={clusterName}&namespaceName={namespaceName}&instanceAppId={instanceAppId}"
+              + "&afterId={afterId}&size={size}",
+          InstanceDTO[].class, appId, clusterName, namespaceName, instanceAppId, afterId, size);
+      return Arrays.asList(instanceDTOs);
+    }
+
     public int getInstanceCountByNamespace(String appId, Env env, String clusterName, String namespaceName) {
       Integer
           count =
@@ -472,6 +513,14 @@ public class AdminServiceAPI {
           type, appId, clusterName, namespaceName, page, size).getBody();
     }
 
+    public List<ReleaseHistoryDTO> findReleaseHistoriesByNamespaceBefore(String appId, Env env, String clusterName,
+        String namespaceName, long beforeId, int size) {
+      ReleaseHistoryDTO[] releaseHistoryDTOs = restTemplate.get(env,
+          "/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/histories?beforeId={beforeId}&size={size}",
+          ReleaseHistoryDTO[].class, appId, clusterName, namespaceName, beforeId, size);
+      return Arrays.asList(releaseHistoryDTOs);
+    }
+
     public PageDTO<ReleaseHistoryDTO> findByReleaseIdAndOperation(Env env, long releaseId, int operation, int page,
         int size) {
       return restTemplate.get(env,
@@ -33,11 +33,17 @@ public class CommitController {
   public List<CommitDTO> find(@PathVariable String appId, @PathVariable String env,
                               @PathVariable String clusterName, @PathVariable String namespaceName,
                               @Valid @PositiveOrZero(message = "page should be positive or 0") @RequestParam(defaultValue = "0") int page,
-                              @Valid @Positive(message = "size should be positive number") @RequestParam(defaultValue = "10") int size) {
+                              @Valid @Positive(message = "size should be positive number") @RequestParam(defaultValue = "10") int size,
+                              @RequestParam(required = false) Long beforeId) {
     if (permissionValidator.shouldHideConfigToCurrentUser(appId, env, namespaceName)) {
       return Collections.emptyList();
     }
 
+    //keyset pagination, the page is ignored
+    if (beforeId != null) {
+      return commitService.findBefore(appId, Env.valueOf(env), clusterName, namespaceName, beforeId, size);
+    }
+
     return commitService.find(appId, Env.valueOf(env), clusterName, namespaceName, page, size);
   }
 }
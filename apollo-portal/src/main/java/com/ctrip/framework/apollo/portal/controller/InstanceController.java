@@ -38,6 +38,14 @@ public class InstanceController {
         return instanceService.getByRelease(Env.valueOf(env), releaseId, page, size);
     }
 
+    @GetMapping(value = "/envs/{env}/instances/by-release", params = "afterId")
+    public List<InstanceDTO> getByReleaseAfter(@PathVariable String env, @RequestParam long releaseId,
+                                               @RequestParam long afterId,
+                                               @RequestParam(defaultValue = "20") int size) {
+
+        return instanceService.getByReleaseAfter(Env.valueOf(env), releaseId, afterId, size);
+    }
+
     @GetMapping("/envs/{env}/instances/by-namespace")
     public PageDTO<InstanceDTO> getByNamespace(@PathVariable String env, @RequestParam String appId,
                                                @RequestParam String clusterName, @RequestParam String namespaceName,
@@ -48,6 +56,17 @@ public class InstanceController {
         return instanceService.getByNamespace(Env.valueOf(env), appId, clusterName, namespaceName, instanceAppId, page, size);
     }
 
+    @GetMapping(value = "/envs/{env}/instances/by-namespace", params = "afterId")
+    public List<InstanceDTO> getByNamespaceAfter(@PathVariable String env, @RequestParam String appId,
+                                                 @RequestParam String clusterName, @RequestParam String namespaceName,
+                                                 @RequestParam(required = false) String instanceAppId,
+                                                 @RequestParam long afterId,
+                                                 @RequestParam(defaultValue = "20") int size) {
+
+        return instanceService.getByNamespaceAfter(Env.valueOf(env), appId, clusterName, namespaceName, instanceAppId,
+            afterId, size);
+    }
+
     @GetMapping("/envs/{env}/instances/by-namespace/count")
     public ResponseEntity<Number> getInstanceCountByNamespace(@PathVariable String env, @RequestParam String appId,
                                                               @RequestParam String clusterName,
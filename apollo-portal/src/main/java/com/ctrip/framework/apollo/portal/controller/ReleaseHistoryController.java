@@ -30,12 +30,19 @@ public class ReleaseHistoryController {
                                                                 @PathVariable String clusterName,
                                                                 @PathVariable String namespaceName,
                                                                 @RequestParam(value = "page", defaultValue = "0") int page,
-                                                                @RequestParam(value = "size", defaultValue = "10") int size) {
+                                                                @RequestParam(value = "size", defaultValue = "10") int size,
+                                                                @RequestParam(value = "beforeId", required = false) Long beforeId) {
 
     if (permissionValidator.shouldHideConfigToCurrentUser(appId, env, namespaceName)) {
       return Collections.emptyList();
     }
 
+    //keyset pagination, the page is ignored
+    if (beforeId != null) {
+      return releaseHistoryService.findNamespaceReleaseHistoryBefore(appId, Env.valueOf(env), clusterName,
+          namespaceName, beforeId, size);
+    }
+
    return releaseHistoryService.findNamespaceReleaseHistory(appId, Env.valueOf(env), clusterName ,namespaceName, page, size);
   }
 
@@ -3,8 +3,18 @@ package com.ctrip.framework.apollo.portal.repository;
 
 import com.ctrip.framework.apollo.portal.entity.po.ServerConfig;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import java.util.List;
+
 public interface ServerConfigRepository extends PagingAndSortingRepository<ServerConfig, Long> {
   ServerConfig findByKey(String key);
+
+  /**
+   * @return one row of the config count, the max last modified time and the max id, which changes when configs are
+   * changed. The max id tells apart a config deleted and another inserted within the same second.
+   */
+  @Query("select count(c), max(c.dataChangeLastModifiedTime), max(c.id) from ServerConfig c")
+  List<Object[]> findVersion();
 }
@@ -21,4 +21,9 @@ public class CommitService {
     return commitAPI.find(appId, env, clusterName, namespaceName, page, size);
   }
 
+  public List<CommitDTO> findBefore(String appId, Env env, String clusterName, String namespaceName, long beforeId,
+                                    int size) {
+    return commitAPI.findBefore(appId, env, clusterName, namespaceName, beforeId, size);
+  }
+
 }
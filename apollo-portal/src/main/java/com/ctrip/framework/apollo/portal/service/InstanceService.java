@@ -28,6 +28,15 @@ public class InstanceService {
     return instanceAPI.getByNamespace(appId, env, clusterName, namespaceName, instanceAppId, page, size);
   }
 
+  public List<InstanceDTO> getByReleaseAfter(Env env, long releaseId, long afterId, int size){
+    return instanceAPI.getByReleaseAfter(env, releaseId, afterId, size);
+  }
+
+  public List<InstanceDTO> getByNamespaceAfter(Env env, String appId, String clusterName, String namespaceName,
+                                               String instanceAppId, long afterId, int size){
+    return instanceAPI.getByNamespaceAfter(appId, env, clusterName, namespaceName, instanceAppId, afterId, size);
+  }
+
   public int getInstanceCountByNamepsace(String appId, Env env, String clusterName, String namespaceName){
     return instanceAPI.getInstanceCountByNamespace(appId, env, clusterName, namespaceName);
   }
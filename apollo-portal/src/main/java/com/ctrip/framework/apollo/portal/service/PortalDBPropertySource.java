@@ -11,6 +11,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -35,6 +37,11 @@ public class PortalDBPropertySource extends RefreshablePropertySource {
 
   @Override
   protected void refresh() {
+    //probe first, so the configs are loaded only when changed
+    if (!shouldReload(findVersion())) {
+      return;
+    }
+
     Iterable<ServerConfig> dbConfigs = serverConfigRepository.findAll();
 
     for (ServerConfig config: dbConfigs) {
@@ -52,5 +59,8 @@ public class PortalDBPropertySource extends RefreshablePropertySource {
     }
   }
 
-
+  private Object findVersion() {
+    List<Object[]> version = serverConfigRepository.findVersion();
+    return version.isEmpty() ? null : Arrays.asList(version.get(0));
+  }
 }
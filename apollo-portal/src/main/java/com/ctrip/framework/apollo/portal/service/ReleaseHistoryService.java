@@ -12,6 +12,7 @@ import com.ctrip.framework.apollo.portal.entity.bo.ReleaseHistoryBO;
 import com.ctrip.framework.apollo.portal.util.RelativeDateFormat;
 import com.google.gson.Gson;
 import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -66,7 +67,21 @@ public class ReleaseHistoryService {
       return Collections.emptyList();
     }
 
-    List<ReleaseHistoryDTO> content = result.getContent();
+    return transformReleaseHistoryDTO2BO(env, result.getContent());
+  }
+
+  public List<ReleaseHistoryBO> findNamespaceReleaseHistoryBefore(String appId, Env env, String clusterName,
+                                                                  String namespaceName, long beforeId, int size) {
+    List<ReleaseHistoryDTO> content = releaseHistoryAPI.findReleaseHistoriesByNamespaceBefore(appId, env,
+        clusterName, namespaceName, beforeId, size);
+    if (CollectionUtils.isEmpty(content)) {
+      return Collections.emptyList();
+    }
+
+    return transformReleaseHistoryDTO2BO(env, content);
+  }
+
+  private List<ReleaseHistoryBO> transformReleaseHistoryDTO2BO(Env env, List<ReleaseHistoryDTO> content) {
     Set<Long> releaseIds = new HashSet<>();
     for (ReleaseHistoryDTO releaseHistoryDTO : content) {
       long releaseId = releaseHistoryDTO.getReleaseId();
@@ -0,0 +1,94 @@
+package com.ctrip.framework.apollo.portal.service;
+
+import com.google.common.collect.Lists;
+
+import com.ctrip.framework.apollo.portal.AbstractUnitTest;
+import com.ctrip.framework.apollo.portal.entity.po.ServerConfig;
+import com.ctrip.framework.apollo.portal.repository.ServerConfigRepository;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PortalDBPropertySourceTest extends AbstractUnitTest {
+
+  @Mock
+  private ServerConfigRepository serverConfigRepository;
+  private PortalDBPropertySource propertySource;
+
+  private String someKey = "someKey";
+  private String someValue = "someValue";
+  private String anotherKey = "anotherKey";
+  private String anotherValue = "anotherValue";
+
+  @Before
+  public void setUp() {
+    propertySource = new PortalDBPropertySource();
+    ReflectionTestUtils.setField(propertySource, "serverConfigRepository", serverConfigRepository);
+
+    when(serverConfigRepository.findAll()).thenReturn(Lists.newArrayList(assembleServerConfig(someKey, someValue)));
+    when(serverConfigRepository.findVersion()).thenReturn(assembleVersion(1, 1, 1));
+  }
+
+  @Test
+  public void testRefreshOnlyWhenChanged() {
+    propertySource.refresh();
+    //loaded once more to catch the changes made right after the first load
+    propertySource.refresh();
+    propertySource.refresh();
+
+    verify(serverConfigRepository, times(2)).findAll();
+    assertEquals(someValue, propertySource.getProperty(someKey));
+
+    when(serverConfigRepository.findAll()).thenReturn(Lists.newArrayList(assembleServerConfig(someKey, "changedValue")));
+    when(serverConfigRepository.findVersion()).thenReturn(assembleVersion(1, 2, 1));
+
+    propertySource.refresh();
+
+    verify(serverConfigRepository, times(3)).findAll();
+    assertEquals("changedValue", propertySource.getProperty(someKey));
+  }
+
+  @Test
+  public void testRefreshWhenDeletedAndInsertedInTheSameSecond() {
+    propertySource.refresh();
+    propertySource.refresh();
+    propertySource.refresh();
+
+    verify(serverConfigRepository, times(2)).findAll();
+    assertNull(propertySource.getProperty(anotherKey));
+
+    //one config is deleted and another is inserted, the count and the last modified time stay the same
+    when(serverConfigRepository.findAll())
+        .thenReturn(Lists.newArrayList(assembleServerConfig(anotherKey, anotherValue)));
+    when(serverConfigRepository.findVersion()).thenReturn(assembleVersion(1, 1, 2));
+
+    propertySource.refresh();
+
+    verify(serverConfigRepository, times(3)).findAll();
+    assertEquals(anotherValue, propertySource.getProperty(anotherKey));
+  }
+
+  private ServerConfig assembleServerConfig(String key, String value) {
+    ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setKey(key);
+    serverConfig.setValue(value);
+    return serverConfig;
+  }
+
+  private List<Object[]> assembleVersion(long count, long lastModifiedTime, long maxId) {
+    List<Object[]> version = Lists.newArrayList();
+    version.add(new Object[]{count, new Date(lastModifiedTime), maxId});
+    return version;
+  }
+}
@@ -1,6 +1,7 @@
 #!/bin/sh
 
 # apollo config db info
+# append &rewriteBatchedStatements=true to the url (quoted then) so that the admin service sends jdbc batches in one round trip
 apollo_config_db_url=jdbc:mysql://fill-in-the-correct-server:3306/ApolloConfigDB?characterEncoding=utf8
 apollo_config_db_username=FillInCorrectUser
 apollo_config_db_password=FillInCorrectPassword
@@ -0,0 +1,9 @@
+# mandatory, the admin and config services read and write Release.PayloadHash
+CREATE TABLE `ReleasePayload` (
+  `Hash` varchar(64) NOT NULL COMMENT '发布配置的sha256',
+  `Content` longtext NOT NULL COMMENT '发布配置',
+  `DataChange_CreatedTime` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`Hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='按内容去重的发布配置';
+
+ALTER TABLE `Release` ADD COLUMN `PayloadHash` varchar(64) DEFAULT NULL COMMENT '发布配置的sha256, 为空表示配置存储在Configurations中' AFTER `Configurations`;
@@ -0,0 +1,8 @@
+# mandatory, the background jobs of the admin service take their locks from this table
+CREATE TABLE `JobLock` (
+  `Name` varchar(64) NOT NULL COMMENT '任务名',
+  `Owner` varchar(255) NOT NULL COMMENT '持有锁的节点',
+  `ExpireTime` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '锁过期时间',
+  `DataChange_LastTime` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最后修改时间',
+  PRIMARY KEY (`Name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='后台任务锁';
@@ -0,0 +1,3 @@
+# mandatory, the release purge job looks up the releases by PreviousReleaseId and the payloads by release
+ALTER TABLE `ReleaseHistory` ADD INDEX `IX_PreviousReleaseId` (`PreviousReleaseId`);
+ALTER TABLE `Release` ADD INDEX `IX_PayloadHash` (`PayloadHash`);
@@ -202,6 +202,25 @@ CREATE TABLE `InstanceConfig` (
 
 
 
+# Dump of table instanceconfigcount
+# ------------------------------------------------------------
+
+DROP TABLE IF EXISTS `InstanceConfigCount`;
+
+CREATE TABLE `InstanceConfigCount` (
+  `Id` int(11) unsigned NOT NULL AUTO_INCREMENT COMMENT '自增Id',
+  `ConfigAppId` varchar(32) NOT NULL DEFAULT 'default' COMMENT 'Config App Id',
+  `ConfigClusterName` varchar(32) NOT NULL DEFAULT 'default' COMMENT 'Config Cluster Name',
+  `ConfigNamespaceName` varchar(32) NOT NULL DEFAULT 'default' COMMENT 'Config Namespace Name',
+  `ReleaseKey` varchar(64) NOT NULL DEFAULT '' COMMENT '发布的Key',
+  `InstanceCount` int(11) NOT NULL DEFAULT '0' COMMENT '使用该发布的实例数',
+  `DataChange_LastTime` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最后修改时间',
+  PRIMARY KEY (`Id`),
+  UNIQUE KEY `IX_UNIQUE_KEY` (`ConfigAppId`,`ConfigClusterName`,`ConfigNamespaceName`,`ReleaseKey`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='各发布的实例数';
+
+
+
 # Dump of table item
 # ------------------------------------------------------------
 
@@ -226,6 +245,21 @@ CREATE TABLE `Item` (
 
 
 
+# Dump of table joblock
+# ------------------------------------------------------------
+
+DROP TABLE IF EXISTS `JobLock`;
+
+CREATE TABLE `JobLock` (
+  `Name` varchar(64) NOT NULL COMMENT '任务名',
+  `Owner` varchar(255) NOT NULL COMMENT '持有锁的节点',
+  `ExpireTime` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '锁过期时间',
+  `DataChange_LastTime` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最后修改时间',
+  PRIMARY KEY (`Name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='后台任务锁';
+
+
+
 # Dump of table namespace
 # ------------------------------------------------------------
 
@@ -283,6 +317,7 @@ CREATE TABLE `Release` (
   `ClusterName` varchar(500) NOT NULL DEFAULT 'default' COMMENT 'ClusterName',
   `NamespaceName` varchar(500) NOT NULL DEFAULT 'default' COMMENT 'namespaceName',
   `Configurations` longtext NOT NULL COMMENT '发布配置',
+  `PayloadHash` varchar(64) DEFAULT NULL COMMENT '发布配置的sha256, 为空表示配置存储在Configurations中',
   `IsAbandoned` bit(1) NOT NULL DEFAULT b'0' COMMENT '是否废弃',
   `IsDeleted` bit(1) NOT NULL DEFAULT b'0' COMMENT '1: deleted, 0: normal',
   `DataChange_CreatedBy` varchar(32) NOT NULL DEFAULT 'default' COMMENT '创建人邮箱前缀',
@@ -292,7 +327,8 @@ CREATE TABLE `Release` (
   PRIMARY KEY (`Id`),
   KEY `AppId_ClusterName_GroupName` (`AppId`(191),`ClusterName`(191),`NamespaceName`(191)),
   KEY `DataChange_LastTime` (`DataChange_LastTime`),
-  KEY `IX_ReleaseKey` (`ReleaseKey`)
+  KEY `IX_ReleaseKey` (`ReleaseKey`),
+  KEY `IX_PayloadHash` (`PayloadHash`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='发布';
 
 
@@ -319,6 +355,7 @@ CREATE TABLE `ReleaseHistory` (
   PRIMARY KEY (`Id`),
   KEY `IX_Namespace` (`AppId`,`ClusterName`,`NamespaceName`,`BranchName`),
   KEY `IX_ReleaseId` (`ReleaseId`),
+  KEY `IX_PreviousReleaseId` (`PreviousReleaseId`),
   KEY `IX_DataChange_LastTime` (`DataChange_LastTime`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='发布历史';
 
@@ -339,6 +376,20 @@ CREATE TABLE `ReleaseMessage` (
 
 
 
+# Dump of table releasepayload
+# ------------------------------------------------------------
+
+DROP TABLE IF EXISTS `ReleasePayload`;
+
+CREATE TABLE `ReleasePayload` (
+  `Hash` varchar(64) NOT NULL COMMENT '发布配置的sha256',
+  `Content` longtext NOT NULL COMMENT '发布配置',
+  `DataChange_CreatedTime` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`Hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='按内容去重的发布配置';
+
+
+
 # Dump of table serverconfig
 # ------------------------------------------------------------
 
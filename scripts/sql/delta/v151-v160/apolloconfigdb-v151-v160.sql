@@ -0,0 +1,40 @@
+# delta schema to upgrade apollo config db from v1.5.1 to v1.6.0
+# all the changes are mandatory, apply them before upgrading the config service and the admin service
+
+Use ApolloConfigDB;
+
+# the admin and config services read and write Release.PayloadHash
+CREATE TABLE `ReleasePayload` (
+  `Hash` varchar(64) NOT NULL COMMENT '发布配置的sha256',
+  `Content` longtext NOT NULL COMMENT '发布配置',
+  `DataChange_CreatedTime` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`Hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='按内容去重的发布配置';
+
+ALTER TABLE `Release` ADD COLUMN `PayloadHash` varchar(64) DEFAULT NULL COMMENT '发布配置的sha256, 为空表示配置存储在Configurations中' AFTER `Configurations`;
+
+# the background jobs of the admin service take their locks from this table
+CREATE TABLE `JobLock` (
+  `Name` varchar(64) NOT NULL COMMENT '任务名',
+  `Owner` varchar(255) NOT NULL COMMENT '持有锁的节点',
+  `ExpireTime` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '锁过期时间',
+  `DataChange_LastTime` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最后修改时间',
+  PRIMARY KEY (`Name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='后台任务锁';
+
+# the admin service rebuilds the counts of the active instances periodically when instance.config.count.enabled is on
+CREATE TABLE `InstanceConfigCount` (
+  `Id` int(11) unsigned NOT NULL AUTO_INCREMENT COMMENT '自增Id',
+  `ConfigAppId` varchar(32) NOT NULL DEFAULT 'default' COMMENT 'Config App Id',
+  `ConfigClusterName` varchar(32) NOT NULL DEFAULT 'default' COMMENT 'Config Cluster Name',
+  `ConfigNamespaceName` varchar(32) NOT NULL DEFAULT 'default' COMMENT 'Config Namespace Name',
+  `ReleaseKey` varchar(64) NOT NULL DEFAULT '' COMMENT '发布的Key',
+  `InstanceCount` int(11) NOT NULL DEFAULT '0' COMMENT '使用该发布的实例数',
+  `DataChange_LastTime` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最后修改时间',
+  PRIMARY KEY (`Id`),
+  UNIQUE KEY `IX_UNIQUE_KEY` (`ConfigAppId`,`ConfigClusterName`,`ConfigNamespaceName`,`ReleaseKey`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='各发布的实例数';
+
+# the release purge job looks up the releases by PreviousReleaseId and the payloads by release
+ALTER TABLE `ReleaseHistory` ADD INDEX `IX_PreviousReleaseId` (`PreviousReleaseId`);
+ALTER TABLE `Release` ADD INDEX `IX_PayloadHash` (`PayloadHash`);